@@ -24,6 +24,11 @@ class HandDetectionService:
         self.camera = None
         self.thread = None
         
+        # Sem mão na imagem, um frame vazio a cada intervalo mantém o Java
+        # informado de que a captura continua ativa
+        self.heartbeat_interval = 0.25
+        self.last_sent = 0.0
+        
         # Configuração da API REST
         self.java_api_url = "http://localhost:8082/api/hand-detection"
         
@@ -328,6 +333,7 @@ class HandDetectionService:
 
     def send_to_java(self, landmarks):
         """Envia landmarks para o sistema Java"""
+        self.last_sent = time.time()
         try:
             data = {
                 'timestamp': int(time.time() * 1000),
@@ -361,6 +367,8 @@ class HandDetectionService:
             try:
                 if self.camera is None or not self.camera.isOpened():
                     logger.error("Camera nao esta disponivel")
+                    # O /status deixa de informar captura ativa: o Java pede /start de novo
+                    self.is_running = False
                     break
                 
                 ret, frame = self.camera.read()
@@ -372,8 +380,8 @@ class HandDetectionService:
                 # Processa frame e detecta mãos
                 landmarks = self.process_frame(frame)
                 
-                # Envia para o sistema Java
-                if landmarks:
+                # Envia para o sistema Java (frame vazio periódico quando não há mão)
+                if landmarks or time.time() - self.last_sent >= self.heartbeat_interval:
                     self.send_to_java(landmarks)
                 
                 # Controla FPS
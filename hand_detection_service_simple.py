@@ -22,6 +22,11 @@ class HandDetectionService:
         self.is_running = False
         self.thread = None
         
+        # Sem mão na imagem, um frame vazio a cada intervalo mantém o Java
+        # informado de que a captura continua ativa
+        self.heartbeat_interval = 0.25
+        self.last_sent = 0.0
+        
         # Configuração da API REST
         self.java_api_url = "http://localhost:8082/api/hand-detection"
         
@@ -52,6 +57,7 @@ class HandDetectionService:
 
     def send_to_java(self, landmarks):
         """Envia landmarks para o sistema Java"""
+        self.last_sent = time.time()
         try:
             data = {
                 'timestamp': int(time.time() * 1000),
@@ -84,8 +90,8 @@ class HandDetectionService:
                 # Simula detecção de mãos
                 landmarks = self.detect_hands_simulated()
                 
-                # Envia para o sistema Java
-                if landmarks:
+                # Envia para o sistema Java (frame vazio periódico quando não há mão)
+                if landmarks or time.time() - self.last_sent >= self.heartbeat_interval:
                     self.send_to_java(landmarks)
                 
                 # Controla FPS
@@ -0,0 +1,154 @@
+package com.touchvirtual.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Configuração da thread de atuação (injeção de eventos de mouse no SO)
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "actuation")
+public class ActuationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActuationConfig.class);
+
+    // Taxa de saída do cursor interpolado (Hz); 0 move direto a cada amostra
+    private int outputRateHz = 120;
+
+    // Backend de injeção: "robot" (AWT) ou "recording" (grava, não injeta)
+    private String inputSink = "robot";
+    private int recordingCapacity = 65536;
+
+    // Limites por tipo de evento contínuo (eventos por segundo; 0 sem limite).
+    // O excedente é coalescido, nunca descartado; eventos discretos não têm limite.
+    private double moveRateLimit = 120;
+    private double zoomRateLimit = 8;
+    private int rateLimitBurst = 3;
+
+    // Scroll inercial: cadência dos giros, px de mão por giro, decaimento do momento
+    // e tempo sem amostras que encerra o contato
+    private int scrollCadenceHz = 60;
+    private double scrollPixelsPerTick = 40.0;
+    private long scrollMomentumMillis = 325;
+    private long scrollContactTimeoutMillis = 120;
+
+    // Lotes de eventos remotos: tamanho máximo e duração máxima da reprodução
+    private int batchMaxEvents = 1000;
+    private long batchMaxSpanMillis = 5000;
+
+    @PostConstruct
+    public void logSettings() {
+        logger.info("🖱️ Configuração da atuação:");
+        logger.info("   - Backend de injeção: {}", inputSink);
+        logger.info("   - Taxa de saída do cursor: {}", outputRateHz > 0 ? outputRateHz + " Hz" : "sem interpolação");
+        logger.info("   - Limites (eventos/s): movimento {}, zoom {} (rajada {})",
+                moveRateLimit, zoomRateLimit, rateLimitBurst);
+        logger.info("   - Scroll: {} Hz, {} px por giro, momento {} ms",
+                scrollCadenceHz, scrollPixelsPerTick, scrollMomentumMillis);
+        logger.info("   - Lotes: até {} eventos em {} ms", batchMaxEvents, batchMaxSpanMillis);
+    }
+
+    // Getters e Setters
+    public int getOutputRateHz() {
+        return outputRateHz;
+    }
+
+    public void setOutputRateHz(int outputRateHz) {
+        this.outputRateHz = outputRateHz;
+    }
+
+    public double getMoveRateLimit() {
+        return moveRateLimit;
+    }
+
+    public void setMoveRateLimit(double moveRateLimit) {
+        this.moveRateLimit = moveRateLimit;
+    }
+
+    public double getZoomRateLimit() {
+        return zoomRateLimit;
+    }
+
+    public void setZoomRateLimit(double zoomRateLimit) {
+        this.zoomRateLimit = zoomRateLimit;
+    }
+
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public void setRateLimitBurst(int rateLimitBurst) {
+        this.rateLimitBurst = rateLimitBurst;
+    }
+
+    public String getInputSink() {
+        return inputSink;
+    }
+
+    public void setInputSink(String inputSink) {
+        this.inputSink = inputSink;
+    }
+
+    public int getRecordingCapacity() {
+        return recordingCapacity;
+    }
+
+    public void setRecordingCapacity(int recordingCapacity) {
+        this.recordingCapacity = recordingCapacity;
+    }
+
+    public int getBatchMaxEvents() {
+        return batchMaxEvents;
+    }
+
+    public void setBatchMaxEvents(int batchMaxEvents) {
+        this.batchMaxEvents = batchMaxEvents;
+    }
+
+    public long getBatchMaxSpanMillis() {
+        return batchMaxSpanMillis;
+    }
+
+    public void setBatchMaxSpanMillis(long batchMaxSpanMillis) {
+        this.batchMaxSpanMillis = batchMaxSpanMillis;
+    }
+
+    public int getScrollCadenceHz() {
+        return scrollCadenceHz;
+    }
+
+    public void setScrollCadenceHz(int scrollCadenceHz) {
+        this.scrollCadenceHz = scrollCadenceHz;
+    }
+
+    public double getScrollPixelsPerTick() {
+        return scrollPixelsPerTick;
+    }
+
+    public void setScrollPixelsPerTick(double scrollPixelsPerTick) {
+        this.scrollPixelsPerTick = scrollPixelsPerTick;
+    }
+
+    public long getScrollMomentumMillis() {
+        return scrollMomentumMillis;
+    }
+
+    public void setScrollMomentumMillis(long scrollMomentumMillis) {
+        this.scrollMomentumMillis = scrollMomentumMillis;
+    }
+
+    public long getScrollContactTimeoutMillis() {
+        return scrollContactTimeoutMillis;
+    }
+
+    public void setScrollContactTimeoutMillis(long scrollContactTimeoutMillis) {
+        this.scrollContactTimeoutMillis = scrollContactTimeoutMillis;
+    }
+}
@@ -0,0 +1,82 @@
+package com.touchvirtual.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Configuração das transmissões WebSocket em tempo real (publicação por mudança)
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "websocket.broadcast")
+public class BroadcastConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(BroadcastConfig.class);
+
+    // Taxa máxima de publicação por tópico (mensagens/s)
+    private int maxRateHz = 30;
+
+    // Sem mudanças, publica mesmo assim a cada intervalo (batimento)
+    private long heartbeatMillis = 2000;
+
+    // Fila de saída por sessão: acima do limite as mensagens mais antigas são descartadas
+    private int sessionBufferBytes = 256 * 1024;
+
+    // Um envio travado por mais que o limite encerra a sessão
+    private long sessionSendTimeLimitMillis = 5000;
+
+    @PostConstruct
+    public void logSettings() {
+        logger.info("📡 Configuração das transmissões WebSocket:");
+        logger.info("   - Taxa máxima: {} Hz por tópico", maxRateHz);
+        logger.info("   - Batimento sem mudanças: {} ms", heartbeatMillis);
+        logger.info("   - Fila de saída por sessão: {} bytes (descarta as mais antigas)", sessionBufferBytes);
+        logger.info("   - Limite de envio por sessão: {} ms", sessionSendTimeLimitMillis);
+    }
+
+    /**
+     * Intervalo de verificação de mudanças, derivado da taxa máxima
+     */
+    public long getCheckIntervalMillis() {
+        return Math.max(1, 1000 / Math.max(1, maxRateHz));
+    }
+
+    // Getters e Setters
+    public int getMaxRateHz() {
+        return maxRateHz;
+    }
+
+    public void setMaxRateHz(int maxRateHz) {
+        this.maxRateHz = maxRateHz;
+    }
+
+    public long getHeartbeatMillis() {
+        return heartbeatMillis;
+    }
+
+    public void setHeartbeatMillis(long heartbeatMillis) {
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    public int getSessionBufferBytes() {
+        return sessionBufferBytes;
+    }
+
+    public void setSessionBufferBytes(int sessionBufferBytes) {
+        this.sessionBufferBytes = sessionBufferBytes;
+    }
+
+    public long getSessionSendTimeLimitMillis() {
+        return sessionSendTimeLimitMillis;
+    }
+
+    public void setSessionSendTimeLimitMillis(long sessionSendTimeLimitMillis) {
+        this.sessionSendTimeLimitMillis = sessionSendTimeLimitMillis;
+    }
+}
@@ -0,0 +1,234 @@
+package com.touchvirtual.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Configuração do mapeamento de coordenadas câmera -> tela
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mapping")
+public class MappingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappingConfig.class);
+
+    private int screenWidth = 1920;
+    private int screenHeight = 1080;
+    private int calibrationPoints = 9;
+
+    // Grade de correção de distorção da lente
+    private boolean distortionCorrection = true;
+    private int distortionGridColumns = 64;
+    private int distortionGridRows = 48;
+    private double distortionK1 = 0.0;
+    private double distortionK2 = 0.0;
+
+    // Thin-plate spline local para calibração com muitos pontos
+    private int splineNeighbours = 8;
+    private double splineRegularization = 0.0;
+
+    // Calibração automática por permanência do dedo sobre os alvos
+    private long autoCalibrationDwellMillis = 300;
+    private double autoCalibrationDwellRadius = 0.008;
+    private int autoCalibrationSamplesPerTarget = 20;
+    private int autoCalibrationRansacIterations = 200;
+    private double autoCalibrationInlierThreshold = 12.0;
+    private long autoCalibrationTimeoutMillis = 20000; // tempo máximo em cada alvo
+
+    // Refinamento online da calibração a partir de cliques confirmados
+    private boolean refinementEnabled = false;
+    private double refinementForgettingFactor = 0.98;
+    private double refinementMaxCorrection = 0.1;
+    private double refinementOutlierThreshold = 0.15;
+    private int refinementMinCorrespondences = 5;
+
+    @PostConstruct
+    public void logSettings() {
+        logger.info("🖥️ Configuração do mapeamento:");
+        logger.info("   - Tela padrão: {}x{}", screenWidth, screenHeight);
+        logger.info("   - Pontos de calibração: {}", calibrationPoints);
+        logger.info("   - Grade de distorção: {} ({}x{})",
+                distortionCorrection ? "ativa" : "inativa", distortionGridColumns, distortionGridRows);
+        logger.info("   - Vizinhos do spline: {}", splineNeighbours);
+        logger.info("   - Calibração automática: {} ms de permanência, {} amostras por alvo",
+                autoCalibrationDwellMillis, autoCalibrationSamplesPerTarget);
+        logger.info("   - Refinamento online: {} (esquecimento {})",
+                refinementEnabled ? "ativo" : "inativo", refinementForgettingFactor);
+    }
+
+    // Getters e Setters
+    public int getScreenWidth() {
+        return screenWidth;
+    }
+
+    public void setScreenWidth(int screenWidth) {
+        this.screenWidth = screenWidth;
+    }
+
+    public int getScreenHeight() {
+        return screenHeight;
+    }
+
+    public void setScreenHeight(int screenHeight) {
+        this.screenHeight = screenHeight;
+    }
+
+    public int getCalibrationPoints() {
+        return calibrationPoints;
+    }
+
+    public void setCalibrationPoints(int calibrationPoints) {
+        this.calibrationPoints = calibrationPoints;
+    }
+
+    public boolean isDistortionCorrection() {
+        return distortionCorrection;
+    }
+
+    public void setDistortionCorrection(boolean distortionCorrection) {
+        this.distortionCorrection = distortionCorrection;
+    }
+
+    public int getDistortionGridColumns() {
+        return distortionGridColumns;
+    }
+
+    public void setDistortionGridColumns(int distortionGridColumns) {
+        this.distortionGridColumns = distortionGridColumns;
+    }
+
+    public int getDistortionGridRows() {
+        return distortionGridRows;
+    }
+
+    public void setDistortionGridRows(int distortionGridRows) {
+        this.distortionGridRows = distortionGridRows;
+    }
+
+    public double getDistortionK1() {
+        return distortionK1;
+    }
+
+    public void setDistortionK1(double distortionK1) {
+        this.distortionK1 = distortionK1;
+    }
+
+    public double getDistortionK2() {
+        return distortionK2;
+    }
+
+    public void setDistortionK2(double distortionK2) {
+        this.distortionK2 = distortionK2;
+    }
+
+    public int getSplineNeighbours() {
+        return splineNeighbours;
+    }
+
+    public void setSplineNeighbours(int splineNeighbours) {
+        this.splineNeighbours = splineNeighbours;
+    }
+
+    public double getSplineRegularization() {
+        return splineRegularization;
+    }
+
+    public void setSplineRegularization(double splineRegularization) {
+        this.splineRegularization = splineRegularization;
+    }
+
+    public long getAutoCalibrationDwellMillis() {
+        return autoCalibrationDwellMillis;
+    }
+
+    public void setAutoCalibrationDwellMillis(long autoCalibrationDwellMillis) {
+        this.autoCalibrationDwellMillis = autoCalibrationDwellMillis;
+    }
+
+    public double getAutoCalibrationDwellRadius() {
+        return autoCalibrationDwellRadius;
+    }
+
+    public void setAutoCalibrationDwellRadius(double autoCalibrationDwellRadius) {
+        this.autoCalibrationDwellRadius = autoCalibrationDwellRadius;
+    }
+
+    public int getAutoCalibrationSamplesPerTarget() {
+        return autoCalibrationSamplesPerTarget;
+    }
+
+    public void setAutoCalibrationSamplesPerTarget(int autoCalibrationSamplesPerTarget) {
+        this.autoCalibrationSamplesPerTarget = autoCalibrationSamplesPerTarget;
+    }
+
+    public int getAutoCalibrationRansacIterations() {
+        return autoCalibrationRansacIterations;
+    }
+
+    public void setAutoCalibrationRansacIterations(int autoCalibrationRansacIterations) {
+        this.autoCalibrationRansacIterations = autoCalibrationRansacIterations;
+    }
+
+    public double getAutoCalibrationInlierThreshold() {
+        return autoCalibrationInlierThreshold;
+    }
+
+    public void setAutoCalibrationInlierThreshold(double autoCalibrationInlierThreshold) {
+        this.autoCalibrationInlierThreshold = autoCalibrationInlierThreshold;
+    }
+
+    public long getAutoCalibrationTimeoutMillis() {
+        return autoCalibrationTimeoutMillis;
+    }
+
+    public void setAutoCalibrationTimeoutMillis(long autoCalibrationTimeoutMillis) {
+        this.autoCalibrationTimeoutMillis = autoCalibrationTimeoutMillis;
+    }
+
+    public boolean isRefinementEnabled() {
+        return refinementEnabled;
+    }
+
+    public void setRefinementEnabled(boolean refinementEnabled) {
+        this.refinementEnabled = refinementEnabled;
+    }
+
+    public double getRefinementForgettingFactor() {
+        return refinementForgettingFactor;
+    }
+
+    public void setRefinementForgettingFactor(double refinementForgettingFactor) {
+        this.refinementForgettingFactor = refinementForgettingFactor;
+    }
+
+    public double getRefinementMaxCorrection() {
+        return refinementMaxCorrection;
+    }
+
+    public void setRefinementMaxCorrection(double refinementMaxCorrection) {
+        this.refinementMaxCorrection = refinementMaxCorrection;
+    }
+
+    public double getRefinementOutlierThreshold() {
+        return refinementOutlierThreshold;
+    }
+
+    public void setRefinementOutlierThreshold(double refinementOutlierThreshold) {
+        this.refinementOutlierThreshold = refinementOutlierThreshold;
+    }
+
+    public int getRefinementMinCorrespondences() {
+        return refinementMinCorrespondences;
+    }
+
+    public void setRefinementMinCorrespondences(int refinementMinCorrespondences) {
+        this.refinementMinCorrespondences = refinementMinCorrespondences;
+    }
+}
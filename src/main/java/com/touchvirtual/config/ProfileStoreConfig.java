@@ -0,0 +1,67 @@
+package com.touchvirtual.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Configuração do armazenamento local de perfis (calibração e ajustes)
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "profile-store")
+public class ProfileStoreConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileStoreConfig.class);
+
+    private boolean enabled = true;
+    private String directory = System.getProperty("user.home") + "/.touchvirtual/profiles";
+    private String userId = "default";
+    private String displayId = "primary";
+
+    @PostConstruct
+    public void logSettings() {
+        logger.info("💾 Configuração do armazenamento de perfis:");
+        logger.info("   - Ativo: {}", enabled);
+        logger.info("   - Diretório: {}", directory);
+        logger.info("   - Perfil inicial: {}@{}", userId, displayId);
+    }
+
+    // Getters e Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getDisplayId() {
+        return displayId;
+    }
+
+    public void setDisplayId(String displayId) {
+        this.displayId = displayId;
+    }
+}
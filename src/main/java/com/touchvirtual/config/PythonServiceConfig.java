@@ -0,0 +1,144 @@
+package com.touchvirtual.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Configuração do cliente HTTP dos serviços Python (detecção de mãos e controle do mouse)
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "python-service")
+public class PythonServiceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PythonServiceConfig.class);
+
+    private String handDetectionUrl = "http://localhost:5000/api/hand-detection";
+    private String mouseControlUrl = "http://localhost:5001/api/mouse-control";
+    private int connectTimeoutMillis = 500;
+    private int readTimeoutMillis = 2000;
+    private int failureThreshold = 3;
+    private int openMillis = 5000;
+    private int cacheTtlMillis = 500;
+    private int stallFrames = 5;
+    private int minStallMillis = 1000;
+    private int startTimeoutMillis = 5000;
+    private int probeInitialMillis = 500;
+    private int probeMaxMillis = 30000;
+
+    @PostConstruct
+    public void logSettings() {
+        logger.info("🐍 Configuração do cliente dos serviços Python:");
+        logger.info("   - Detecção de mãos: {}", handDetectionUrl);
+        logger.info("   - Controle do mouse: {}", mouseControlUrl);
+        logger.info("   - Timeouts: conexão {} ms, leitura {} ms", connectTimeoutMillis, readTimeoutMillis);
+        logger.info("   - Circuito: abre após {} falhas por {} ms", failureThreshold, openMillis);
+        logger.info("   - Cache de consultas: {} ms", cacheTtlMillis);
+        logger.info("   - Detector parado após {} frames sem dados (mínimo {} ms), primeiro frame em {} ms",
+                stallFrames, minStallMillis, startTimeoutMillis);
+        logger.info("   - Sondagem: {} ms dobrando até {} ms", probeInitialMillis, probeMaxMillis);
+    }
+
+    // Getters e Setters
+    public String getHandDetectionUrl() {
+        return handDetectionUrl;
+    }
+
+    public void setHandDetectionUrl(String handDetectionUrl) {
+        this.handDetectionUrl = handDetectionUrl;
+    }
+
+    public String getMouseControlUrl() {
+        return mouseControlUrl;
+    }
+
+    public void setMouseControlUrl(String mouseControlUrl) {
+        this.mouseControlUrl = mouseControlUrl;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public void setReadTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public int getOpenMillis() {
+        return openMillis;
+    }
+
+    public void setOpenMillis(int openMillis) {
+        this.openMillis = openMillis;
+    }
+
+    public int getCacheTtlMillis() {
+        return cacheTtlMillis;
+    }
+
+    public void setCacheTtlMillis(int cacheTtlMillis) {
+        this.cacheTtlMillis = cacheTtlMillis;
+    }
+
+    public int getStallFrames() {
+        return stallFrames;
+    }
+
+    public void setStallFrames(int stallFrames) {
+        this.stallFrames = stallFrames;
+    }
+
+    public int getMinStallMillis() {
+        return minStallMillis;
+    }
+
+    public void setMinStallMillis(int minStallMillis) {
+        this.minStallMillis = minStallMillis;
+    }
+
+    public int getStartTimeoutMillis() {
+        return startTimeoutMillis;
+    }
+
+    public void setStartTimeoutMillis(int startTimeoutMillis) {
+        this.startTimeoutMillis = startTimeoutMillis;
+    }
+
+    public int getProbeInitialMillis() {
+        return probeInitialMillis;
+    }
+
+    public void setProbeInitialMillis(int probeInitialMillis) {
+        this.probeInitialMillis = probeInitialMillis;
+    }
+
+    public int getProbeMaxMillis() {
+        return probeMaxMillis;
+    }
+
+    public void setProbeMaxMillis(int probeMaxMillis) {
+        this.probeMaxMillis = probeMaxMillis;
+    }
+}
@@ -31,6 +31,9 @@ public class UserSettingsConfig {
         settings.setLeftHanded(false);
         settings.setEnableSound(true);
         settings.setEnableVibration(false);
+        settings.setPointerMode(UserSettings.PointerMode.ABSOLUTE);
+        settings.setAccelerationProfile(UserSettings.AccelerationProfile.ADAPTIVE);
+        settings.setAccelerationSpeed(0.0);
 
         logger.info("✅ UserSettings configurado com sucesso");
 
@@ -1,10 +1,18 @@
 package com.touchvirtual.config;
 
+import com.touchvirtual.controller.LandmarkStreamHandler;
+import com.touchvirtual.service.SessionStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * Configuração do WebSocket para comunicação em tempo real
@@ -13,8 +21,15 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  * @version 1.0.0
  */
 @Configuration
+@EnableWebSocket
 @EnableWebSocketMessageBroker
-public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer, WebSocketConfigurer {
+
+    @Autowired
+    private LandmarkStreamHandler landmarkStreamHandler;
+
+    @Autowired
+    private SessionStreamService sessionStreamService;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
@@ -28,6 +43,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setUserDestinationPrefix("/user");
     }
 
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Taxa negociada por inscrição (cabeçalho "rate" no SUBSCRIBE)
+        registration.interceptors(sessionStreamService);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Fila de saída limitada por sessão, descartando as mensagens mais antigas
+        registration.addDecoratorFactory(sessionStreamService.handlerDecoratorFactory());
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Endpoint para conexão WebSocket
@@ -39,4 +66,11 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws-direct")
                 .setAllowedOriginPatterns("*");
     }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Endpoint binário com os landmarks quantizados (sem STOMP)
+        registry.addHandler(landmarkStreamHandler, "/ws-landmarks")
+                .setAllowedOriginPatterns("*");
+    }
 } 
\ No newline at end of file
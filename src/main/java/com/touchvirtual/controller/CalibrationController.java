@@ -1,7 +1,10 @@
 package com.touchvirtual.controller;
 
+import com.touchvirtual.service.CalibrationRefinementService;
 import com.touchvirtual.service.CalibrationService;
+import com.touchvirtual.service.ProfileStoreService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -26,6 +29,12 @@ public class CalibrationController {
     @Autowired
     private CalibrationService calibrationService;
     
+    @Autowired
+    private ProfileStoreService profileStoreService;
+    
+    @Autowired
+    private CalibrationRefinementService calibrationRefinementService;
+    
     @PostMapping("/api/calibration/auto")
     @ResponseBody
     public Map<String, Object> autoCalibrate(@RequestParam String sessionId) {
@@ -34,7 +43,7 @@ public class CalibrationController {
         try {
             boolean success = calibrationService.autoCalibrate(sessionId);
             response.put("status", success ? "success" : "error");
-            response.put("message", success ? "Calibração automática concluída" : "Erro na calibração automática");
+            response.put("message", success ? "Calibração automática iniciada" : "Erro na calibração automática");
             
         } catch (Exception e) {
             logger.error("❌ Erro na calibração automática: {}", e.getMessage());
@@ -45,6 +54,24 @@ public class CalibrationController {
         return response;
     }
 
+    @GetMapping("/api/calibration/auto/status")
+    @ResponseBody
+    public Map<String, Object> getAutoCalibrationStatus() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            response.put("status", "success");
+            response.putAll(calibrationService.getAutoCalibrationStatus());
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao obter status da calibração automática: {}", e.getMessage());
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+        }
+
+        return response;
+    }
+
     @PostMapping("/api/calibration/reset")
     @ResponseBody
     public Map<String, Object> resetCalibration() {
@@ -63,4 +90,136 @@ public class CalibrationController {
 
         return response;
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/api/calibration/profiles")
+    @ResponseBody
+    public Map<String, Object> getProfiles() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            response.put("status", "success");
+            response.put("profiles", profileStoreService.listProfiles());
+            response.put("store", profileStoreService.getStats());
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao listar perfis: {}", e.getMessage());
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/api/calibration/profiles/save")
+    @ResponseBody
+    public Map<String, Object> saveProfile() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            boolean success = profileStoreService.saveProfile();
+            response.put("status", success ? "success" : "error");
+            response.put("message", success ? "Perfil salvo" : "Erro ao salvar perfil");
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao salvar perfil: {}", e.getMessage());
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/api/calibration/profiles/load")
+    @ResponseBody
+    public Map<String, Object> loadProfile(@RequestParam String userId, @RequestParam String displayId) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            boolean success = profileStoreService.loadProfile(userId, displayId);
+            response.put("status", success ? "success" : "error");
+            response.put("message", success ? "Perfil carregado" : "Perfil não encontrado");
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao carregar perfil: {}", e.getMessage());
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @GetMapping("/api/calibration/refinement")
+    @ResponseBody
+    public Map<String, Object> getRefinement() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            response.put("status", "success");
+            response.putAll(calibrationRefinementService.getMetrics());
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao obter métricas do refinamento: {}", e.getMessage());
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/api/calibration/refinement")
+    @ResponseBody
+    public Map<String, Object> setRefinementEnabled(@RequestParam boolean enabled) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            calibrationRefinementService.setEnabled(enabled);
+            response.put("status", "success");
+            response.put("enabled", enabled);
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao configurar refinamento: {}", e.getMessage());
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/api/calibration/refinement/target")
+    @ResponseBody
+    public Map<String, Object> recordRefinementTarget(@RequestParam int screenX, @RequestParam int screenY) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            boolean updated = calibrationRefinementService.recordTarget(screenX, screenY);
+            response.put("status", "success");
+            response.put("updated", updated);
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao registrar alvo do clique: {}", e.getMessage());
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+        }
+
+        return response;
+    }
+
+    @PostMapping("/api/calibration/refinement/reset")
+    @ResponseBody
+    public Map<String, Object> resetRefinement() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            calibrationRefinementService.reset();
+            response.put("status", "success");
+            response.put("message", "Correção online descartada");
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao descartar correção online: {}", e.getMessage());
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+        }
+
+        return response;
+    }
+}
@@ -1,10 +1,14 @@
 package com.touchvirtual.controller;
 
 import com.touchvirtual.dto.GestureResponse;
+import com.touchvirtual.dto.StatusSnapshot;
+import com.touchvirtual.dto.TouchEventBatchDTO;
 import com.touchvirtual.dto.TouchEventDTO;
+import com.touchvirtual.model.DisplayInfo;
 import com.touchvirtual.model.GestureType;
 import com.touchvirtual.model.HandLandmark;
 import com.touchvirtual.model.TouchEvent;
+import com.touchvirtual.model.UserSettings;
 import com.touchvirtual.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -44,29 +48,43 @@ public class GestureController {
     @Autowired
     private CalibrationService calibrationService;
     
+    @Autowired
+    private DisplayLayoutService displayLayoutService;
+    
+    @Autowired
+    private UserSettings userSettings;
+    
+    @Autowired
+    private ProfileStoreService profileStoreService;
+    
+    @Autowired
+    private TopicSubscriptionService topicSubscriptionService;
+    
+    @Autowired
+    private StatusStreamService statusStreamService;
+    
+    @Autowired
+    private StatusSnapshotService statusSnapshotService;
+    
+    @Autowired
+    private SessionStreamService sessionStreamService;
+    
+    @Autowired
+    private PythonServiceClient pythonServiceClient;
+    
     /**
-     * Obtém o status atual da detecção de mãos
+     * Obtém o status atual da detecção de mãos (retrato compartilhado, com ETag)
      */
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getStatus() {
         Map<String, Object> status = new HashMap<>();
         
         try {
-            boolean handDetected = handDetectionService.isHandDetected();
-            int handCount = handDetectionService.getHandCount();
-            double confidence = handDetectionService.getLastDetectionConfidence();
-            GestureType lastGesture = gestureRecognitionService.getLastRecognizedGesture();
-            int gestureConfidence = gestureRecognitionService.getGestureConfidence();
-            
-            status.put("handDetected", handDetected);
-            status.put("handCount", handCount);
-            status.put("detectionConfidence", confidence);
-            status.put("lastGesture", lastGesture != null ? lastGesture.getDisplayName() : "NONE");
-            status.put("gestureConfidence", gestureConfidence);
-            status.put("mouseEnabled", mouseSimulationService.isEnabled());
-            status.put("calibrated", coordinateMappingService.isCalibrated());
-            
-            return ResponseEntity.ok(status);
+            StatusSnapshot snapshot = statusSnapshotService.getSnapshot();
+            status.putAll(snapshot.toGestureStatus());
+            
+            // Com If-None-Match igual à ETag o Spring responde 304 sem corpo
+            return ResponseEntity.ok().eTag(snapshot.gestureEtag()).body(status);
             
         } catch (Exception e) {
             logger.error("❌ Erro ao obter status: {}", e.getMessage());
@@ -146,6 +164,30 @@ public class GestureController {
         }
     }
     
+    /**
+     * Processa um lote ordenado de eventos de toque, preservando o intervalo entre eles
+     */
+    @PostMapping("/process/batch")
+    public ResponseEntity<Map<String, Object>> processTouchEventBatch(@RequestBody TouchEventBatchDTO batch) {
+        Map<String, Object> result = new HashMap<>();
+        
+        try {
+            result.putAll(mouseSimulationService.replayBatch(batch.getSessionId(), batch.getSequence(),
+                    batch.toTouchEvents(), batch.clientTimestamps()));
+            result.put("success", (int) result.get("accepted") > 0 || batch.getEvents().isEmpty());
+            result.put("batchId", batch.getBatchId());
+            result.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao processar lote de eventos: {}", e.getMessage());
+            result.put("success", false);
+            result.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(result);
+        }
+    }
+    
     /**
      * Habilita ou desabilita a simulação de mouse
      */
@@ -190,6 +232,8 @@ public class GestureController {
                 info.put("dragStartY", dragStart[1]);
             }
             
+            info.put("actuation", mouseSimulationService.getActuationMetrics());
+            
             return ResponseEntity.ok(info);
             
         } catch (Exception e) {
@@ -199,6 +243,132 @@ public class GestureController {
         }
     }
     
+    /**
+     * Obtém os eventos gravados pelo backend de gravação (actuation.input-sink=recording)
+     */
+    @GetMapping("/mouse/recording")
+    public ResponseEntity<Map<String, Object>> getRecording(@RequestParam(defaultValue = "1000") int limit) {
+        Map<String, Object> result = new HashMap<>();
+        
+        try {
+            RecordingInputSink recording = mouseSimulationService.getRecordingSink();
+            if (recording == null) {
+                result.put("status", "error");
+                result.put("message", "Backend de gravação não está ativo");
+                return ResponseEntity.badRequest().body(result);
+            }
+            
+            result.put("status", "success");
+            result.put("recorded", recording.getRecordedCount());
+            result.put("events", recording.getEvents(limit));
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao obter gravação: {}", e.getMessage());
+            result.put("status", "error");
+            result.put("message", e.getMessage());
+            return ResponseEntity.internalServerError().body(result);
+        }
+    }
+    
+    /**
+     * Descarta os eventos gravados
+     */
+    @PostMapping("/mouse/recording/clear")
+    public ResponseEntity<Map<String, Object>> clearRecording() {
+        Map<String, Object> result = new HashMap<>();
+        
+        try {
+            boolean cleared = mouseSimulationService.clearRecording();
+            result.put("status", cleared ? "success" : "error");
+            result.put("message", cleared ? "Gravação descartada" : "Backend de gravação não está ativo");
+            return cleared ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao descartar gravação: {}", e.getMessage());
+            result.put("status", "error");
+            result.put("message", e.getMessage());
+            return ResponseEntity.internalServerError().body(result);
+        }
+    }
+    
+    /**
+     * Obtém as métricas da fila de atuação (profundidade e latência de injeção)
+     */
+    @GetMapping("/mouse/actuation")
+    public ResponseEntity<Map<String, Object>> getActuationMetrics() {
+        try {
+            return ResponseEntity.ok(mouseSimulationService.getActuationMetrics());
+        } catch (Exception e) {
+            logger.error("❌ Erro ao obter métricas de atuação: {}", e.getMessage());
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+    
+    /**
+     * Obtém o modo do cursor e a curva de aceleração do perfil
+     */
+    @GetMapping("/mouse/acceleration")
+    public ResponseEntity<Map<String, Object>> getAcceleration() {
+        Map<String, Object> info = new HashMap<>();
+        
+        info.put("pointerMode", userSettings.getPointerMode());
+        info.put("profile", userSettings.getAccelerationProfile());
+        info.put("speed", userSettings.getAccelerationSpeed());
+        info.put("customStep", userSettings.getCustomAccelerationStep());
+        info.put("customPoints", userSettings.getCustomAccelerationPoints());
+        
+        return ResponseEntity.ok(info);
+    }
+    
+    /**
+     * Atualiza o modo do cursor e a curva de aceleração do perfil
+     */
+    @PostMapping("/mouse/acceleration")
+    public ResponseEntity<Map<String, Object>> updateAcceleration(
+            @RequestParam(required = false) UserSettings.PointerMode pointerMode,
+            @RequestParam(required = false) UserSettings.AccelerationProfile profile,
+            @RequestParam(required = false) Double speed,
+            @RequestParam(required = false) Double customStep,
+            @RequestParam(required = false) double[] customPoints) {
+        Map<String, Object> result = new HashMap<>();
+        
+        try {
+            if (pointerMode != null) {
+                userSettings.setPointerMode(pointerMode);
+            }
+            if (profile != null) {
+                userSettings.setAccelerationProfile(profile);
+            }
+            if (speed != null) {
+                userSettings.setAccelerationSpeed(speed);
+            }
+            if (customStep != null) {
+                userSettings.setCustomAccelerationStep(customStep);
+            }
+            if (customPoints != null) {
+                userSettings.setCustomAccelerationPoints(customPoints);
+            }
+            
+            // Publica os novos ajustes para o pipeline de mapeamento
+            coordinateMappingService.refreshSnapshot();
+            profileStoreService.saveProfile();
+            
+            result.put("success", true);
+            result.putAll(getAcceleration().getBody());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao atualizar curva de aceleração: {}", e.getMessage());
+            result.put("success", false);
+            result.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(result);
+        }
+    }
+    
     /**
      * Obtém estatísticas de performance
      */
@@ -207,12 +377,19 @@ public class GestureController {
         Map<String, Object> stats = new HashMap<>();
         
         try {
-            stats.put("handDetectionConfidence", handDetectionService.getLastDetectionConfidence());
-            stats.put("gestureConfidence", gestureRecognitionService.getGestureConfidence());
-            stats.put("lastGestureTime", gestureRecognitionService.getLastGestureTime());
-            stats.put("isCalibrated", coordinateMappingService.isCalibrated());
-            stats.put("mouseEnabled", mouseSimulationService.isEnabled());
-            stats.put("isCalibrating", calibrationService.isCalibrating());
+            StatusSnapshot snapshot = statusSnapshotService.getSnapshot();
+            stats.put("handDetectionConfidence", snapshot.confidence());
+            stats.put("gestureConfidence", snapshot.gestureConfidence());
+            stats.put("lastGestureTime", snapshot.lastGestureTime());
+            stats.put("isCalibrated", snapshot.calibrated());
+            stats.put("mouseEnabled", snapshot.mouseEnabled());
+            stats.put("isCalibrating", snapshot.isCalibrating());
+            stats.put("statusSnapshot", statusSnapshotService.getMetrics());
+            stats.put("subscriptions", topicSubscriptionService.getMetrics());
+            stats.put("streams", sessionStreamService.getMetrics());
+            stats.put("statusStream", statusStreamService.getMetrics());
+            stats.put("pythonService", pythonServiceClient.getMetrics());
+            stats.put("detector", handDetectionService.getLivenessMetrics());
             
             return ResponseEntity.ok(stats);
             
@@ -231,9 +408,12 @@ public class GestureController {
         Map<String, Object> info = new HashMap<>();
         
         try {
-            java.awt.Dimension screenSize = coordinateMappingService.getScreenSize();
-            info.put("width", screenSize.getWidth());
-            info.put("height", screenSize.getHeight());
+            DisplayInfo display = coordinateMappingService.getTargetDisplay();
+            info.put("width", display.getWidth());
+            info.put("height", display.getHeight());
+            info.put("x", display.getX());
+            info.put("y", display.getY());
+            info.put("targetDisplay", display.getId());
             info.put("isInitialized", coordinateMappingService.isInitialized());
             info.put("lastX", coordinateMappingService.getLastX());
             info.put("lastY", coordinateMappingService.getLastY());
@@ -247,6 +427,55 @@ public class GestureController {
         }
     }
     
+    /**
+     * Lista os monitores disponíveis e o desktop virtual
+     */
+    @GetMapping("/screen/displays")
+    public ResponseEntity<Map<String, Object>> getDisplays() {
+        Map<String, Object> info = new HashMap<>();
+        
+        try {
+            info.put("displays", displayLayoutService.getDisplays());
+            info.put("virtualDesktop", displayLayoutService.getVirtualDesktop());
+            info.put("targetDisplay", coordinateMappingService.getTargetDisplay().getId());
+            
+            return ResponseEntity.ok(info);
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao listar monitores: {}", e.getMessage());
+            info.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(info);
+        }
+    }
+    
+    /**
+     * Define o monitor alvo do perfil de calibração ("virtual" para o desktop inteiro)
+     */
+    @PostMapping("/screen/target")
+    public ResponseEntity<Map<String, Object>> setTargetDisplay(@RequestParam String displayId) {
+        Map<String, Object> result = new HashMap<>();
+        
+        try {
+            // Usa o perfil salvo do monitor, se existir; senão mantém a calibração atual
+            boolean profileLoaded = profileStoreService.loadProfile(userSettings.getUserId(), displayId);
+            if (!profileLoaded) {
+                coordinateMappingService.setTargetDisplay(displayId);
+            }
+            
+            result.put("success", true);
+            result.put("profileLoaded", profileLoaded);
+            result.put("targetDisplay", coordinateMappingService.getTargetDisplay());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao definir monitor alvo: {}", e.getMessage());
+            result.put("success", false);
+            result.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(result);
+        }
+    }
+    
     /**
      * Testa mapeamento de coordenadas
      */
@@ -0,0 +1,263 @@
+package com.touchvirtual.controller;
+
+import com.touchvirtual.config.BroadcastConfig;
+import com.touchvirtual.model.HandLandmark;
+import com.touchvirtual.service.PythonHandDetectionService;
+import com.touchvirtual.util.LandmarkFrameCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebSocket binário (/ws-landmarks) com os landmarks quantizados
+ *
+ * Cada frame novo é codificado uma vez como keyframe e, quando possível, como
+ * delta em relação ao anterior (ver {@link LandmarkFrameCodec}). Clientes que
+ * acabaram de conectar recebem o keyframe; os demais recebem o delta. O cliente
+ * pode pedir uma taxa menor com {@code ?rate=<Hz>}: nesse caso recebe só
+ * keyframes, no máximo um por intervalo. O tópico JSON /topic/landmarks
+ * continua disponível.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Component
+public class LandmarkStreamHandler extends BinaryWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LandmarkStreamHandler.class);
+
+    // Limites de envio por cliente; um cliente que estoura é desconectado
+    private static final int SEND_TIME_LIMIT_MILLIS = 1000;
+    private static final int BUFFER_SIZE_LIMIT = 64 * 1024;
+
+    // Keyframe periódico para limitar a vida de qualquer divergência no cliente
+    private static final int KEYFRAME_INTERVAL = 30;
+
+    @Autowired
+    private PythonHandDetectionService handDetectionService;
+
+    @Autowired
+    private BroadcastConfig broadcastConfig;
+
+    private final Map<String, StreamClient> clients = new ConcurrentHashMap<>();
+
+    // Último estado enviado (só a thread do agendador usa)
+    private long lastSequence = -1;
+    private short[] previous;
+    private int previousHandCount;
+    private double previousConfidence;
+    private int framesSinceKeyframe;
+    private long publishedAt;
+
+    // Métricas
+    private final AtomicLong keyframes = new AtomicLong();
+    private final AtomicLong deltaFrames = new AtomicLong();
+    private final AtomicLong emptyFrames = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+
+    private static class StreamClient {
+        final ConcurrentWebSocketSessionDecorator session;
+        final double rateHz;
+        final long intervalMillis;
+        volatile boolean needsKeyframe = true;
+        long lastSentAt;
+
+        StreamClient(ConcurrentWebSocketSessionDecorator session, double rateHz) {
+            this.session = session;
+            this.rateHz = rateHz;
+            this.intervalMillis = rateHz > 0 ? (long) (1000 / rateHz) : 0;
+        }
+
+        boolean isDue(long now) {
+            return intervalMillis == 0 || now - lastSentAt >= intervalMillis;
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        double rateHz = requestedRate(session);
+        clients.put(session.getId(), new StreamClient(
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MILLIS, BUFFER_SIZE_LIMIT), rateHz));
+        logger.info("📡 Cliente conectado ao stream binário de landmarks: {} ({})", session.getId(),
+                rateHz > 0 ? rateHz + " Hz" : "taxa máxima");
+    }
+
+    /**
+     * Taxa pedida na URL da conexão ({@code ?rate=<Hz>}); 0 é a taxa máxima
+     */
+    private static double requestedRate(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return 0;
+        }
+        String rate = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("rate");
+        try {
+            return rate != null ? Math.max(0, Double.parseDouble(rate)) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        clients.remove(session.getId());
+        logger.info("🔌 Cliente desconectado do stream binário de landmarks: {} ({})", session.getId(), status);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        logger.debug("⚠️ Erro de transporte no stream de landmarks {}: {}", session.getId(), exception.getMessage());
+    }
+
+    /**
+     * Envia o frame atual quando chega um frame novo (no máximo na taxa configurada)
+     */
+    @Scheduled(fixedRateString = "#{@broadcastConfig.checkIntervalMillis}")
+    public void pushFrames() {
+        if (clients.isEmpty()) {
+            publishedAt = 0;
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            long sequence = handDetectionService.getFrameSequence();
+            boolean heartbeat = now - publishedAt >= broadcastConfig.getHeartbeatMillis();
+
+            if (sequence == lastSequence && !heartbeat) {
+                sendCurrentStateToNewClients(now);
+                return;
+            }
+
+            List<HandLandmark> landmarks = handDetectionService.getLastDetectedLandmarks();
+            lastSequence = sequence;
+
+            if (landmarks.isEmpty()) {
+                // Frames seguidos sem mão têm o mesmo conteúdo: só a transição é enviada
+                if (previous == null && publishedAt > 0 && !heartbeat) {
+                    sendCurrentStateToNewClients(now);
+                    return;
+                }
+                previous = null;
+                sendToAll(LandmarkFrameCodec.encodeEmpty(sequence), null, now);
+            } else {
+                short[] quantized = LandmarkFrameCodec.quantize(landmarks);
+                int handCount = handDetectionService.getHandCount();
+                double confidence = handDetectionService.getLastDetectionConfidence();
+
+                boolean forceKeyframe = heartbeat || framesSinceKeyframe >= KEYFRAME_INTERVAL;
+                byte[] delta = forceKeyframe ? null
+                        : LandmarkFrameCodec.encodeDelta(sequence, handCount, confidence, quantized, previous);
+                byte[] keyframe = LandmarkFrameCodec.encodeKeyframe(sequence, handCount, confidence, quantized);
+                sendToAll(keyframe, delta, now);
+                framesSinceKeyframe = delta == null ? 0 : framesSinceKeyframe + 1;
+
+                previous = quantized;
+                previousHandCount = handCount;
+                previousConfidence = confidence;
+            }
+            publishedAt = now;
+
+        } catch (Exception e) {
+            logger.error("❌ Erro ao enviar stream binário de landmarks: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Envia o delta a quem já tem o frame anterior e o keyframe aos demais;
+     * cliente com taxa reduzida que pula o frame volta pelo keyframe
+     */
+    private void sendToAll(byte[] keyframe, byte[] delta, long now) {
+        for (StreamClient client : clients.values()) {
+            if (!client.isDue(now)) {
+                client.needsKeyframe = true;
+                continue;
+            }
+            boolean full = delta == null || client.needsKeyframe || client.intervalMillis > 0;
+            if (send(client, full ? keyframe : delta, now)) {
+                client.needsKeyframe = false;
+                if (!full) {
+                    deltaFrames.incrementAndGet();
+                } else {
+                    (keyframe.length == LandmarkFrameCodec.HEADER_BYTES ? emptyFrames : keyframes).incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Clientes recém-conectados (ou que pularam o último frame pela taxa)
+     * recebem o estado atual sem esperar um frame novo
+     */
+    private void sendCurrentStateToNewClients(long now) {
+        byte[] state = null;
+        for (StreamClient client : clients.values()) {
+            if (!client.needsKeyframe || !client.isDue(now)) {
+                continue;
+            }
+            if (state == null) {
+                state = previous == null
+                        ? LandmarkFrameCodec.encodeEmpty(lastSequence)
+                        : LandmarkFrameCodec.encodeKeyframe(lastSequence, previousHandCount, previousConfidence, previous);
+            }
+            if (send(client, state, now)) {
+                client.needsKeyframe = false;
+                (previous == null ? emptyFrames : keyframes).incrementAndGet();
+            }
+        }
+    }
+
+    private boolean send(StreamClient client, byte[] frame, long now) {
+        try {
+            client.session.sendMessage(new BinaryMessage(frame));
+            client.lastSentAt = now;
+            bytesSent.addAndGet(frame.length);
+            return true;
+        } catch (Exception e) {
+            sendFailures.incrementAndGet();
+            clients.remove(client.session.getId());
+            logger.debug("⚠️ Falha ao enviar frame para {}: {}", client.session.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Métricas do stream binário (clientes, frames por tipo e bytes enviados)
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        List<Map<String, Object>> sessions = new ArrayList<>();
+        for (StreamClient client : clients.values()) {
+            Map<String, Object> session = new HashMap<>();
+            session.put("sessionId", client.session.getId());
+            session.put("rateHz", client.rateHz);
+            session.put("bufferedBytes", client.session.getBufferSize());
+            session.put("sendingMillis", client.session.getTimeSinceSendStarted());
+            sessions.add(session);
+        }
+
+        metrics.put("clients", clients.size());
+        metrics.put("sessions", sessions);
+        metrics.put("keyframes", keyframes.get());
+        metrics.put("deltaFrames", deltaFrames.get());
+        metrics.put("emptyFrames", emptyFrames.get());
+        metrics.put("bytesSent", bytesSent.get());
+        metrics.put("sendFailures", sendFailures.get());
+        return metrics;
+    }
+}
@@ -1,12 +1,14 @@
 package com.touchvirtual.controller;
 
+import com.touchvirtual.service.PythonServiceClient;
+import com.touchvirtual.service.StatusStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.annotation.PostConstruct;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -16,8 +18,25 @@ public class MouseControlController {
 
     private static final Logger logger = LoggerFactory.getLogger(MouseControlController.class);
     
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final String pythonServiceUrl = "http://localhost:5001/api/mouse-control";
+    @Autowired
+    private PythonServiceClient pythonServiceClient;
+    
+    @Autowired
+    private StatusStreamService statusStreamService;
+    
+    /**
+     * Publica o status e o health check do serviço Python no stream SSE; o
+     * serviço é consultado uma vez por intervalo, qualquer que seja o número de páginas
+     */
+    @PostConstruct
+    public void registerStatusChannels() {
+        statusStreamService.registerChannel("mouseControl", 2000, () -> bodyOf(getMouseControlStatus()));
+        statusStreamService.registerChannel("mouseControlHealth", 5000, () -> bodyOf(getMouseControlHealth()));
+    }
+    
+    private static Map<String, Object> bodyOf(ResponseEntity<Map<String, Object>> response) {
+        return response.getBody() != null ? response.getBody() : new HashMap<>();
+    }
     
     @PostMapping("/start")
     public ResponseEntity<Map<String, Object>> startMouseControl(@RequestBody(required = false) Map<String, Object> request) {
@@ -29,8 +48,9 @@ public class MouseControlController {
                 pythonRequest.putAll(request);
             }
             
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                pythonServiceUrl + "/start",
+            ResponseEntity<Map> response = pythonServiceClient.post(
+                PythonServiceClient.MOUSE_CONTROL,
+                "/start",
                 pythonRequest,
                 Map.class
             );
@@ -57,8 +77,9 @@ public class MouseControlController {
         try {
             logger.info("Parando controle do mouse...");
             
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                pythonServiceUrl + "/stop",
+            ResponseEntity<Map> response = pythonServiceClient.post(
+                PythonServiceClient.MOUSE_CONTROL,
+                "/stop",
                 null,
                 Map.class
             );
@@ -83,8 +104,9 @@ public class MouseControlController {
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getMouseControlStatus() {
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(
-                pythonServiceUrl + "/status",
+            ResponseEntity<Map> response = pythonServiceClient.getCached(
+                PythonServiceClient.MOUSE_CONTROL,
+                "/status",
                 Map.class
             );
             
@@ -101,6 +123,7 @@ public class MouseControlController {
             error.put("running", false);
             error.put("camera_opened", false);
             error.put("error", e.getMessage());
+            addLastKnown(error, "/status");
             return ResponseEntity.ok(error);
         }
     }
@@ -108,8 +131,9 @@ public class MouseControlController {
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> getMouseControlHealth() {
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(
-                pythonServiceUrl + "/health",
+            ResponseEntity<Map> response = pythonServiceClient.getCached(
+                PythonServiceClient.MOUSE_CONTROL,
+                "/health",
                 Map.class
             );
             
@@ -125,7 +149,18 @@ public class MouseControlController {
             Map<String, Object> error = new HashMap<>();
             error.put("status", "unhealthy");
             error.put("error", e.getMessage());
+            addLastKnown(error, "/health");
             return ResponseEntity.ok(error);
         }
     }
+    
+    /**
+     * Anexa à resposta de erro a última resposta conhecida do serviço e quando foi obtida
+     */
+    private void addLastKnown(Map<String, Object> error, String path) {
+        pythonServiceClient.getLastKnown(PythonServiceClient.MOUSE_CONTROL, path).ifPresent(last -> {
+            error.put("lastKnown", last.response().getBody());
+            error.put("lastKnownAt", last.fetchedAt());
+        });
+    }
 } 
\ No newline at end of file
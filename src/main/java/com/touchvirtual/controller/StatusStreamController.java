@@ -0,0 +1,35 @@
+package com.touchvirtual.controller;
+
+import com.touchvirtual.service.StatusStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Controller do stream de status por Server-Sent Events, usado pelas páginas
+ * no lugar da consulta periódica aos endpoints de status
+ * 
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/status")
+public class StatusStreamController {
+    
+    @Autowired
+    private StatusStreamService statusStreamService;
+    
+    /**
+     * Abre o stream com os canais pedidos (ex.: ?channels=system,detection)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatus(@RequestParam(defaultValue = "system") List<String> channels) {
+        return statusStreamService.subscribe(channels);
+    }
+}
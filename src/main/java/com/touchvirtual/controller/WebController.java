@@ -1,5 +1,6 @@
 package com.touchvirtual.controller;
 
+import com.touchvirtual.dto.StatusSnapshot;
 import com.touchvirtual.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -8,9 +9,11 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.annotation.PostConstruct;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,13 +26,24 @@ public class WebController {
     private PythonHandDetectionService handDetectionService;
 
     @Autowired
-    private GestureRecognitionService gestureRecognitionService;
+    private MouseSimulationService mouseSimulationService;
 
     @Autowired
-    private CoordinateMappingService coordinateMappingService;
+    private StatusStreamService statusStreamService;
 
     @Autowired
-    private MouseSimulationService mouseSimulationService;
+    private StatusSnapshotService statusSnapshotService;
+
+    /**
+     * Publica os status do sistema e da detecção no stream SSE das páginas
+     */
+    @PostConstruct
+    public void registerStatusChannels() {
+        statusStreamService.registerChannel("system", 1000,
+                () -> statusSnapshotService.getSnapshot().toSystemStatus());
+        statusStreamService.registerChannel("detection", 2000,
+                () -> statusSnapshotService.getSnapshot().toDetectionStatus());
+    }
 
     @GetMapping("/")
     public String home(Model model) {
@@ -38,15 +52,7 @@ public class WebController {
         model.addAttribute("scripts", "home-scripts");
 
         // Adiciona dados iniciais
-        Map<String, Object> initialData = new HashMap<>();
-        initialData.put("cameraInitialized", handDetectionService.isCameraInitialized());
-        initialData.put("handDetected", handDetectionService.isHandDetected());
-        initialData.put("handCount", handDetectionService.getHandCount());
-        initialData.put("confidence", handDetectionService.getLastDetectionConfidence());
-        initialData.put("mouseEnabled", mouseSimulationService.isEnabled());
-        initialData.put("calibrated", coordinateMappingService.isCalibrated());
-
-        model.addAttribute("initialData", initialData);
+        model.addAttribute("initialData", statusSnapshotService.getSnapshot().toSystemStatus());
 
         return "layout";
     }
@@ -58,17 +64,7 @@ public class WebController {
         model.addAttribute("scripts", "dashboard-scripts");
 
         // Adiciona dados do dashboard
-        Map<String, Object> dashboardData = new HashMap<>();
-        dashboardData.put("cameraInitialized", handDetectionService.isCameraInitialized());
-        dashboardData.put("handDetected", handDetectionService.isHandDetected());
-        dashboardData.put("handCount", handDetectionService.getHandCount());
-        dashboardData.put("confidence", handDetectionService.getLastDetectionConfidence());
-        dashboardData.put("mouseEnabled", mouseSimulationService.isEnabled());
-        dashboardData.put("calibrated", coordinateMappingService.isCalibrated());
-        dashboardData.put("lastGesture", gestureRecognitionService.getLastRecognizedGesture());
-        dashboardData.put("gestureConfidence", gestureRecognitionService.getGestureConfidence());
-
-        model.addAttribute("dashboardData", dashboardData);
+        model.addAttribute("dashboardData", statusSnapshotService.getSnapshot().toSystemStatus());
 
         return "layout";
     }
@@ -118,21 +114,21 @@ public class WebController {
         return "layout";
     }
 
+    /**
+     * Status do sistema a partir do retrato compartilhado; responde 304 sem corpo
+     * quando o If-None-Match traz a ETag atual
+     */
     @GetMapping("/api/system/status")
     @ResponseBody
-    public Map<String, Object> getStatus() {
+    public Map<String, Object> getStatus(WebRequest request) {
         Map<String, Object> status = new HashMap<>();
 
         try {
-            status.put("cameraInitialized", handDetectionService.isCameraInitialized());
-            status.put("handDetected", handDetectionService.isHandDetected());
-            status.put("handCount", handDetectionService.getHandCount());
-            status.put("confidence", handDetectionService.getLastDetectionConfidence());
-            status.put("mouseEnabled", mouseSimulationService.isEnabled());
-            status.put("calibrated", coordinateMappingService.isCalibrated());
-            status.put("lastGesture", gestureRecognitionService.getLastRecognizedGesture());
-            status.put("gestureConfidence", gestureRecognitionService.getGestureConfidence());
-            status.put("status", "success");
+            StatusSnapshot snapshot = statusSnapshotService.getSnapshot();
+            if (request.checkNotModified(snapshot.systemEtag())) {
+                return null;
+            }
+            status.putAll(snapshot.toSystemStatus());
 
         } catch (Exception e) {
             logger.error("❌ Erro ao obter status: {}", e.getMessage());
@@ -150,6 +146,7 @@ public class WebController {
 
         try {
             mouseSimulationService.setEnabled(enabled);
+            statusSnapshotService.refreshNow();
             response.put("success", true);
             response.put("enabled", mouseSimulationService.isEnabled());
             response.put("message", enabled ? "Mouse virtual habilitado" : "Mouse virtual desabilitado");
@@ -170,6 +167,7 @@ public class WebController {
 
         try {
             handDetectionService.startHandDetection();
+            statusSnapshotService.refreshNow();
             response.put("success", true);
             response.put("message", "Detecção de mãos iniciada");
             response.put("processing", handDetectionService.isProcessing());
@@ -190,6 +188,7 @@ public class WebController {
 
         try {
             handDetectionService.stopHandDetection();
+            statusSnapshotService.refreshNow();
             response.put("success", true);
             response.put("message", "Detecção de mãos parada");
             response.put("processing", handDetectionService.isProcessing());
@@ -202,19 +201,21 @@ public class WebController {
         return response;
     }
 
+    /**
+     * Status da detecção a partir do retrato compartilhado (o status da câmera
+     * não consulta mais o serviço Python a cada requisição); aceita If-None-Match
+     */
     @GetMapping("/api/detection/status")
     @ResponseBody
-    public Map<String, Object> getDetectionStatus() {
+    public Map<String, Object> getDetectionStatus(WebRequest request) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            response.put("success", true);
-            response.put("cameraInitialized", handDetectionService.isCameraInitialized());
-            response.put("processing", handDetectionService.isProcessing());
-            response.put("handDetected", handDetectionService.isHandDetected());
-            response.put("handCount", handDetectionService.getHandCount());
-            response.put("confidence", handDetectionService.getLastDetectionConfidence());
-            response.put("cameraStatus", handDetectionService.getCameraStatus());
+            StatusSnapshot snapshot = statusSnapshotService.getSnapshot();
+            if (request.checkNotModified(snapshot.detectionEtag())) {
+                return null;
+            }
+            response.putAll(snapshot.toDetectionStatus());
 
         } catch (Exception e) {
             logger.error("❌ Erro ao obter status da detecção: {}", e.getMessage());
@@ -1,23 +1,37 @@
 package com.touchvirtual.controller;
 
+import com.touchvirtual.config.BroadcastConfig;
+import com.touchvirtual.dto.CalibrationUpdate;
+import com.touchvirtual.dto.FrameUpdate;
 import com.touchvirtual.dto.GestureResponse;
+import com.touchvirtual.dto.LandmarksUpdate;
+import com.touchvirtual.dto.MouseUpdate;
+import com.touchvirtual.dto.StatsUpdate;
+import com.touchvirtual.dto.StatusSnapshot;
+import com.touchvirtual.dto.TouchEventBatchDTO;
 import com.touchvirtual.model.GestureType;
 import com.touchvirtual.model.HandLandmark;
 import com.touchvirtual.model.CalibrationData;
 import com.touchvirtual.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Controller WebSocket para comunicação em tempo real
@@ -46,11 +60,62 @@ public class WebSocketController {
     private CalibrationService calibrationService;
     
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private BroadcastPublisher broadcastPublisher;
+    
+    @Autowired
+    private TopicSubscriptionService topicSubscriptionService;
+    
+    @Autowired
+    private LandmarkStreamHandler landmarkStreamHandler;
+    
+    @Autowired
+    private SessionStreamService sessionStreamService;
+    
+    @Autowired
+    private StatusSnapshotService statusSnapshotService;
+    
+    @Autowired
+    private BroadcastConfig broadcastConfig;
     
     // Armazena sessões ativas
     private Map<String, String> activeSessions = new ConcurrentHashMap<>();
     
+    // Último estado publicado por tópico: cada campo só é usado pela tarefa do
+    // próprio tópico, e uma tarefa agendada não se sobrepõe a si mesma
+    private long landmarksSequence = -1;
+    private boolean landmarksHandPresent;
+    private long landmarksPublishedAt;
+    private long gestureSequence = -1;
+    private GestureType gestureType;
+    private boolean gestureHandDetected;
+    private int gestureScreenX, gestureScreenY;
+    private long gesturePublishedAt;
+    private boolean mouseEnabled, mouseDragging;
+    private int mouseX, mouseY;
+    private long mouseEventTime;
+    private long mouseSequence;
+    private long mousePublishedAt;
+    private long frameSequence = -1;
+    private boolean frameHandPresent;
+    private FrameUpdate.Mouse frameMouse;
+    private long framePublishedAt;
+    private long frameStatsAt;
+    private long frameCalibrationAt;
+    
+    // Gesto reconhecido no último frame, reusado por /topic/gestures e /topic/frame
+    // (tarefas diferentes, que podem rodar ao mesmo tempo: acesso em recognizeFrame)
+    private RecognizedFrame recognized;
+    
+    // Cadência das seções que mudam devagar no /topic/frame (a mesma dos tópicos próprios)
+    private static final long FRAME_STATS_INTERVAL_MILLIS = 1000;
+    private static final long FRAME_CALIBRATION_INTERVAL_MILLIS = 2000;
+    
+    // Contadores das transmissões por mudança
+    private final AtomicLong publishedUpdates = new AtomicLong();
+    private final AtomicLong heartbeatUpdates = new AtomicLong();
+    private final AtomicLong suppressedUpdates = new AtomicLong();
+    private final AtomicLong unsubscribedSkips = new AtomicLong();
+    
     /**
      * Endpoint para receber mensagens de gestos
      */
@@ -91,6 +156,30 @@ public class WebSocketController {
         }
     }
     
+    /**
+     * Endpoint para receber lotes ordenados de eventos de toque; a contagem de
+     * aceitos e recusados volta apenas para a sessão que enviou
+     */
+    @MessageMapping("/touch-batch")
+    @SendToUser(destinations = "/queue/touch-batch", broadcast = false)
+    public Map<String, Object> handleTouchBatch(TouchEventBatchDTO batch) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            response.putAll(mouseSimulationService.replayBatch(batch.getSessionId(), batch.getSequence(),
+                    batch.toTouchEvents(), batch.clientTimestamps()));
+            response.put("success", (int) response.get("accepted") > 0 || batch.getEvents().isEmpty());
+            response.put("batchId", batch.getBatchId());
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao processar lote de eventos via WebSocket: {}", e.getMessage());
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        
+        return response;
+    }
+    
     /**
      * Endpoint para receber comandos de controle
      */
@@ -106,6 +195,7 @@ public class WebSocketController {
                 case "enable_mouse":
                     boolean enabled = (Boolean) command.get("enabled");
                     mouseSimulationService.setEnabled(enabled);
+                    statusSnapshotService.refreshNow();
                     response.put("success", true);
                     response.put("message", "Mouse " + (enabled ? "habilitado" : "desabilitado"));
                     break;
@@ -113,25 +203,29 @@ public class WebSocketController {
                 case "start_calibration":
                     String sessionId = (String) command.get("sessionId");
                     boolean success = calibrationService.startCalibration(sessionId);
+                    statusSnapshotService.refreshNow();
                     response.put("success", success);
                     response.put("message", success ? "Calibração iniciada" : "Erro ao iniciar calibração");
                     break;
                     
                 case "stop_calibration":
                     calibrationService.stopCalibration();
+                    statusSnapshotService.refreshNow();
                     response.put("success", true);
                     response.put("message", "Calibração parada");
                     break;
                     
                 case "get_status":
-                    response.put("handDetected", handDetectionService.isHandDetected());
-                    response.put("handCount", handDetectionService.getHandCount());
-                    response.put("detectionConfidence", handDetectionService.getLastDetectionConfidence());
-                    response.put("lastGesture", gestureRecognitionService.getLastRecognizedGesture().getDisplayName());
-                    response.put("gestureConfidence", gestureRecognitionService.getGestureConfidence());
-                    response.put("mouseEnabled", mouseSimulationService.isEnabled());
-                    response.put("calibrated", coordinateMappingService.isCalibrated());
-                    response.put("isCalibrating", calibrationService.isCalibrating());
+                    StatusSnapshot snapshot = statusSnapshotService.getSnapshot();
+                    response.put("handDetected", snapshot.handDetected());
+                    response.put("handCount", snapshot.handCount());
+                    response.put("detectionConfidence", snapshot.confidence());
+                    response.put("lastGesture", snapshot.lastGesture().getDisplayName());
+                    response.put("gestureConfidence", snapshot.gestureConfidence());
+                    response.put("mouseEnabled", snapshot.mouseEnabled());
+                    response.put("calibrated", snapshot.calibrated());
+                    response.put("isCalibrating", snapshot.isCalibrating());
+                    response.put("detectorState", handDetectionService.getDetectorState());
                     break;
                     
                 default:
@@ -149,22 +243,49 @@ public class WebSocketController {
     }
     
     /**
-     * Envia dados de landmarks em tempo real (executado a cada 100ms)
+     * Envia landmarks quando chega um frame novo (no máximo na taxa configurada).
+     * Frames seguidos sem mão têm o mesmo conteúdo: só a transição é publicada.
      */
-    @Scheduled(fixedRate = 100)
+    @Scheduled(fixedRateString = "#{@broadcastConfig.checkIntervalMillis}")
     public void sendLandmarksUpdate() {
         try {
+            if (!hasListeners("/topic/landmarks")) {
+                // Sem inscritos: o próximo a entrar recebe o estado atual na hora
+                landmarksPublishedAt = 0;
+                return;
+            }
+            
+            long now = System.currentTimeMillis();
+            long sequence = handDetectionService.getFrameSequence();
+            boolean heartbeat = now - landmarksPublishedAt >= broadcastConfig.getHeartbeatMillis();
+            if (sequence == landmarksSequence && !heartbeat) {
+                return;
+            }
+            
             List<HandLandmark> landmarks = handDetectionService.getLastDetectedLandmarks();
+            boolean handPresent = !landmarks.isEmpty();
+            if (!handPresent && !landmarksHandPresent && landmarksPublishedAt > 0 && !heartbeat) {
+                landmarksSequence = sequence;
+                suppressedUpdates.incrementAndGet();
+                return;
+            }
             
-            Map<String, Object> update = new HashMap<>();
-            update.put("landmarks", landmarks);
-            update.put("handDetected", handDetectionService.isHandDetected());
-            update.put("handCount", handDetectionService.getHandCount());
-            update.put("confidence", handDetectionService.getLastDetectionConfidence());
-            update.put("timestamp", System.currentTimeMillis());
+            LandmarksUpdate update = new LandmarksUpdate(
+                landmarks,
+                handDetectionService.isHandDetected(),
+                handDetectionService.getHandCount(),
+                handDetectionService.getLastDetectionConfidence(),
+                sequence,
+                heartbeat && sequence == landmarksSequence,
+                now);
             
             // Envia para todos os clientes inscritos
-            messagingTemplate.convertAndSend("/topic/landmarks", update);
+            broadcastPublisher.publish("/topic/landmarks", update);
+            recordPublish(heartbeat && sequence == landmarksSequence);
+            
+            landmarksSequence = sequence;
+            landmarksHandPresent = handPresent;
+            landmarksPublishedAt = now;
             
         } catch (Exception e) {
             logger.error("❌ Erro ao enviar atualização de landmarks: {}", e.getMessage());
@@ -172,13 +293,27 @@ public class WebSocketController {
     }
     
     /**
-     * Envia atualizações de gestos em tempo real (executado a cada 200ms)
+     * Envia o gesto reconhecido quando um frame novo muda o gesto, a presença
+     * da mão ou a posição na tela (no máximo na taxa configurada)
      */
-    @Scheduled(fixedRate = 200)
+    @Scheduled(fixedRateString = "#{@broadcastConfig.checkIntervalMillis}")
     public void sendGestureUpdate() {
         try {
+            if (!hasListeners("/topic/gestures")) {
+                gesturePublishedAt = 0;
+                return;
+            }
+            
+            long now = System.currentTimeMillis();
+            long sequence = handDetectionService.getFrameSequence();
+            boolean heartbeat = now - gesturePublishedAt >= broadcastConfig.getHeartbeatMillis();
+            if (sequence == gestureSequence && !heartbeat) {
+                return;
+            }
+            
             List<HandLandmark> landmarks = handDetectionService.getLastDetectedLandmarks();
-            GestureType gesture = gestureRecognitionService.recognizeGesture(landmarks);
+            RecognizedFrame frame = recognizeFrame(sequence, landmarks);
+            GestureType gesture = frame.gesture();
             
             GestureResponse response = new GestureResponse(gesture, 
                 handDetectionService.getLastDetectionConfidence());
@@ -187,15 +322,32 @@ public class WebSocketController {
             response.setHandDetected(handDetectionService.isHandDetected());
             response.setHandCount(handDetectionService.getHandCount());
             
-            // Mapeia coordenadas da tela
-            if (!landmarks.isEmpty()) {
-                int[] screenCoords = coordinateMappingService.mapHandLandmarksToScreen(landmarks);
-                response.setScreenX(screenCoords[0]);
-                response.setScreenY(screenCoords[1]);
+            // Coordenadas da tela mapeadas junto com o gesto
+            if (frame.mapped()) {
+                response.setScreenX(frame.screenX());
+                response.setScreenY(frame.screenY());
             }
             
+            boolean changed = gesture != gestureType || response.isHandDetected() != gestureHandDetected
+                    || response.getScreenX() != gestureScreenX || response.getScreenY() != gestureScreenY;
+            gestureSequence = sequence;
+            if (!changed && !heartbeat) {
+                suppressedUpdates.incrementAndGet();
+                return;
+            }
+            
+            response.addMetadata("sequence", sequence);
+            response.addMetadata("heartbeat", !changed);
+            
             // Envia para todos os clientes inscritos
-            messagingTemplate.convertAndSend("/topic/gestures", response);
+            broadcastPublisher.publish("/topic/gestures", response);
+            recordPublish(!changed);
+            
+            gestureType = gesture;
+            gestureHandDetected = response.isHandDetected();
+            gestureScreenX = response.getScreenX();
+            gestureScreenY = response.getScreenY();
+            gesturePublishedAt = now;
             
         } catch (Exception e) {
             logger.error("❌ Erro ao enviar atualização de gestos: {}", e.getMessage());
@@ -208,21 +360,26 @@ public class WebSocketController {
     @Scheduled(fixedRate = 1000)
     public void sendPerformanceStats() {
         try {
-            Map<String, Object> stats = new HashMap<>();
-            
-            stats.put("handDetectionConfidence", handDetectionService.getLastDetectionConfidence());
-            stats.put("gestureConfidence", gestureRecognitionService.getGestureConfidence());
-            stats.put("lastGestureTime", gestureRecognitionService.getLastGestureTime());
-            stats.put("isCalibrated", coordinateMappingService.isCalibrated());
-            stats.put("mouseEnabled", mouseSimulationService.isEnabled());
-            stats.put("isCalibrating", calibrationService.isCalibrating());
-            stats.put("lastMouseX", mouseSimulationService.getLastX());
-            stats.put("lastMouseY", mouseSimulationService.getLastY());
-            stats.put("isDragging", mouseSimulationService.isDragging());
-            stats.put("timestamp", System.currentTimeMillis());
+            if (!hasListeners("/topic/stats")) {
+                return;
+            }
+            
+            StatusSnapshot snapshot = statusSnapshotService.getSnapshot();
+            StatsUpdate stats = new StatsUpdate(
+                snapshot.confidence(),
+                snapshot.gestureConfidence(),
+                snapshot.lastGestureTime(),
+                snapshot.calibrated(),
+                snapshot.mouseEnabled(),
+                snapshot.isCalibrating(),
+                snapshot.lastMouseX(),
+                snapshot.lastMouseY(),
+                snapshot.isDragging(),
+                getBroadcastStats(),
+                System.currentTimeMillis());
             
             // Envia para todos os clientes inscritos
-            messagingTemplate.convertAndSend("/topic/stats", stats);
+            broadcastPublisher.publish("/topic/stats", stats);
             
         } catch (Exception e) {
             logger.error("❌ Erro ao enviar estatísticas: {}", e.getMessage());
@@ -235,20 +392,23 @@ public class WebSocketController {
     @Scheduled(fixedRate = 2000)
     public void sendCalibrationInfo() {
         try {
-            Map<String, Object> info = new HashMap<>();
-            
-            info.put("isCalibrating", calibrationService.isCalibrating());
-            info.put("currentSessionId", calibrationService.getCurrentSessionId());
-            info.put("isCalibrated", coordinateMappingService.isCalibrated());
+            if (!hasListeners("/topic/calibration")) {
+                return;
+            }
             
             CalibrationData currentData = calibrationService.getCurrentCalibration();
-            info.put("pointCount", currentData.getCalibrationPoints().size());
-            info.put("sensitivity", currentData.getSensitivity());
-            info.put("deadband", currentData.getDeadband());
-            info.put("timestamp", System.currentTimeMillis());
+            CalibrationUpdate info = new CalibrationUpdate(
+                calibrationService.isCalibrating(),
+                calibrationService.getCurrentSessionId(),
+                coordinateMappingService.isCalibrated(),
+                currentData.getCalibrationPoints().size(),
+                currentData.getSensitivity(),
+                currentData.getDeadband(),
+                calibrationService.getAutoCalibrationStatus(),
+                System.currentTimeMillis());
             
             // Envia para todos os clientes inscritos
-            messagingTemplate.convertAndSend("/topic/calibration", info);
+            broadcastPublisher.publish("/topic/calibration", info);
             
         } catch (Exception e) {
             logger.error("❌ Erro ao enviar informações de calibração: {}", e.getMessage());
@@ -256,35 +416,282 @@ public class WebSocketController {
     }
     
     /**
-     * Envia dados de mouse em tempo real (executado a cada 100ms)
+     * Envia dados de mouse quando o estado muda (no máximo na taxa configurada)
      */
-    @Scheduled(fixedRate = 100)
+    @Scheduled(fixedRateString = "#{@broadcastConfig.checkIntervalMillis}")
     public void sendMouseInfo() {
         try {
-            Map<String, Object> mouseInfo = new HashMap<>();
-            
-            mouseInfo.put("enabled", mouseSimulationService.isEnabled());
-            mouseInfo.put("lastX", mouseSimulationService.getLastX());
-            mouseInfo.put("lastY", mouseSimulationService.getLastY());
-            mouseInfo.put("isDragging", mouseSimulationService.isDragging());
-            mouseInfo.put("lastEventTime", mouseSimulationService.getLastEventTime());
-            
-            if (mouseSimulationService.isDragging()) {
-                int[] dragStart = mouseSimulationService.getDragStartPosition();
-                mouseInfo.put("dragStartX", dragStart[0]);
-                mouseInfo.put("dragStartY", dragStart[1]);
+            if (!hasListeners("/topic/mouse")) {
+                mousePublishedAt = 0;
+                return;
             }
             
-            mouseInfo.put("timestamp", System.currentTimeMillis());
+            long now = System.currentTimeMillis();
+            boolean enabled = mouseSimulationService.isEnabled();
+            int lastX = mouseSimulationService.getLastX();
+            int lastY = mouseSimulationService.getLastY();
+            boolean dragging = mouseSimulationService.isDragging();
+            long lastEventTime = mouseSimulationService.getLastEventTime();
+            
+            boolean changed = enabled != mouseEnabled || lastX != mouseX || lastY != mouseY
+                    || dragging != mouseDragging || lastEventTime != mouseEventTime;
+            boolean heartbeat = now - mousePublishedAt >= broadcastConfig.getHeartbeatMillis();
+            if (!changed && !heartbeat) {
+                return;
+            }
+            
+            int[] dragStart = dragging ? mouseSimulationService.getDragStartPosition() : null;
+            MouseUpdate mouseInfo = new MouseUpdate(
+                enabled,
+                lastX,
+                lastY,
+                dragging,
+                lastEventTime,
+                dragStart != null ? dragStart[0] : null,
+                dragStart != null ? dragStart[1] : null,
+                ++mouseSequence,
+                !changed,
+                now);
             
             // Envia para todos os clientes inscritos
-            messagingTemplate.convertAndSend("/topic/mouse", mouseInfo);
+            broadcastPublisher.publish("/topic/mouse", mouseInfo);
+            recordPublish(!changed);
+            
+            mouseEnabled = enabled;
+            mouseX = lastX;
+            mouseY = lastY;
+            mouseDragging = dragging;
+            mouseEventTime = lastEventTime;
+            mousePublishedAt = now;
             
         } catch (Exception e) {
             logger.error("❌ Erro ao enviar informações do mouse: {}", e.getMessage());
         }
     }
     
+    /**
+     * Envia o estado consolidado do frame (/topic/frame) a cada frame novo ou
+     * mudança do mouse. A mensagem é montada uma vez com a união das seções
+     * pedidas e recortada para cada destino inscrito (uma codificação por destino).
+     */
+    @Scheduled(fixedRateString = "#{@broadcastConfig.checkIntervalMillis}")
+    public void sendFrameUpdate() {
+        try {
+            List<String> destinations = topicSubscriptionService.getActiveDestinations(FrameUpdate.DESTINATION);
+            if (destinations.isEmpty()) {
+                unsubscribedSkips.incrementAndGet();
+                framePublishedAt = 0;
+                frameStatsAt = 0;
+                frameCalibrationAt = 0;
+                return;
+            }
+            
+            Map<String, EnumSet<FrameUpdate.Section>> sectionsByDestination = new HashMap<>();
+            EnumSet<FrameUpdate.Section> wanted = EnumSet.noneOf(FrameUpdate.Section.class);
+            for (String destination : destinations) {
+                EnumSet<FrameUpdate.Section> sections = FrameUpdate.Section.fromDestination(destination);
+                sectionsByDestination.put(destination, sections);
+                wanted.addAll(sections);
+            }
+            
+            long now = System.currentTimeMillis();
+            long sequence = handDetectionService.getFrameSequence();
+            boolean heartbeat = now - framePublishedAt >= broadcastConfig.getHeartbeatMillis();
+            boolean statsDue = wanted.contains(FrameUpdate.Section.STATS)
+                    && now - frameStatsAt >= FRAME_STATS_INTERVAL_MILLIS;
+            boolean calibrationDue = wanted.contains(FrameUpdate.Section.CALIBRATION)
+                    && now - frameCalibrationAt >= FRAME_CALIBRATION_INTERVAL_MILLIS;
+            FrameUpdate.Mouse mouse = wanted.contains(FrameUpdate.Section.MOUSE) ? currentMouse() : null;
+            boolean mouseChanged = mouse != null && !mouse.equals(frameMouse);
+            boolean newFrame = sequence != frameSequence;
+            
+            if (!newFrame && !mouseChanged && !heartbeat && !statsDue && !calibrationDue) {
+                return;
+            }
+            
+            List<HandLandmark> landmarks = handDetectionService.getLastDetectedLandmarks();
+            boolean handPresent = !landmarks.isEmpty();
+            if (newFrame && !handPresent && !frameHandPresent && framePublishedAt > 0) {
+                // Frames seguidos sem mão têm o mesmo conteúdo
+                frameSequence = sequence;
+                newFrame = false;
+                if (!mouseChanged && !heartbeat && !statsDue && !calibrationDue) {
+                    suppressedUpdates.incrementAndGet();
+                    return;
+                }
+            }
+            boolean keepAlive = !newFrame && !mouseChanged && !statsDue && !calibrationDue;
+            
+            FrameUpdate.Gesture gesture = null;
+            if (wanted.contains(FrameUpdate.Section.GESTURE)) {
+                RecognizedFrame recognizedFrame = recognizeFrame(sequence, landmarks);
+                gesture = new FrameUpdate.Gesture(recognizedFrame.gesture(),
+                    recognizedFrame.screenX(), recognizedFrame.screenY());
+            }
+            
+            FrameUpdate frame = new FrameUpdate(
+                sequence,
+                handDetectionService.isHandDetected(),
+                handDetectionService.getHandCount(),
+                handDetectionService.getLastDetectionConfidence(),
+                keepAlive,
+                now,
+                wanted.contains(FrameUpdate.Section.LANDMARKS) ? compactLandmarks(landmarks) : null,
+                gesture,
+                mouse,
+                statsDue ? currentFrameStats() : null,
+                calibrationDue ? currentFrameCalibration() : null);
+            
+            for (Map.Entry<String, EnumSet<FrameUpdate.Section>> entry : sectionsByDestination.entrySet()) {
+                broadcastPublisher.publish(entry.getKey(), frame.select(entry.getValue()));
+            }
+            recordPublish(keepAlive);
+            
+            frameSequence = sequence;
+            frameHandPresent = handPresent;
+            frameMouse = mouse;
+            framePublishedAt = now;
+            if (statsDue) {
+                frameStatsAt = now;
+            }
+            if (calibrationDue) {
+                frameCalibrationAt = now;
+            }
+            
+        } catch (Exception e) {
+            logger.error("❌ Erro ao enviar estado do frame: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Gesto e posição na tela de um frame, calculados juntos
+     */
+    private record RecognizedFrame(long sequence, GestureType gesture, boolean mapped, int screenX, int screenY) {
+    }
+    
+    /**
+     * Reconhece o gesto (e mapeia a posição na tela) uma vez por frame; os
+     * tópicos que publicam o mesmo frame reusam o resultado. Sincronizado porque
+     * o reconhecimento tem estado e não pode rodar duas vezes para o mesmo frame.
+     */
+    private synchronized RecognizedFrame recognizeFrame(long sequence, List<HandLandmark> landmarks) {
+        RecognizedFrame current = recognized;
+        if (current == null || current.sequence() != sequence || current.gesture() == null) {
+            GestureType gesture = gestureRecognitionService.recognizeGesture(landmarks);
+            int[] screen = landmarks.isEmpty() ? null : coordinateMappingService.mapHandLandmarksToScreen(landmarks);
+            current = new RecognizedFrame(sequence, gesture, screen != null,
+                    screen != null ? screen[0] : 0, screen != null ? screen[1] : 0);
+            recognized = current;
+        }
+        return current;
+    }
+    
+    /**
+     * Landmarks em x, y, z intercalados, arredondados a 4 casas
+     */
+    private static float[] compactLandmarks(List<HandLandmark> landmarks) {
+        float[] values = new float[landmarks.size() * 3];
+        for (int i = 0; i < landmarks.size(); i++) {
+            HandLandmark landmark = landmarks.get(i);
+            values[i * 3] = round4(landmark.getX());
+            values[i * 3 + 1] = round4(landmark.getY());
+            values[i * 3 + 2] = round4(landmark.getZ());
+        }
+        return values;
+    }
+    
+    private static float round4(double value) {
+        return (float) (Math.round(value * 10_000) / 10_000.0);
+    }
+    
+    private FrameUpdate.Mouse currentMouse() {
+        boolean dragging = mouseSimulationService.isDragging();
+        int[] dragStart = dragging ? mouseSimulationService.getDragStartPosition() : null;
+        return new FrameUpdate.Mouse(
+            mouseSimulationService.isEnabled(),
+            mouseSimulationService.getLastX(),
+            mouseSimulationService.getLastY(),
+            dragging,
+            mouseSimulationService.getLastEventTime(),
+            dragStart != null ? dragStart[0] : null,
+            dragStart != null ? dragStart[1] : null);
+    }
+    
+    private FrameUpdate.Stats currentFrameStats() {
+        StatusSnapshot snapshot = statusSnapshotService.getSnapshot();
+        return new FrameUpdate.Stats(
+            snapshot.gestureConfidence(),
+            snapshot.lastGestureTime(),
+            getBroadcastStats());
+    }
+    
+    private FrameUpdate.Calibration currentFrameCalibration() {
+        CalibrationData currentData = calibrationService.getCurrentCalibration();
+        return new FrameUpdate.Calibration(
+            calibrationService.isCalibrating(),
+            calibrationService.getCurrentSessionId(),
+            coordinateMappingService.isCalibrated(),
+            currentData.getCalibrationPoints().size(),
+            currentData.getSensitivity(),
+            currentData.getDeadband(),
+            calibrationService.getAutoCalibrationStatus());
+    }
+    
+    /**
+     * Verifica se o tópico tem inscritos; sem eles o payload nem é montado
+     */
+    private boolean hasListeners(String destination) {
+        if (topicSubscriptionService.hasSubscribers(destination)) {
+            return true;
+        }
+        unsubscribedSkips.incrementAndGet();
+        return false;
+    }
+    
+    private void recordPublish(boolean heartbeat) {
+        publishedUpdates.incrementAndGet();
+        if (heartbeat) {
+            heartbeatUpdates.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Contadores das transmissões por mudança (publicadas, batimentos e suprimidas)
+     */
+    public Map<String, Object> getBroadcastStats() {
+        Map<String, Object> broadcast = new HashMap<>();
+        broadcast.put("published", publishedUpdates.get());
+        broadcast.put("heartbeats", heartbeatUpdates.get());
+        broadcast.put("suppressed", suppressedUpdates.get());
+        broadcast.put("unsubscribedSkips", unsubscribedSkips.get());
+        broadcast.put("subscriptions", topicSubscriptionService.getMetrics());
+        broadcast.put("binaryLandmarks", landmarkStreamHandler.getMetrics());
+        broadcast.put("activeSessions", activeSessions.size());
+        broadcast.put("streams", sessionStreamService.getMetrics());
+        broadcast.put("maxRateHz", broadcastConfig.getMaxRateHz());
+        broadcast.put("encoding", broadcastPublisher.getMetrics());
+        return broadcast;
+    }
+    
+    /**
+     * Registra a sessão STOMP quando a conexão é confirmada
+     */
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            registerSession(sessionId, event.getUser() != null ? event.getUser().getName() : "anonymous");
+        }
+    }
+    
+    /**
+     * Remove a sessão STOMP ao desconectar
+     */
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        unregisterSession(event.getSessionId());
+    }
+    
     /**
      * Registra uma nova sessão
      */
@@ -0,0 +1,20 @@
+package com.touchvirtual.dto;
+
+import java.util.Map;
+
+/**
+ * Mensagem do tópico /topic/calibration
+ * 
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public record CalibrationUpdate(
+        boolean isCalibrating,
+        String currentSessionId,
+        boolean isCalibrated,
+        int pointCount,
+        double sensitivity,
+        double deadband,
+        Map<String, Object> autoCalibration,
+        long timestamp) {
+}
@@ -0,0 +1,20 @@
+package com.touchvirtual.dto;
+
+import com.touchvirtual.model.DetectorState;
+
+/**
+ * Mensagem do tópico /topic/detector, enviada a cada mudança de estado do detector
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public record DetectorStateUpdate(
+        DetectorState state,
+        DetectorState previousState,
+        long lastFrameAgeMillis,
+        double frameIntervalMillis,
+        long probeDelayMillis,
+        long timestamp) {
+
+    public static final String DESTINATION = "/topic/detector";
+}
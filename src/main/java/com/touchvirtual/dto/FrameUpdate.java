@@ -0,0 +1,88 @@
+package com.touchvirtual.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.touchvirtual.model.GestureType;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Mensagem do tópico /topic/frame: o estado de um frame processado numa única mensagem
+ *
+ * O cabeçalho (sequência, presença da mão e confiança) vai sempre; as seções
+ * são escolhidas pelo cliente no destino da inscrição: {@code /topic/frame}
+ * traz todas e {@code /topic/frame/gesture,mouse} só as listadas. Os landmarks
+ * vão compactos, com x, y, z intercalados; estatísticas e calibração mudam
+ * devagar e só vão na cadência própria (1 s e 2 s). Seções ausentes não são
+ * serializadas.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FrameUpdate(
+        long sequence,
+        boolean handDetected,
+        int handCount,
+        double confidence,
+        boolean heartbeat,
+        long timestamp,
+        float[] landmarks,
+        Gesture gesture,
+        Mouse mouse,
+        Stats stats,
+        Calibration calibration) {
+
+    public static final String DESTINATION = "/topic/frame";
+
+    /**
+     * Seções opcionais da mensagem
+     */
+    public enum Section {
+        LANDMARKS, GESTURE, MOUSE, STATS, CALIBRATION;
+
+        /**
+         * Seções pedidas no destino da inscrição; sem lista (ou só com nomes
+         * desconhecidos) são todas
+         */
+        public static EnumSet<Section> fromDestination(String destination) {
+            if (destination.length() <= DESTINATION.length() + 1) {
+                return EnumSet.allOf(Section.class);
+            }
+
+            EnumSet<Section> sections = EnumSet.noneOf(Section.class);
+            for (String name : destination.substring(DESTINATION.length() + 1).split(",")) {
+                try {
+                    sections.add(valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    // Seção desconhecida: ignorada
+                }
+            }
+            return sections.isEmpty() ? EnumSet.allOf(Section.class) : sections;
+        }
+    }
+
+    public record Gesture(GestureType gestureType, int screenX, int screenY) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Mouse(boolean enabled, int lastX, int lastY, boolean isDragging, long lastEventTime,
+            Integer dragStartX, Integer dragStartY) {}
+
+    public record Stats(int gestureConfidence, long lastGestureTime, Map<String, Object> broadcast) {}
+
+    public record Calibration(boolean isCalibrating, String currentSessionId, boolean isCalibrated,
+            int pointCount, double sensitivity, double deadband, Map<String, Object> autoCalibration) {}
+
+    /**
+     * Cópia só com as seções pedidas
+     */
+    public FrameUpdate select(EnumSet<Section> sections) {
+        return new FrameUpdate(sequence, handDetected, handCount, confidence, heartbeat, timestamp,
+                sections.contains(Section.LANDMARKS) ? landmarks : null,
+                sections.contains(Section.GESTURE) ? gesture : null,
+                sections.contains(Section.MOUSE) ? mouse : null,
+                sections.contains(Section.STATS) ? stats : null,
+                sections.contains(Section.CALIBRATION) ? calibration : null);
+    }
+}
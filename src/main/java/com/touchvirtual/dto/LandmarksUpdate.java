@@ -0,0 +1,20 @@
+package com.touchvirtual.dto;
+
+import com.touchvirtual.model.HandLandmark;
+import java.util.List;
+
+/**
+ * Mensagem do tópico /topic/landmarks
+ * 
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public record LandmarksUpdate(
+        List<HandLandmark> landmarks,
+        boolean handDetected,
+        int handCount,
+        double confidence,
+        long sequence,
+        boolean heartbeat,
+        long timestamp) {
+}
@@ -0,0 +1,23 @@
+package com.touchvirtual.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Mensagem do tópico /topic/mouse; o início do arraste só vai junto durante um arraste
+ * 
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MouseUpdate(
+        boolean enabled,
+        int lastX,
+        int lastY,
+        boolean isDragging,
+        long lastEventTime,
+        Integer dragStartX,
+        Integer dragStartY,
+        long sequence,
+        boolean heartbeat,
+        long timestamp) {
+}
@@ -0,0 +1,23 @@
+package com.touchvirtual.dto;
+
+import java.util.Map;
+
+/**
+ * Mensagem do tópico /topic/stats
+ * 
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public record StatsUpdate(
+        double handDetectionConfidence,
+        int gestureConfidence,
+        long lastGestureTime,
+        boolean isCalibrated,
+        boolean mouseEnabled,
+        boolean isCalibrating,
+        int lastMouseX,
+        int lastMouseY,
+        boolean isDragging,
+        Map<String, Object> broadcast,
+        long timestamp) {
+}
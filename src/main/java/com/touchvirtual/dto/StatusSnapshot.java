@@ -0,0 +1,97 @@
+package com.touchvirtual.dto;
+
+import com.touchvirtual.model.GestureType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Retrato imutável do status do sistema, servido por todos os endpoints de status
+ *
+ * A versão só muda quando o conteúdo muda; {@code updatedAt} é o instante da
+ * última mudança. Cada visão (sistema, detecção, gestos) tem a própria ETag,
+ * que só muda quando o corpo daquela visão muda.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public record StatusSnapshot(
+        boolean cameraInitialized,
+        boolean processing,
+        String cameraStatus,
+        boolean handDetected,
+        int handCount,
+        double confidence,
+        GestureType lastGesture,
+        int gestureConfidence,
+        long lastGestureTime,
+        boolean mouseEnabled,
+        int lastMouseX,
+        int lastMouseY,
+        boolean isDragging,
+        boolean calibrated,
+        boolean isCalibrating,
+        long version,
+        long updatedAt,
+        String systemEtag,
+        String detectionEtag,
+        String gestureEtag) {
+
+    /**
+     * Mesmo conteúdo com outra versão
+     */
+    public StatusSnapshot withVersion(long version, long updatedAt,
+                                      String systemEtag, String detectionEtag, String gestureEtag) {
+        return new StatusSnapshot(cameraInitialized, processing, cameraStatus, handDetected, handCount,
+                confidence, lastGesture, gestureConfidence, lastGestureTime, mouseEnabled, lastMouseX,
+                lastMouseY, isDragging, calibrated, isCalibrating, version, updatedAt,
+                systemEtag, detectionEtag, gestureEtag);
+    }
+
+    /**
+     * Corpo de /api/system/status
+     */
+    public Map<String, Object> toSystemStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("cameraInitialized", cameraInitialized);
+        status.put("handDetected", handDetected);
+        status.put("handCount", handCount);
+        status.put("confidence", confidence);
+        status.put("mouseEnabled", mouseEnabled);
+        status.put("calibrated", calibrated);
+        status.put("lastGesture", lastGesture);
+        status.put("gestureConfidence", gestureConfidence);
+        status.put("status", "success");
+        return status;
+    }
+
+    /**
+     * Corpo de /api/detection/status
+     */
+    public Map<String, Object> toDetectionStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("success", true);
+        status.put("cameraInitialized", cameraInitialized);
+        status.put("processing", processing);
+        status.put("handDetected", handDetected);
+        status.put("handCount", handCount);
+        status.put("confidence", confidence);
+        status.put("cameraStatus", cameraStatus);
+        return status;
+    }
+
+    /**
+     * Corpo de /api/gestures/status
+     */
+    public Map<String, Object> toGestureStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("handDetected", handDetected);
+        status.put("handCount", handCount);
+        status.put("detectionConfidence", confidence);
+        status.put("lastGesture", lastGesture != null ? lastGesture.getDisplayName() : "NONE");
+        status.put("gestureConfidence", gestureConfidence);
+        status.put("mouseEnabled", mouseEnabled);
+        status.put("calibrated", calibrated);
+        return status;
+    }
+}
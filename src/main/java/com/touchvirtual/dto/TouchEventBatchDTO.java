@@ -0,0 +1,61 @@
+package com.touchvirtual.dto;
+
+import com.touchvirtual.model.TouchEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO para um lote ordenado de eventos de toque
+ * 
+ * Os eventos são reproduzidos na ordem da lista, respeitando o intervalo entre
+ * os timestamps do cliente (em milissegundos). A sequência, quando informada,
+ * é crescente por sessão; lotes repetidos ou atrasados são recusados.
+ * 
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public class TouchEventBatchDTO {
+    
+    private String batchId;
+    private String sessionId;
+    private long sequence;
+    private List<TouchEventDTO> events = new ArrayList<>();
+    
+    public TouchEventBatchDTO() {}
+    
+    /**
+     * Converte os eventos do lote, na ordem recebida
+     */
+    public List<TouchEvent> toTouchEvents() {
+        List<TouchEvent> touchEvents = new ArrayList<>(events.size());
+        for (TouchEventDTO event : events) {
+            touchEvents.add(event.toTouchEvent());
+        }
+        return touchEvents;
+    }
+    
+    /**
+     * Timestamps do cliente (ms) de cada evento; 0 quando não informado
+     */
+    public long[] clientTimestamps() {
+        long[] timestamps = new long[events.size()];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = events.get(i).getTimestamp();
+        }
+        return timestamps;
+    }
+    
+    // Getters e Setters
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+    
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    
+    public List<TouchEventDTO> getEvents() { return events; }
+    public void setEvents(List<TouchEventDTO> events) { this.events = events; }
+}
@@ -1,5 +1,7 @@
 package com.touchvirtual.model;
 
+import com.touchvirtual.util.ThinPlateSpline;
+
 import java.util.List;
 import java.util.ArrayList;
 
@@ -11,7 +13,11 @@ import java.util.ArrayList;
  */
 public class CalibrationData {
     
+    // Mínimo de pontos para o mapeamento calibrado ser utilizável
+    public static final int MIN_CALIBRATION_POINTS = 4;
+    
     private String id;
+    private String targetDisplay;
     private int screenWidth;
     private int screenHeight;
     private int cameraWidth;
@@ -21,6 +27,10 @@ public class CalibrationData {
     private double deadband;
     private boolean isCalibrated;
     private long lastCalibrationTime;
+    private DistortionGrid distortionGrid;
+    private ThinPlateSpline spline;
+    // Correção afim refinada online: {ax, bx, cx, ay, by, cy} em coordenadas normalizadas do monitor
+    private double[] refinement;
     
     /**
      * Ponto de calibração para mapeamento de coordenadas
@@ -74,8 +84,8 @@ public class CalibrationData {
         CalibrationPoint point = new CalibrationPoint(cameraX, cameraY, screenX, screenY);
         calibrationPoints.add(point);
         
-        // Considera calibrado se tiver pelo menos 4 pontos
-        if (calibrationPoints.size() >= 4) {
+        // Considera calibrado a partir do mínimo de pontos
+        if (calibrationPoints.size() >= MIN_CALIBRATION_POINTS) {
             this.isCalibrated = true;
             this.lastCalibrationTime = System.currentTimeMillis();
         }
@@ -85,6 +95,9 @@ public class CalibrationData {
     public void clearCalibration() {
         calibrationPoints.clear();
         this.isCalibrated = false;
+        this.distortionGrid = null;
+        this.spline = null;
+        this.refinement = null;
     }
 
      //Converte coordenadas da câmera para coordenadas da tela
@@ -96,16 +109,33 @@ public class CalibrationData {
             return new int[]{screenX, screenY};
         }
         
-        // Implementação de interpolação bilinear ou transformação afim
-        // Por simplicidade, usando média ponderada dos pontos mais próximos
+        // Thin-plate spline local, ajustado em background
+        ThinPlateSpline fitted = spline;
+        if (fitted != null) {
+            double[] screen = fitted.map(cameraX, cameraY);
+            return new int[]{(int) screen[0], (int) screen[1]};
+        }
+        
+        // Enquanto o spline não está pronto, usa média ponderada pelo inverso da distância
         double totalWeight = 0;
         double weightedX = 0;
         double weightedY = 0;
         
+        // Os pontos são comparados no mesmo espaço (sem distorção) da entrada
+        DistortionGrid grid = distortionGrid;
+        
         for (CalibrationPoint point : calibrationPoints) {
+            double pointX = point.cameraX;
+            double pointY = point.cameraY;
+            if (grid != null) {
+                double[] corrected = grid.correct(pointX, pointY);
+                pointX = corrected[0];
+                pointY = corrected[1];
+            }
+            
             double distance = Math.sqrt(
-                Math.pow(cameraX - point.cameraX, 2) + 
-                Math.pow(cameraY - point.cameraY, 2)
+                Math.pow(cameraX - pointX, 2) + 
+                Math.pow(cameraY - pointY, 2)
             );
             
             if (distance < 0.001) distance = 0.001; // Evita divisão por zero
@@ -129,6 +159,9 @@ public class CalibrationData {
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
     
+    public String getTargetDisplay() { return targetDisplay; }
+    public void setTargetDisplay(String targetDisplay) { this.targetDisplay = targetDisplay; }
+    
     public int getScreenWidth() { return screenWidth; }
     public void setScreenWidth(int screenWidth) { this.screenWidth = screenWidth; }
     
@@ -159,4 +192,15 @@ public class CalibrationData {
     public void setLastCalibrationTime(long lastCalibrationTime) { 
         this.lastCalibrationTime = lastCalibrationTime; 
     }
+    
+    public DistortionGrid getDistortionGrid() { return distortionGrid; }
+    public void setDistortionGrid(DistortionGrid distortionGrid) { 
+        this.distortionGrid = distortionGrid; 
+    }
+    
+    public ThinPlateSpline getSpline() { return spline; }
+    public void setSpline(ThinPlateSpline spline) { this.spline = spline; }
+    
+    public double[] getRefinement() { return refinement; }
+    public void setRefinement(double[] refinement) { this.refinement = refinement; }
 } 
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.touchvirtual.model;
+
+/**
+ * Estados do detector de mãos Python, derivados do fluxo de frames recebidos
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public enum DetectorState {
+
+    STOPPED("Stopped", "Detecção parada"),
+    STARTING("Starting", "Serviço iniciado, aguardando o primeiro frame"),
+    STREAMING("Streaming", "Frames chegando na cadência esperada"),
+    STALLED("Stalled", "Frames pararam de chegar; sondando o serviço"),
+    DOWN("Down", "Serviço Python não responde; sondando com backoff");
+
+    private final String displayName;
+    private final String description;
+
+    DetectorState(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Verifica se o detector está sendo sondado (sem frames)
+     */
+    public boolean isProbing() {
+        return this == STALLED || this == DOWN;
+    }
+}
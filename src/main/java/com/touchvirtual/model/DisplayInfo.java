@@ -0,0 +1,106 @@
+package com.touchvirtual.model;
+
+/**
+ * Monitor (ou desktop virtual) alvo do mapeamento de coordenadas
+ *
+ * Os limites estão no espaço de coordenadas do desktop virtual, o mesmo usado
+ * pelo Robot; a escala é a do monitor (HiDPI) e serve apenas para informação.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public class DisplayInfo {
+
+    // Identificadores especiais para perfis de calibração
+    public static final String PRIMARY_ID = "primary";
+    public static final String VIRTUAL_DESKTOP_ID = "virtual";
+
+    private String id;
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private double scaleX;
+    private double scaleY;
+    private boolean primary;
+
+    public DisplayInfo() {}
+
+    public DisplayInfo(String id, int x, int y, int width, int height,
+                       double scaleX, double scaleY, boolean primary) {
+        this.id = id;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        this.primary = primary;
+    }
+
+    /**
+     * Converte uma coordenada normalizada [0, 1] para pixels dentro do monitor
+     */
+    public int toScreenX(double normalizedX) {
+        return x + (int) (normalizedX * width);
+    }
+
+    /**
+     * Converte uma coordenada normalizada [0, 1] para pixels dentro do monitor
+     */
+    public int toScreenY(double normalizedY) {
+        return y + (int) (normalizedY * height);
+    }
+
+    /**
+     * Limita uma coordenada X aos limites do monitor
+     */
+    public int clampX(int screenX) {
+        return Math.max(x, Math.min(screenX, x + width - 1));
+    }
+
+    /**
+     * Limita uma coordenada Y aos limites do monitor
+     */
+    public int clampY(int screenY) {
+        return Math.max(y, Math.min(screenY, y + height - 1));
+    }
+
+    /**
+     * Espelha horizontalmente uma coordenada dentro do monitor
+     */
+    public int mirrorX(int screenX) {
+        return 2 * x + width - screenX;
+    }
+
+    // Getters e Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public int getX() { return x; }
+    public void setX(int x) { this.x = x; }
+
+    public int getY() { return y; }
+    public void setY(int y) { this.y = y; }
+
+    public int getWidth() { return width; }
+    public void setWidth(int width) { this.width = width; }
+
+    public int getHeight() { return height; }
+    public void setHeight(int height) { this.height = height; }
+
+    public double getScaleX() { return scaleX; }
+    public void setScaleX(double scaleX) { this.scaleX = scaleX; }
+
+    public double getScaleY() { return scaleY; }
+    public void setScaleY(double scaleY) { this.scaleY = scaleY; }
+
+    public boolean isPrimary() { return primary; }
+    public void setPrimary(boolean primary) { this.primary = primary; }
+
+    @Override
+    public String toString() {
+        return "DisplayInfo{id='%s', bounds=(%d,%d %dx%d), scale=%.2fx%.2f}".formatted(
+                id, x, y, width, height, scaleX, scaleY);
+    }
+}
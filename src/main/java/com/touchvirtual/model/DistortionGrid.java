@@ -0,0 +1,100 @@
+package com.touchvirtual.model;
+
+import com.touchvirtual.util.MathUtils;
+
+/**
+ * Grade pré-calculada de correção de distorção da lente (barril/almofada)
+ *
+ * Cada nó guarda o deslocamento a ser somado à coordenada normalizada da
+ * câmera. A consulta interpola os quatro nós da célula e tem custo constante.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public class DistortionGrid {
+
+    private int columns;
+    private int rows;
+    private double k1;
+    private double k2;
+    private float[] offsetX;
+    private float[] offsetY;
+    private long buildTime;
+
+    public DistortionGrid() {}
+
+    /**
+     * Constrói a grade a partir de coeficientes de distorção radial (modelo de Brown)
+     * centrados em (0.5, 0.5)
+     */
+    public static DistortionGrid fromRadialCoefficients(int columns, int rows, double k1, double k2) {
+        DistortionGrid grid = new DistortionGrid();
+        grid.columns = columns;
+        grid.rows = rows;
+        grid.k1 = k1;
+        grid.k2 = k2;
+        grid.offsetX = new float[(columns + 1) * (rows + 1)];
+        grid.offsetY = new float[(columns + 1) * (rows + 1)];
+
+        for (int j = 0; j <= rows; j++) {
+            double dy = (double) j / rows - 0.5;
+            for (int i = 0; i <= columns; i++) {
+                double dx = (double) i / columns - 0.5;
+                double r2 = dx * dx + dy * dy;
+                double factor = k1 * r2 + k2 * r2 * r2;
+
+                int index = j * (columns + 1) + i;
+                grid.offsetX[index] = (float) (dx * factor);
+                grid.offsetY[index] = (float) (dy * factor);
+            }
+        }
+
+        grid.buildTime = System.currentTimeMillis();
+        return grid;
+    }
+
+    /**
+     * Corrige uma coordenada normalizada da câmera
+     */
+    public double[] correct(double cameraX, double cameraY) {
+        double gx = MathUtils.clamp(cameraX, 0.0, 1.0) * columns;
+        double gy = MathUtils.clamp(cameraY, 0.0, 1.0) * rows;
+
+        int i = Math.min((int) gx, columns - 1);
+        int j = Math.min((int) gy, rows - 1);
+
+        int i11 = j * (columns + 1) + i;
+        int i21 = i11 + 1;
+        int i12 = i11 + columns + 1;
+        int i22 = i12 + 1;
+
+        double dx = MathUtils.bilinearLerp(offsetX[i11], offsetX[i12], offsetX[i21], offsetX[i22],
+                i, i + 1, j, j + 1, gx, gy);
+        double dy = MathUtils.bilinearLerp(offsetY[i11], offsetY[i12], offsetY[i21], offsetY[i22],
+                i, i + 1, j, j + 1, gx, gy);
+
+        return new double[]{cameraX + dx, cameraY + dy};
+    }
+
+    // Getters e Setters
+    public int getColumns() { return columns; }
+    public void setColumns(int columns) { this.columns = columns; }
+
+    public int getRows() { return rows; }
+    public void setRows(int rows) { this.rows = rows; }
+
+    public double getK1() { return k1; }
+    public void setK1(double k1) { this.k1 = k1; }
+
+    public double getK2() { return k2; }
+    public void setK2(double k2) { this.k2 = k2; }
+
+    public float[] getOffsetX() { return offsetX; }
+    public void setOffsetX(float[] offsetX) { this.offsetX = offsetX; }
+
+    public float[] getOffsetY() { return offsetY; }
+    public void setOffsetY(float[] offsetY) { this.offsetY = offsetY; }
+
+    public long getBuildTime() { return buildTime; }
+    public void setBuildTime(long buildTime) { this.buildTime = buildTime; }
+}
@@ -21,6 +21,30 @@ public class UserSettings {
     private Map<GestureType, Boolean> enabledGestures;
     private Map<String, Object> customSettings;
     
+    // Movimento relativo com curva de aceleração
+    private PointerMode pointerMode;
+    private AccelerationProfile accelerationProfile;
+    private double accelerationSpeed;
+    private double customAccelerationStep;
+    private double[] customAccelerationPoints;
+    
+    /**
+     * Modo de movimento do cursor
+     */
+    public enum PointerMode {
+        ABSOLUTE,   // Posição da mão define a posição do cursor
+        RELATIVE    // Deslocamento da mão move o cursor, com aceleração
+    }
+    
+    /**
+     * Perfis de aceleração (equivalentes aos do libinput)
+     */
+    public enum AccelerationProfile {
+        FLAT,       // Ganho constante
+        ADAPTIVE,   // Ganho cresce com a velocidade da mão
+        CUSTOM      // Curva definida por pontos
+    }
+    
     public UserSettings() {
         this.enabledGestures = new HashMap<>();
         this.customSettings = new HashMap<>();
@@ -29,6 +53,11 @@ public class UserSettings {
         this.leftHanded = false;
         this.enableSound = true;
         this.enableVibration = false;
+        this.pointerMode = PointerMode.ABSOLUTE;
+        this.accelerationProfile = AccelerationProfile.ADAPTIVE;
+        this.accelerationSpeed = 0.0;
+        this.customAccelerationStep = 0.25;
+        this.customAccelerationPoints = new double[]{0.5, 1.0, 1.5, 2.0, 2.5};
         
         // Habilita todos os gestos por padrão
         for (GestureType gesture : GestureType.values()) {
@@ -102,4 +131,25 @@ public class UserSettings {
     public void setCustomSettings(Map<String, Object> customSettings) { 
         this.customSettings = customSettings; 
     }
-} 
\ No newline at end of file
+    
+    public PointerMode getPointerMode() { return pointerMode; }
+    public void setPointerMode(PointerMode pointerMode) { this.pointerMode = pointerMode; }
+    
+    public AccelerationProfile getAccelerationProfile() { return accelerationProfile; }
+    public void setAccelerationProfile(AccelerationProfile accelerationProfile) { 
+        this.accelerationProfile = accelerationProfile; 
+    }
+    
+    public double getAccelerationSpeed() { return accelerationSpeed; }
+    public void setAccelerationSpeed(double accelerationSpeed) { this.accelerationSpeed = accelerationSpeed; }
+    
+    public double getCustomAccelerationStep() { return customAccelerationStep; }
+    public void setCustomAccelerationStep(double customAccelerationStep) { 
+        this.customAccelerationStep = customAccelerationStep; 
+    }
+    
+    public double[] getCustomAccelerationPoints() { return customAccelerationPoints; }
+    public void setCustomAccelerationPoints(double[] customAccelerationPoints) { 
+        this.customAccelerationPoints = customAccelerationPoints; 
+    }
+}
@@ -0,0 +1,306 @@
+package com.touchvirtual.service;
+
+import com.touchvirtual.model.DisplayInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sessão de calibração automática por permanência (dwell) do dedo
+ *
+ * Recebe a posição da ponta do indicador a cada frame, detecta quando ela fica
+ * parada sobre o alvo exibido e acumula várias amostras por alvo. Todo o
+ * trabalho por frame é incremental e de custo constante; o ajuste é feito
+ * depois, fora da thread do pipeline. Cada alvo tem um tempo limite, contado
+ * desde que ele passou a ser o atual.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+class AutoCalibrationSession {
+
+    /**
+     * Estados da sessão
+     */
+    enum State {
+        WAITING_DWELL,  // Aguardando o dedo parar sobre o alvo
+        COLLECTING,     // Coletando amostras do alvo atual
+        FITTING,        // Todas as amostras coletadas, ajuste em andamento
+        COMPLETED,
+        FAILED
+    }
+
+    // Capacidade da janela de detecção de permanência
+    private static final int WINDOW_CAPACITY = 64;
+
+    private final String sessionId;
+    private final DisplayInfo display;
+    private final int[][] targets;
+    private final double[][] samplesX;
+    private final double[][] samplesY;
+    private final int[] sampleCounts;
+    private final int samplesPerTarget;
+    private final long dwellMillis;
+    private final double dwellRadius;
+    private final long timeoutMillis;
+    private final long startedAt;
+    private long targetStartedAt;
+
+    private State state = State.WAITING_DWELL;
+    private int currentTarget;
+    private long finishedAt;
+    private String message;
+
+    // Janela recente de posições para detectar a permanência
+    private final double[] windowX = new double[WINDOW_CAPACITY];
+    private final double[] windowY = new double[WINDOW_CAPACITY];
+    private final long[] windowTime = new long[WINDOW_CAPACITY];
+    private int windowStart;
+    private int windowSize;
+    private double dwellX, dwellY;
+
+    // Após concluir um alvo, o dedo precisa sair antes de valer o próximo
+    private boolean mustLeave;
+    private double leaveX, leaveY;
+
+    // Resultados por alvo
+    private double[] residuals;
+    private int[] inlierCounts;
+    private boolean[] accepted;
+
+    AutoCalibrationSession(String sessionId, DisplayInfo display, int targetCount, int samplesPerTarget,
+            long dwellMillis, double dwellRadius, long timeoutMillis) {
+        this.sessionId = sessionId;
+        this.display = display;
+        this.targets = layoutTargets(display, targetCount);
+        this.samplesX = new double[targets.length][samplesPerTarget];
+        this.samplesY = new double[targets.length][samplesPerTarget];
+        this.sampleCounts = new int[targets.length];
+        this.samplesPerTarget = samplesPerTarget;
+        this.dwellMillis = dwellMillis;
+        this.dwellRadius = dwellRadius;
+        this.timeoutMillis = timeoutMillis;
+        this.startedAt = System.currentTimeMillis();
+        this.targetStartedAt = startedAt;
+    }
+
+    /**
+     * Distribui os alvos numa grade com margem de 10% dentro do monitor
+     */
+    private static int[][] layoutTargets(DisplayInfo display, int targetCount) {
+        int columns = (int) Math.ceil(Math.sqrt(targetCount));
+        int rows = (int) Math.ceil((double) targetCount / columns);
+        List<int[]> layout = new ArrayList<>();
+
+        for (int row = 0; row < rows; row++) {
+            double ny = rows == 1 ? 0.5 : 0.1 + 0.8 * row / (rows - 1);
+            for (int column = 0; column < columns; column++) {
+                // Percorre em zigue-zague para o dedo andar pouco entre alvos
+                int c = row % 2 == 0 ? column : columns - 1 - column;
+                double nx = columns == 1 ? 0.5 : 0.1 + 0.8 * c / (columns - 1);
+                layout.add(new int[]{display.toScreenX(nx), display.toScreenY(ny)});
+            }
+        }
+        return layout.toArray(new int[0][]);
+    }
+
+    /**
+     * Processa a posição do dedo em um frame
+     *
+     * @return true quando todos os alvos foram coletados e o ajuste pode começar
+     */
+    synchronized boolean onSample(double x, double y, long timestamp) {
+        if (expire(timestamp) || (state != State.WAITING_DWELL && state != State.COLLECTING)) {
+            return false;
+        }
+
+        if (mustLeave) {
+            if (Math.hypot(x - leaveX, y - leaveY) < dwellRadius * 4) {
+                return false;
+            }
+            mustLeave = false;
+        }
+
+        if (state == State.COLLECTING) {
+            // Movimento grande interrompe a coleta; as amostras já coletadas são mantidas
+            if (Math.hypot(x - dwellX, y - dwellY) > dwellRadius * 2) {
+                state = State.WAITING_DWELL;
+                resetWindow();
+            } else {
+                return collect(x, y, timestamp);
+            }
+        }
+
+        pushWindow(x, y, timestamp);
+        if (isDwelling(timestamp)) {
+            state = State.COLLECTING;
+            return collect(x, y, timestamp);
+        }
+        return false;
+    }
+
+    /**
+     * Adiciona uma amostra ao alvo atual e avança quando ele estiver completo
+     */
+    private boolean collect(double x, double y, long timestamp) {
+        int target = currentTarget;
+        samplesX[target][sampleCounts[target]] = x;
+        samplesY[target][sampleCounts[target]] = y;
+        sampleCounts[target]++;
+
+        if (sampleCounts[target] < samplesPerTarget) {
+            return false;
+        }
+
+        mustLeave = true;
+        leaveX = dwellX;
+        leaveY = dwellY;
+        resetWindow();
+        currentTarget++;
+        targetStartedAt = timestamp;
+
+        if (currentTarget >= targets.length) {
+            state = State.FITTING;
+            return true;
+        }
+        state = State.WAITING_DWELL;
+        return false;
+    }
+
+    private void pushWindow(double x, double y, long timestamp) {
+        int index = (windowStart + windowSize) % WINDOW_CAPACITY;
+        if (windowSize == WINDOW_CAPACITY) {
+            windowStart = (windowStart + 1) % WINDOW_CAPACITY;
+        } else {
+            windowSize++;
+        }
+        windowX[index] = x;
+        windowY[index] = y;
+        windowTime[index] = timestamp;
+
+        // Descarta posições mais antigas que a janela de permanência
+        while (windowSize > 1 && timestamp - windowTime[windowStart] > dwellMillis) {
+            windowStart = (windowStart + 1) % WINDOW_CAPACITY;
+            windowSize--;
+        }
+    }
+
+    /**
+     * O dedo está parado se a janela cobre o tempo de permanência e todas as
+     * posições estão dentro do raio em torno da média
+     */
+    private boolean isDwelling(long timestamp) {
+        if (windowSize < 3 || timestamp - windowTime[windowStart] < dwellMillis * 0.8) {
+            return false;
+        }
+
+        double meanX = 0, meanY = 0;
+        for (int n = 0; n < windowSize; n++) {
+            int i = (windowStart + n) % WINDOW_CAPACITY;
+            meanX += windowX[i];
+            meanY += windowY[i];
+        }
+        meanX /= windowSize;
+        meanY /= windowSize;
+
+        for (int n = 0; n < windowSize; n++) {
+            int i = (windowStart + n) % WINDOW_CAPACITY;
+            if (Math.hypot(windowX[i] - meanX, windowY[i] - meanY) > dwellRadius) {
+                return false;
+            }
+        }
+
+        dwellX = meanX;
+        dwellY = meanY;
+        return true;
+    }
+
+    private void resetWindow() {
+        windowStart = 0;
+        windowSize = 0;
+    }
+
+    /**
+     * Falha a sessão se o alvo atual passou do tempo limite; chamado também
+     * fora de onSample, porque sem a mão na imagem nenhuma amostra chega
+     *
+     * @return true se a sessão expirou agora
+     */
+    synchronized boolean expire(long now) {
+        if ((state != State.WAITING_DWELL && state != State.COLLECTING)
+                || now - targetStartedAt <= timeoutMillis) {
+            return false;
+        }
+        fail("Tempo limite excedido no alvo " + (currentTarget + 1));
+        return true;
+    }
+
+    synchronized void complete(double[] residuals, int[] inlierCounts, boolean[] accepted, String message) {
+        this.residuals = residuals;
+        this.inlierCounts = inlierCounts;
+        this.accepted = accepted;
+        this.message = message;
+        this.state = State.COMPLETED;
+        this.finishedAt = System.currentTimeMillis();
+    }
+
+    synchronized void fail(String message) {
+        this.message = message;
+        this.state = State.FAILED;
+        this.finishedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Estado da sessão para a interface (alvo atual, progresso e resíduos)
+     */
+    synchronized Map<String, Object> toStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("sessionId", sessionId);
+        status.put("state", state.name());
+        status.put("targetCount", targets.length);
+        status.put("currentTarget", currentTarget);
+        status.put("samplesPerTarget", samplesPerTarget);
+        status.put("display", display.getId());
+        status.put("elapsedMillis", (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt);
+        if (currentTarget < targets.length) {
+            status.put("targetX", targets[currentTarget][0]);
+            status.put("targetY", targets[currentTarget][1]);
+            status.put("targetSamples", sampleCounts[currentTarget]);
+        }
+        if (message != null) {
+            status.put("message", message);
+        }
+
+        if (residuals != null) {
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (int t = 0; t < targets.length; t++) {
+                Map<String, Object> result = new HashMap<>();
+                result.put("screenX", targets[t][0]);
+                result.put("screenY", targets[t][1]);
+                result.put("samples", sampleCounts[t]);
+                result.put("inliers", inlierCounts[t]);
+                result.put("residualPixels", residuals[t]);
+                result.put("accepted", accepted[t]);
+                results.add(result);
+            }
+            status.put("targets", results);
+        }
+        return status;
+    }
+
+    synchronized State getState() { return state; }
+
+    String getSessionId() { return sessionId; }
+
+    DisplayInfo getDisplay() { return display; }
+
+    int[][] getTargets() { return targets; }
+
+    double[][] getSamplesX() { return samplesX; }
+
+    double[][] getSamplesY() { return samplesY; }
+
+    int[] getSampleCounts() { return sampleCounts; }
+}
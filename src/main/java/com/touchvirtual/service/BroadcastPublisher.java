@@ -0,0 +1,95 @@
+package com.touchvirtual.service;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publicação serializada uma única vez para os tópicos STOMP
+ *
+ * O payload é codificado em JSON uma vez por transmissão, com um ObjectWriter
+ * pré-construído por tipo e um buffer reaproveitado pela thread, e segue para o
+ * broker já como bytes: todos os inscritos recebem o mesmo array, sem passar de
+ * novo pelos conversores de mensagem.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Service
+public class BroadcastPublisher {
+
+    // Capacidade inicial do buffer de codificação (um frame de landmarks cabe folgado)
+    private static final int INITIAL_BUFFER_BYTES = 8192;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final ThreadLocal<ByteArrayBuilder> buffers =
+            ThreadLocal.withInitial(() -> new ByteArrayBuilder(INITIAL_BUFFER_BYTES));
+
+    // Métricas de codificação
+    private final AtomicLong encodedPayloads = new AtomicLong();
+    private final AtomicLong encodedBytes = new AtomicLong();
+    private final AtomicLong encodeNanos = new AtomicLong();
+    private final AtomicLong maxPayloadBytes = new AtomicLong();
+
+    /**
+     * Codifica o payload uma vez e o envia para todos os inscritos do destino
+     */
+    public void publish(String destination, Object payload) throws IOException {
+        long start = System.nanoTime();
+        byte[] body = encode(payload);
+        encodeNanos.addAndGet(System.nanoTime() - start);
+        encodedPayloads.incrementAndGet();
+        encodedBytes.addAndGet(body.length);
+        maxPayloadBytes.accumulateAndGet(body.length, Math::max);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+    }
+
+    /**
+     * Serializa no buffer da thread; o array final é exato porque o broker o
+     * entrega de forma assíncrona e não pode ser reaproveitado
+     */
+    private byte[] encode(Object payload) throws IOException {
+        ObjectWriter writer = writers.computeIfAbsent(payload.getClass(), objectMapper::writerFor);
+        ByteArrayBuilder buffer = buffers.get();
+        buffer.reset();
+        writer.writeValue(buffer, payload);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Métricas de codificação (payloads, bytes e tempo médio por transmissão)
+     */
+    public Map<String, Object> getMetrics() {
+        long payloads = encodedPayloads.get();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("encodedPayloads", payloads);
+        metrics.put("encodedBytes", encodedBytes.get());
+        metrics.put("maxPayloadBytes", maxPayloadBytes.get());
+        metrics.put("avgEncodeMicros", payloads > 0 ? encodeNanos.get() / 1000.0 / payloads : 0.0);
+        metrics.put("avgPayloadBytes", payloads > 0 ? (double) encodedBytes.get() / payloads : 0.0);
+        return metrics;
+    }
+}
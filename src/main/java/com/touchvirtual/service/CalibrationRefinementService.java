@@ -0,0 +1,364 @@
+package com.touchvirtual.service;
+
+import com.touchvirtual.config.MappingConfig;
+import com.touchvirtual.model.CalibrationData;
+import com.touchvirtual.model.DisplayInfo;
+import com.touchvirtual.model.UserSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Refinamento contínuo da calibração a partir de alvos confirmados
+ *
+ * A interface informa o alvo pretendido de um clique ({@link #recordTarget}),
+ * o que dá uma correspondência entre a posição da mão no clique e a posição
+ * que o usuário queria atingir. Uma correção afim sobre a transformação
+ * calibrada é estimada por mínimos quadrados recursivos com fator de
+ * esquecimento (custo constante por atualização) e só é publicada se não
+ * piorar o resíduo das correspondências recentes.
+ *
+ * O clique sozinho não traz informação: no modo absoluto o cursor é a própria
+ * saída do mapeamento (um ponto fixo da correção), e no modo relativo ele é uma
+ * posição integrada e acelerada, sem relação com o mapeamento absoluto. Por
+ * isso o clique só guarda a posição da mão para o alvo, e só no modo absoluto.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Service
+public class CalibrationRefinementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibrationRefinementService.class);
+
+    // Correspondências recentes usadas pela verificação de resíduo
+    private static final int RESIDUAL_WINDOW = 32;
+    // Histórico de deriva exposto nas métricas
+    private static final int DRIFT_HISTORY = 120;
+    // Covariância inicial e limite contra windup com pouca excitação
+    private static final double INITIAL_COVARIANCE = 10.0;
+    private static final double MAX_COVARIANCE_TRACE = 1000.0;
+
+    @Autowired
+    @Lazy
+    private MappingConfig mappingConfig;
+
+    @Autowired
+    @Lazy
+    private CoordinateMappingService coordinateMappingService;
+
+    private volatile boolean enabled;
+
+    // Estado do RLS; regressor [u, v, 1] compartilhado pelos dois eixos
+    private CalibrationData trackedCalibration;
+    private final double[] thetaX = new double[3];
+    private final double[] thetaY = new double[3];
+    private final double[][] covariance = new double[3][3];
+    private final ArrayDeque<double[]> window = new ArrayDeque<>();
+    private final ArrayDeque<Map<String, Object>> driftHistory = new ArrayDeque<>();
+
+    // Último clique, para associar um alvo informado pela interface
+    private double lastClickCameraX = Double.NaN;
+    private double lastClickCameraY = Double.NaN;
+
+    // Métricas
+    private long correspondences;
+    private long acceptedUpdates;
+    private long updatesSinceReset;
+    private long rejectedOutliers;
+    private long rejectedWorse;
+    private long rejectedBounds;
+    private double lastRmsBaseline;
+    private double lastRmsRefined;
+
+    /**
+     * Inicializa com a configuração do perfil
+     */
+    @PostConstruct
+    public void initialize() {
+        this.enabled = mappingConfig.isRefinementEnabled();
+        resetState(null);
+    }
+
+    /**
+     * Registra um clique ou fim de arrasto: guarda a posição da mão para o alvo
+     * que a interface vier a informar (no modo relativo não há correspondência)
+     */
+    public void onPointerConfirmed() {
+        if (!enabled) {
+            return;
+        }
+        MappingSnapshot snapshot = coordinateMappingService.getSnapshot();
+        boolean relative = snapshot != null && snapshot.getPointerMode() == UserSettings.PointerMode.RELATIVE;
+        double cameraX = relative ? Double.NaN : coordinateMappingService.getLastX();
+        double cameraY = relative ? Double.NaN : coordinateMappingService.getLastY();
+        synchronized (this) {
+            lastClickCameraX = cameraX;
+            lastClickCameraY = cameraY;
+        }
+    }
+
+    /**
+     * Registra o alvo pretendido do último clique (por exemplo, o centro do
+     * elemento clicado informado pela interface)
+     */
+    public boolean recordTarget(int targetX, int targetY) {
+        double cameraX, cameraY;
+        synchronized (this) {
+            cameraX = lastClickCameraX;
+            cameraY = lastClickCameraY;
+        }
+        if (!enabled || Double.isNaN(cameraX)) {
+            return false;
+        }
+        return record(cameraX, cameraY, targetX, targetY);
+    }
+
+    /**
+     * Processa uma correspondência câmera -> tela
+     *
+     * @return true se a correção foi atualizada
+     */
+    private synchronized boolean record(double cameraX, double cameraY, int screenX, int screenY) {
+        MappingSnapshot snapshot = coordinateMappingService.getSnapshot();
+        CalibrationData calibration = coordinateMappingService.getCalibrationData();
+        if (snapshot == null || !snapshot.isCalibrated()
+                || snapshot.getPointerMode() == UserSettings.PointerMode.RELATIVE) {
+            return false;
+        }
+        if (calibration != trackedCalibration) {
+            resetState(calibration);
+        }
+
+        DisplayInfo display = snapshot.getDisplay();
+        if (snapshot.isLeftHanded()) {
+            screenX = display.mirrorX(screenX);
+        }
+
+        // Resíduo em coordenadas normalizadas do monitor em relação à calibração base
+        int[] base = snapshot.mapBase(cameraX, cameraY);
+        double u = (double) (base[0] - display.getX()) / display.getWidth();
+        double v = (double) (base[1] - display.getY()) / display.getHeight();
+        double rx = (double) (screenX - base[0]) / display.getWidth();
+        double ry = (double) (screenY - base[1]) / display.getHeight();
+        correspondences++;
+
+        // Cliques longe da previsão não miravam esta posição
+        double errorX = rx - predict(thetaX, u, v);
+        double errorY = ry - predict(thetaY, u, v);
+        if (Math.hypot(errorX, errorY) > mappingConfig.getRefinementOutlierThreshold()) {
+            rejectedOutliers++;
+            return false;
+        }
+
+        double[] sample = {u, v, rx, ry};
+        double[] candidateX = thetaX.clone();
+        double[] candidateY = thetaY.clone();
+        double[][] candidateP = update(sample, candidateX, candidateY);
+
+        // Salvaguardas: não pode piorar o resíduo recente (com a amostra nova)
+        // nem sair dos limites; amostra recusada não entra na janela
+        double rmsCurrent = rms(thetaX, thetaY, sample);
+        double rmsCandidate = rms(candidateX, candidateY, sample);
+        if (rmsCandidate > rmsCurrent + 1e-9) {
+            rejectedWorse++;
+            return false;
+        }
+        if (!withinBounds(candidateX, candidateY)) {
+            rejectedBounds++;
+            return false;
+        }
+
+        window.addLast(sample);
+        if (window.size() > RESIDUAL_WINDOW) {
+            window.removeFirst();
+        }
+
+        System.arraycopy(candidateX, 0, thetaX, 0, 3);
+        System.arraycopy(candidateY, 0, thetaY, 0, 3);
+        for (int i = 0; i < 3; i++) {
+            System.arraycopy(candidateP[i], 0, covariance[i], 0, 3);
+        }
+        acceptedUpdates++;
+        updatesSinceReset++;
+        lastRmsBaseline = rms(new double[3], new double[3], null);
+        lastRmsRefined = rmsCandidate;
+
+        if (updatesSinceReset >= mappingConfig.getRefinementMinCorrespondences()) {
+            double[] refinement = {thetaX[0], thetaX[1], thetaX[2], thetaY[0], thetaY[1], thetaY[2]};
+            if (coordinateMappingService.applyRefinement(calibration, refinement)) {
+                recordDrift(display);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passo do RLS com fator de esquecimento sobre cópias do estado
+     *
+     * @return a nova covariância
+     */
+    private double[][] update(double[] sample, double[] candidateX, double[] candidateY) {
+        double lambda = mappingConfig.getRefinementForgettingFactor();
+        double[] phi = {sample[0], sample[1], 1.0};
+
+        double[] pPhi = new double[3];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                pPhi[i] += covariance[i][j] * phi[j];
+            }
+        }
+        double denominator = lambda + phi[0] * pPhi[0] + phi[1] * pPhi[1] + phi[2] * pPhi[2];
+        double[] gain = {pPhi[0] / denominator, pPhi[1] / denominator, pPhi[2] / denominator};
+
+        double errorX = sample[2] - predict(candidateX, phi[0], phi[1]);
+        double errorY = sample[3] - predict(candidateY, phi[0], phi[1]);
+        for (int i = 0; i < 3; i++) {
+            candidateX[i] += gain[i] * errorX;
+            candidateY[i] += gain[i] * errorY;
+        }
+
+        // P = (P - k·φᵀ·P) / λ, limitada para não explodir sem excitação
+        double[][] next = new double[3][3];
+        double trace = 0.0;
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                next[i][j] = (covariance[i][j] - gain[i] * pPhi[j]) / lambda;
+            }
+            trace += next[i][i];
+        }
+        if (trace > MAX_COVARIANCE_TRACE) {
+            double scale = MAX_COVARIANCE_TRACE / trace;
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    next[i][j] *= scale;
+                }
+            }
+        }
+        return next;
+    }
+
+    private static double predict(double[] theta, double u, double v) {
+        return theta[0] * u + theta[1] * v + theta[2];
+    }
+
+    /**
+     * Resíduo RMS das correspondências recentes (e de uma amostra extra, se
+     * houver) para uma correção
+     */
+    private double rms(double[] candidateX, double[] candidateY, double[] extra) {
+        int count = window.size() + (extra != null ? 1 : 0);
+        if (count == 0) {
+            return 0.0;
+        }
+        double sum = extra != null ? squaredError(candidateX, candidateY, extra) : 0.0;
+        for (double[] sample : window) {
+            sum += squaredError(candidateX, candidateY, sample);
+        }
+        return Math.sqrt(sum / count);
+    }
+
+    private static double squaredError(double[] candidateX, double[] candidateY, double[] sample) {
+        double ex = sample[2] - predict(candidateX, sample[0], sample[1]);
+        double ey = sample[3] - predict(candidateY, sample[0], sample[1]);
+        return ex * ex + ey * ey;
+    }
+
+    /**
+     * A correção nos cantos do monitor não pode passar do limite configurado
+     */
+    private boolean withinBounds(double[] candidateX, double[] candidateY) {
+        double limit = mappingConfig.getRefinementMaxCorrection();
+        for (int corner = 0; corner < 4; corner++) {
+            double u = corner & 1;
+            double v = corner >> 1;
+            if (Math.abs(predict(candidateX, u, v)) > limit || Math.abs(predict(candidateY, u, v)) > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void recordDrift(DisplayInfo display) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("timestamp", System.currentTimeMillis());
+        entry.put("offsetX", predict(thetaX, 0.5, 0.5) * display.getWidth());
+        entry.put("offsetY", predict(thetaY, 0.5, 0.5) * display.getHeight());
+        entry.put("rmsBaseline", lastRmsBaseline);
+        entry.put("rmsRefined", lastRmsRefined);
+        driftHistory.addLast(entry);
+        if (driftHistory.size() > DRIFT_HISTORY) {
+            driftHistory.removeFirst();
+        }
+
+        logger.debug("📐 Correção online atualizada: deslocamento ({}, {}) px",
+                entry.get("offsetX"), entry.get("offsetY"));
+    }
+
+    /**
+     * Reinicia o estimador (novo perfil de calibração ou reset manual)
+     */
+    private void resetState(CalibrationData calibration) {
+        trackedCalibration = calibration;
+        double[] initial = calibration != null ? calibration.getRefinement() : null;
+        for (int i = 0; i < 3; i++) {
+            thetaX[i] = initial != null ? initial[i] : 0.0;
+            thetaY[i] = initial != null ? initial[i + 3] : 0.0;
+            for (int j = 0; j < 3; j++) {
+                covariance[i][j] = i == j ? INITIAL_COVARIANCE : 0.0;
+            }
+        }
+        window.clear();
+        updatesSinceReset = 0;
+    }
+
+    /**
+     * Descarta a correção aprendida do perfil atual
+     */
+    public synchronized void reset() {
+        CalibrationData calibration = coordinateMappingService.getCalibrationData();
+        coordinateMappingService.applyRefinement(calibration, null);
+        resetState(calibration);
+        driftHistory.clear();
+        logger.info("🔧 Correção online da calibração descartada");
+    }
+
+    /**
+     * Liga ou desliga o refinamento
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        logger.info("🔧 Refinamento online da calibração {}", enabled ? "ativado" : "desativado");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Obtém as métricas de deriva e das salvaguardas
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("correspondences", correspondences);
+        metrics.put("acceptedUpdates", acceptedUpdates);
+        metrics.put("rejectedOutliers", rejectedOutliers);
+        metrics.put("rejectedWorse", rejectedWorse);
+        metrics.put("rejectedBounds", rejectedBounds);
+        metrics.put("correctionX", thetaX.clone());
+        metrics.put("correctionY", thetaY.clone());
+        metrics.put("rmsBaseline", lastRmsBaseline);
+        metrics.put("rmsRefined", lastRmsRefined);
+        metrics.put("drift", new ArrayList<>(driftHistory));
+        return metrics;
+    }
+}
@@ -1,8 +1,11 @@
 package com.touchvirtual.service;
 
+import com.touchvirtual.config.MappingConfig;
 import com.touchvirtual.model.CalibrationData;
+import com.touchvirtual.model.DisplayInfo;
 import com.touchvirtual.model.HandLandmark;
 import com.touchvirtual.dto.CalibrationRequest;
+import com.touchvirtual.util.Homography;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -11,6 +14,9 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 
@@ -33,19 +39,22 @@ public class CalibrationService {
     @Lazy
     private CoordinateMappingService coordinateMappingService;
 
+    @Autowired
+    @Lazy
+    private MappingConfig mappingConfig;
+
+    @Autowired
+    @Lazy
+    private ProfileStoreService profileStoreService;
+
     // Armazena dados de calibração por sessão
     private Map<String, CalibrationData> calibrationSessions;
-    private CalibrationData currentCalibration;
-    private boolean isCalibrating;
-    private String currentSessionId;
-
-    // Pontos de calibração padrão (cantos da tela)
-    private static final double[][] DEFAULT_CALIBRATION_POINTS = {
-        {0.1, 0.1}, // Canto superior esquerdo
-        {0.9, 0.1}, // Canto superior direito
-        {0.9, 0.9}, // Canto inferior direito
-        {0.1, 0.9} // Canto inferior esquerdo
-    };
+    // Sessão em andamento; trocas e publicações acontecem sob o lock do serviço
+    private volatile CalibrationData currentCalibration;
+    private volatile boolean isCalibrating;
+    private volatile String currentSessionId;
+    // Sessão de calibração automática (alimentada pela thread do pipeline)
+    private volatile AutoCalibrationSession autoSession;
 
     public CalibrationService() {
         this.calibrationSessions = new ConcurrentHashMap<>();
@@ -57,14 +66,19 @@ public class CalibrationService {
     /**
      * Inicia o processo de calibração
      */
-    public boolean startCalibration(String sessionId) {
+    public synchronized boolean startCalibration(String sessionId) {
         try {
             currentSessionId = sessionId;
+            // Começa sem pontos: só amostras reais do usuário entram no ajuste
             currentCalibration = new CalibrationData();
+            autoSession = null;
             isCalibrating = true;
 
-            // Inicializa com pontos padrão
-            initializeDefaultCalibration();
+            // Mantém o monitor alvo do perfil em uso
+            if (coordinateMappingService != null) {
+                currentCalibration.setTargetDisplay(
+                        coordinateMappingService.getCalibrationData().getTargetDisplay());
+            }
 
             logger.info("🎯 Iniciando calibração para sessão: {}", sessionId);
             return true;
@@ -78,7 +92,8 @@ public class CalibrationService {
     /**
      * Para o processo de calibração
      */
-    public void stopCalibration() {
+    public synchronized void stopCalibration() {
+        autoSession = null;
         isCalibrating = false;
         currentSessionId = null;
         logger.info("⏹️ Calibração parada");
@@ -87,7 +102,7 @@ public class CalibrationService {
     /**
      * Adiciona um ponto de calibração
      */
-    public boolean addCalibrationPoint(String sessionId, double cameraX, double cameraY,
+    public synchronized boolean addCalibrationPoint(String sessionId, double cameraX, double cameraY,
             int screenX, int screenY) {
         if (!isCalibrating || !sessionId.equals(currentSessionId)) {
             return false;
@@ -99,8 +114,14 @@ public class CalibrationService {
             logger.info("✅ Ponto de calibração adicionado: ({}, {}) -> ({}, {})",
                     cameraX, cameraY, screenX, screenY);
 
-            // Verifica se tem pontos suficientes para considerar calibrado
-            if (currentCalibration.isCalibrated()) {
+            // Reajusta o spline em background a cada novo ponto
+            if (coordinateMappingService != null && currentCalibration.isCalibrated()) {
+                coordinateMappingService.rebuildCalibrationModel(currentCalibration);
+            }
+
+            // Finaliza ao atingir a quantidade de pontos configurada
+            if (currentCalibration.isCalibrated()
+                    && currentCalibration.getCalibrationPoints().size() >= getRequiredPointCount()) {
                 finishCalibration(sessionId);
             }
 
@@ -112,6 +133,14 @@ public class CalibrationService {
         }
     }
 
+    /**
+     * Quantidade de pontos para concluir a calibração (mapping.calibration-points)
+     */
+    private int getRequiredPointCount() {
+        int configured = mappingConfig != null ? mappingConfig.getCalibrationPoints() : 9;
+        return Math.max(configured, CalibrationData.MIN_CALIBRATION_POINTS);
+    }
+
     /**
      * Finaliza a calibração e salva os dados
      */
@@ -123,6 +152,12 @@ public class CalibrationService {
             // Atualiza o serviço de mapeamento
             if (coordinateMappingService != null) {
                 coordinateMappingService.setCalibrationData(currentCalibration);
+
+                // Persiste o perfil quando o spline e a grade estiverem prontos
+                if (profileStoreService != null) {
+                    coordinateMappingService.whenModelReady()
+                            .thenRun(profileStoreService::saveProfile);
+                }
             }
 
             isCalibrating = false;
@@ -136,48 +171,202 @@ public class CalibrationService {
     }
 
     /**
-     * Inicializa com pontos de calibração padrão
+     * Inicia a calibração automática: a interface exibe os alvos e o pipeline
+     * coleta amostras quando o dedo permanece parado sobre cada um
      */
-    private void initializeDefaultCalibration() {
-        currentCalibration.clearCalibration();
+    public synchronized boolean autoCalibrate(String sessionId) {
+        try {
+            if (handDetectionService == null || !handDetectionService.isCameraInitialized()) {
+                logger.warn("⚠️ Câmera não disponível para calibração automática");
+                return false;
+            }
 
-        // Adiciona pontos padrão
-        for (double[] point : DEFAULT_CALIBRATION_POINTS) {
-            currentCalibration.addCalibrationPoint(point[0], point[1],
-                    (int) (point[0] * 1920), (int) (point[1] * 1080));
+            startCalibration(sessionId);
+            currentCalibration.clearCalibration();
+
+            DisplayInfo display = coordinateMappingService.getTargetDisplay();
+            autoSession = new AutoCalibrationSession(sessionId, display,
+                    Math.max(getRequiredPointCount(), Homography.MIN_POINTS),
+                    mappingConfig.getAutoCalibrationSamplesPerTarget(),
+                    mappingConfig.getAutoCalibrationDwellMillis(),
+                    mappingConfig.getAutoCalibrationDwellRadius(),
+                    mappingConfig.getAutoCalibrationTimeoutMillis());
+
+            logger.info("🎯 Calibração automática iniciada: {} alvos em {}",
+                    autoSession.getTargets().length, display);
+            return true;
+
+        } catch (Exception e) {
+            logger.error("❌ Erro na calibração automática: {}", e.getMessage());
+            return false;
         }
     }
 
     /**
-     * Calibração automática usando detecção de mãos
+     * Alimenta a calibração automática com os landmarks de um frame
+     *
+     * Chamado pela thread do pipeline a cada frame; sem sessão ativa custa uma
+     * leitura de campo.
      */
-    public boolean autoCalibrate(String sessionId) {
+    public void onLandmarks(List<HandLandmark> landmarks, double confidence) {
+        AutoCalibrationSession session = autoSession;
+        if (session == null || landmarks == null || landmarks.isEmpty() || confidence < 0.5) {
+            return;
+        }
+
+        // Usa a ponta do dedo indicador
+        HandLandmark indexTip = landmarks.size() > 8 && landmarks.get(8).getId() == 8
+                ? landmarks.get(8) : landmarks.get(0);
+
+        if (session.onSample(indexTip.getX(), indexTip.getY(), System.currentTimeMillis())) {
+            CompletableFuture.runAsync(() -> fitAutoCalibration(session));
+        } else {
+            endFailedAutoSession(session);
+        }
+    }
+
+    /**
+     * Encerra a calibração quando a sessão automática atual falhou (inclusive
+     * por tempo limite, verificado aqui mesmo sem amostras chegando)
+     */
+    private void endFailedAutoSession(AutoCalibrationSession session) {
+        if (session == null) {
+            return;
+        }
+        session.expire(System.currentTimeMillis());
+        if (session.getState() != AutoCalibrationSession.State.FAILED) {
+            return;
+        }
+        synchronized (this) {
+            if (autoSession == session && isCalibrating) {
+                isCalibrating = false;
+                currentSessionId = null;
+                logger.warn("⚠️ Calibração automática encerrada: {}", session.toStatus().get("message"));
+            }
+        }
+    }
+
+    /**
+     * Ajusta a homografia por RANSAC sobre todas as amostras, descarta as
+     * outliers e usa a média dos inliers de cada alvo como ponto de calibração
+     */
+    private void fitAutoCalibration(AutoCalibrationSession session) {
         try {
-            if (handDetectionService == null || !handDetectionService.isCameraInitialized()) {
-                logger.warn("⚠️ Câmera não disponível para calibração automática");
-                return false;
+            long start = System.nanoTime();
+            DisplayInfo display = session.getDisplay();
+            int[][] targets = session.getTargets();
+            int[] counts = session.getSampleCounts();
+
+            int total = 0;
+            for (int count : counts) {
+                total += count;
             }
 
-            startCalibration(sessionId);
+            // Destino normalizado no monitor para manter o sistema bem condicionado
+            double scale = Math.max(display.getWidth(), display.getHeight());
+            double[] srcX = new double[total];
+            double[] srcY = new double[total];
+            double[] dstX = new double[total];
+            double[] dstY = new double[total];
+            int[] groups = new int[total];
+            for (int t = 0, n = 0; t < targets.length; t++) {
+                for (int k = 0; k < counts[t]; k++, n++) {
+                    srcX[n] = session.getSamplesX()[t][k];
+                    srcY[n] = session.getSamplesY()[t][k];
+                    dstX[n] = (targets[t][0] - display.getX()) / scale;
+                    dstY[n] = (targets[t][1] - display.getY()) / scale;
+                    groups[n] = t;
+                }
+            }
 
-            // Simula pontos de calibração automática
-            // Em uma implementação real, detectaria as mãos nos cantos da tela
-            currentCalibration.addCalibrationPoint(0.1, 0.1, 192, 108);
-            currentCalibration.addCalibrationPoint(0.9, 0.1, 1728, 108);
-            currentCalibration.addCalibrationPoint(0.9, 0.9, 1728, 972);
-            currentCalibration.addCalibrationPoint(0.1, 0.9, 192, 972);
+            Homography.RansacResult fit = Homography.fitRansac(srcX, srcY, dstX, dstY, groups,
+                    mappingConfig.getAutoCalibrationRansacIterations(),
+                    mappingConfig.getAutoCalibrationInlierThreshold() / scale, new Random());
+            if (fit == null) {
+                session.fail("Não foi possível ajustar a transformação");
+                logger.warn("⚠️ Calibração automática falhou: amostras degeneradas");
+                endFailedAutoSession(session);
+                return;
+            }
 
-            if (currentCalibration.isCalibrated()) {
-                finishCalibration(sessionId);
-                return true;
+            // Resíduo RMS (pixels) e média dos inliers de cada alvo
+            double[] residuals = new double[targets.length];
+            int[] inliers = new int[targets.length];
+            boolean[] accepted = new boolean[targets.length];
+            double[] meanX = new double[targets.length];
+            double[] meanY = new double[targets.length];
+            double[] mapped = new double[2];
+            for (int n = 0; n < total; n++) {
+                if (!fit.getInliers()[n]) {
+                    continue;
+                }
+                int t = groups[n];
+                fit.getModel().map(srcX[n], srcY[n], mapped);
+                double dx = (mapped[0] - dstX[n]) * scale;
+                double dy = (mapped[1] - dstY[n]) * scale;
+                residuals[t] += dx * dx + dy * dy;
+                meanX[t] += srcX[n];
+                meanY[t] += srcY[n];
+                inliers[t]++;
             }
 
-            return false;
+            CalibrationData calibration = new CalibrationData();
+            calibration.setTargetDisplay(currentCalibration.getTargetDisplay());
+            int acceptedCount = 0;
+            for (int t = 0; t < targets.length; t++) {
+                residuals[t] = inliers[t] > 0 ? Math.sqrt(residuals[t] / inliers[t]) : Double.NaN;
+                accepted[t] = inliers[t] * 2 >= counts[t] && inliers[t] > 0;
+                if (accepted[t]) {
+                    calibration.addCalibrationPoint(meanX[t] / inliers[t], meanY[t] / inliers[t],
+                            targets[t][0], targets[t][1]);
+                    acceptedCount++;
+                }
+            }
+
+            long elapsed = (System.nanoTime() - start) / 1000;
+            if (acceptedCount < CalibrationData.MIN_CALIBRATION_POINTS) {
+                session.fail("Alvos válidos insuficientes: " + acceptedCount);
+                logger.warn("⚠️ Calibração automática falhou: {} alvos válidos", acceptedCount);
+                endFailedAutoSession(session);
+                return;
+            }
+
+            // Só publica se a sessão ainda é a atual: um stop ou novo start
+            // durante o ajuste descarta o resultado
+            synchronized (this) {
+                if (autoSession != session || !isCalibrating) {
+                    session.fail("Calibração cancelada durante o ajuste");
+                    logger.info("⏹️ Ajuste da calibração automática descartado: sessão encerrada");
+                    return;
+                }
+                currentCalibration = calibration;
+                finishCalibration(session.getSessionId());
+            }
+
+            session.complete(residuals, inliers, accepted, "%d/%d alvos aceitos, %d/%d amostras inliers"
+                    .formatted(acceptedCount, targets.length, fit.getInlierCount(), total));
+            logger.info("✅ Calibração automática concluída: {} alvos, {}/{} inliers, ajuste em {} µs",
+                    acceptedCount, fit.getInlierCount(), total, elapsed);
 
         } catch (Exception e) {
-            logger.error("❌ Erro na calibração automática: {}", e.getMessage());
-            return false;
+            session.fail(e.getMessage());
+            logger.error("❌ Erro no ajuste da calibração automática: {}", e.getMessage());
+            endFailedAutoSession(session);
+        }
+    }
+
+    /**
+     * Obtém o estado da calibração automática (alvo atual, progresso e resíduos)
+     */
+    public Map<String, Object> getAutoCalibrationStatus() {
+        AutoCalibrationSession session = autoSession;
+        endFailedAutoSession(session);
+        if (session == null) {
+            Map<String, Object> status = new HashMap<>();
+            status.put("state", "IDLE");
+            return status;
         }
+        return session.toStatus();
     }
 
     /**
@@ -241,9 +430,10 @@ public class CalibrationService {
     }
 
     /**
-     * Verifica se está calibrando
+     * Verifica se está calibrando (antes encerra a sessão automática que expirou)
      */
     public boolean isCalibrating() {
+        endFailedAutoSession(autoSession);
         return isCalibrating;
     }
 
@@ -1,20 +1,38 @@
 package com.touchvirtual.service;
 
+import com.touchvirtual.config.MappingConfig;
 import com.touchvirtual.model.CalibrationData;
+import com.touchvirtual.model.DisplayInfo;
+import com.touchvirtual.model.DistortionGrid;
 import com.touchvirtual.model.HandLandmark;
 import com.touchvirtual.model.UserSettings;
+import com.touchvirtual.util.AccelerationCurve;
+import com.touchvirtual.util.Homography;
+import com.touchvirtual.util.MathUtils;
+import com.touchvirtual.util.ThinPlateSpline;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Serviço de mapeamento de coordenadas da câmera para a tela
  *
+ * A transformação é publicada como um {@link MappingSnapshot} imutável, trocado
+ * atomicamente a cada mudança; as escritas são sincronizadas e as leituras não
+ * usam lock. O estado de filtragem do ponteiro fica no {@link PointerFilter}.
+ *
  * @author TouchVirtual Team
  * @version 1.0.0
  */
@@ -23,38 +41,67 @@ public class CoordinateMappingService {
 
     private static final Logger logger = LoggerFactory.getLogger(CoordinateMappingService.class);
 
+    // Alternâncias homografia / (k1, k2) na estimativa da distorção radial
+    private static final int RADIAL_FIT_ITERATIONS = 5;
+
     @Autowired
     @Lazy
     private UserSettings userSettings;
 
+    @Autowired
+    @Lazy
+    private MappingConfig mappingConfig;
+
+    @Autowired
+    @Lazy
+    private DisplayLayoutService displayLayoutService;
+
+    // Reconstrução da grade de distorção e do spline fora do caminho crítico
+    private final ExecutorService calibrationExecutor;
+
+    // Perfil atual; alterado apenas pelos métodos sincronizados
     private CalibrationData calibrationData;
-    private Dimension screenSize;
-    private double lastX, lastY;
-    private boolean isInitialized;
+    // Monitor alvo do perfil atual, resolvido uma vez por mudança de layout/perfil
+    private volatile DisplayInfo targetDisplay;
+    private volatile boolean isInitialized;
+
+    // Transformação publicada; leitores usam sem lock
+    private final AtomicReference<MappingSnapshot> snapshot = new AtomicReference<>();
+    private long snapshotVersion;
+    private AccelerationCurve accelerationCurve;
+
+    // Filtro do ponteiro do pipeline de eventos do mouse
+    private final PointerFilter pointerFilter = new PointerFilter();
 
     public CoordinateMappingService() {
         this.calibrationData = new CalibrationData();
-        this.lastX = 0.0;
-        this.lastY = 0.0;
         this.isInitialized = false;
+        this.calibrationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "calibration-fit");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        calibrationExecutor.shutdownNow();
     }
 
     /**
      * Inicializa o serviço com as dimensões da tela
      */
-    public void initialize() {
+    @PostConstruct
+    public synchronized void initialize() {
         if (isInitialized) {
             return;
         }
 
         try {
-            // Obtém as dimensões da tela
-            Toolkit toolkit = Toolkit.getDefaultToolkit();
-            screenSize = toolkit.getScreenSize();
+            // Obtém o monitor alvo do perfil
+            resolveTargetDisplay();
 
             // Configura a calibração inicial
-            calibrationData.setScreenWidth((int) screenSize.getWidth());
-            calibrationData.setScreenHeight((int) screenSize.getHeight());
             calibrationData.setCameraWidth(640); // Valor padrão
             calibrationData.setCameraHeight(480); // Valor padrão
 
@@ -67,10 +114,12 @@ public class CoordinateMappingService {
                 calibrationData.setDeadband(0.05);
             }
 
+            refreshSnapshot();
             this.isInitialized = true;
 
-            logger.info("🖥️ Mapeamento de coordenadas inicializado: {}x{}",
-                    screenSize.getWidth(), screenSize.getHeight());
+            rebuildCalibrationModel();
+
+            logger.info("🖥️ Mapeamento de coordenadas inicializado: {}", targetDisplay);
 
         } catch (Exception e) {
             logger.error("❌ Erro ao inicializar mapeamento de coordenadas: {}", e.getMessage());
@@ -79,49 +128,353 @@ public class CoordinateMappingService {
     }
 
     /**
-     * Mapeia coordenadas da câmera para coordenadas da tela
+     * Resolve o monitor alvo do perfil de calibração atual
      */
-    public int[] mapToScreenCoordinates(double cameraX, double cameraY) {
-        if (!isInitialized) {
+    private void resolveTargetDisplay() {
+        DisplayInfo display = null;
+        if (displayLayoutService != null) {
+            display = displayLayoutService.resolve(calibrationData.getTargetDisplay());
+        }
+        if (display == null) {
+            int width = mappingConfig != null ? mappingConfig.getScreenWidth() : 1920;
+            int height = mappingConfig != null ? mappingConfig.getScreenHeight() : 1080;
+            display = new DisplayInfo(DisplayInfo.PRIMARY_ID, 0, 0, width, height, 1.0, 1.0, true);
+        }
+
+        calibrationData.setScreenWidth(display.getWidth());
+        calibrationData.setScreenHeight(display.getHeight());
+        this.targetDisplay = display;
+    }
+
+    /**
+     * Recria e publica o snapshot a partir do perfil, do monitor e dos ajustes atuais
+     *
+     * Deve ser chamado sempre que calibração, monitor alvo ou ajustes do usuário mudarem.
+     */
+    public synchronized void refreshSnapshot() {
+        DisplayInfo display = targetDisplay;
+        if (display == null) {
+            resolveTargetDisplay();
+            display = targetDisplay;
+        }
+
+        double sensitivity = 1.0;
+        boolean leftHanded = false;
+        UserSettings.PointerMode pointerMode = UserSettings.PointerMode.ABSOLUTE;
+        if (userSettings != null) {
+            sensitivity = userSettings.getSensitivity();
+            leftHanded = userSettings.isLeftHanded();
+            pointerMode = userSettings.getPointerMode();
+        }
+
+        snapshot.set(new MappingSnapshot(++snapshotVersion, display, calibrationData,
+                sensitivity, leftHanded, pointerMode, buildAccelerationCurve()));
+    }
+
+    /**
+     * Obtém o snapshot atual, inicializando o serviço no primeiro uso
+     */
+    public MappingSnapshot getSnapshot() {
+        MappingSnapshot current = snapshot.get();
+        if (current == null) {
             initialize();
+            current = snapshot.get();
         }
+        return current;
+    }
 
+    /**
+     * Chamado quando o layout dos monitores muda; atualiza o alvo sem reiniciar
+     */
+    public synchronized void onDisplayLayoutChanged() {
         if (!isInitialized) {
+            return;
+        }
+        resolveTargetDisplay();
+        refreshSnapshot();
+        logger.info("🖥️ Monitor alvo atualizado: {}", targetDisplay);
+    }
+
+    /**
+     * Define o monitor alvo do perfil atual ("virtual" para o desktop inteiro)
+     */
+    public synchronized void setTargetDisplay(String displayId) {
+        calibrationData.setTargetDisplay(displayId);
+        resolveTargetDisplay();
+        refreshSnapshot();
+        logger.info("🖥️ Perfil direcionado para o monitor: {}", targetDisplay);
+    }
+
+    /**
+     * Obtém o monitor alvo atual
+     */
+    public DisplayInfo getTargetDisplay() {
+        MappingSnapshot current = getSnapshot();
+        return current != null ? current.getDisplay() : targetDisplay;
+    }
+
+    /**
+     * Mapeia coordenadas da câmera para coordenadas da tela
+     *
+     * Sem estado: seguro para qualquer thread (broadcasts, REST, STOMP).
+     */
+    public int[] mapToScreenCoordinates(double cameraX, double cameraY) {
+        MappingSnapshot current = getSnapshot();
+        if (current == null) {
             // Fallback para mapeamento simples
             return new int[]{(int) (cameraX * 1920), (int) (cameraY * 1080)};
         }
+        return current.map(cameraX, cameraY);
+    }
+
+    /**
+     * Mapeia a posição do ponteiro aplicando deadband e o modo relativo
+     *
+     * Usa estado por ponteiro; deve ser chamado apenas pela thread do pipeline do mouse.
+     */
+    public int[] mapPointer(double cameraX, double cameraY) {
+        MappingSnapshot current = getSnapshot();
+        if (current == null) {
+            return new int[]{(int) (cameraX * 1920), (int) (cameraY * 1080)};
+        }
+        return pointerFilter.filter(current, cameraX, cameraY);
+    }
 
-        // Aplica deadband para reduzir tremores
-        if (Math.abs(cameraX - lastX) < calibrationData.getDeadband()
-                && Math.abs(cameraY - lastY) < calibrationData.getDeadband()) {
-            return new int[]{(int) (lastX * screenSize.getWidth()),
-                (int) (lastY * screenSize.getHeight())};
+    /**
+     * Obtém a tabela de ganho do perfil do usuário, reconstruindo só quando o perfil muda
+     */
+    private AccelerationCurve buildAccelerationCurve() {
+        if (userSettings == null) {
+            if (accelerationCurve == null) {
+                accelerationCurve = AccelerationCurve.build(null, 0.0, 0.0, null);
+            }
+            return accelerationCurve;
         }
 
-        // Aplica sensibilidade
-        double sensitivity = (userSettings != null) ? userSettings.getSensitivity() : 1.0;
-        double adjustedX = cameraX * sensitivity;
-        double adjustedY = cameraY * sensitivity;
+        AccelerationCurve curve = accelerationCurve;
+        if (curve == null || !curve.matches(userSettings.getAccelerationProfile(),
+                userSettings.getAccelerationSpeed(), userSettings.getCustomAccelerationStep(),
+                userSettings.getCustomAccelerationPoints())) {
+            curve = AccelerationCurve.build(userSettings.getAccelerationProfile(),
+                    userSettings.getAccelerationSpeed(), userSettings.getCustomAccelerationStep(),
+                    userSettings.getCustomAccelerationPoints());
+            accelerationCurve = curve;
+            logger.info("🚀 Curva de aceleração reconstruída: {} (velocidade {})",
+                    curve.getProfile(), curve.getSpeed());
+        }
+        return curve;
+    }
 
-        // Converte usando calibração se disponível
-        int[] screenCoords;
-        if (calibrationData.isCalibrated()) {
-            screenCoords = calibrationData.convertToScreenCoordinates(adjustedX, adjustedY);
-        } else {
-            // Mapeamento linear simples
-            screenCoords = linearMapping(adjustedX, adjustedY);
+    /**
+     * Agenda a reconstrução do modelo de calibração atual em background
+     */
+    public void rebuildCalibrationModel() {
+        rebuildCalibrationModel(calibrationData);
+    }
+
+    /**
+     * Agenda a reconstrução da grade de distorção e do spline de calibração
+     * fora do caminho crítico; o mapeamento continua usando o modelo anterior
+     * até o novo ficar pronto
+     */
+    public void rebuildCalibrationModel(CalibrationData target) {
+        // Copia os pontos na thread chamadora para não concorrer com novas inserções
+        final List<CalibrationData.CalibrationPoint> points = new ArrayList<>(target.getCalibrationPoints());
+
+        calibrationExecutor.execute(() -> {
+            try {
+                DistortionGrid grid = buildDistortionGrid(target, points);
+                ThinPlateSpline spline = fitSpline(points, grid);
+
+                // Grade e spline entram juntos no próximo snapshot
+                synchronized (this) {
+                    target.setDistortionGrid(grid);
+                    target.setSpline(spline);
+                    if (target == calibrationData && isInitialized) {
+                        refreshSnapshot();
+                    }
+                }
+
+            } catch (Exception e) {
+                logger.error("❌ Erro ao reconstruir modelo de calibração: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Conclui quando todas as reconstruções já agendadas terminarem
+     */
+    public CompletableFuture<Void> whenModelReady() {
+        return CompletableFuture.runAsync(() -> { }, calibrationExecutor);
+    }
+
+    /**
+     * Constrói a grade de distorção ou retorna null se não houver distorção a corrigir
+     */
+    private DistortionGrid buildDistortionGrid(CalibrationData target,
+            List<CalibrationData.CalibrationPoint> points) {
+        if (mappingConfig != null && !mappingConfig.isDistortionCorrection()) {
+            return null;
+        }
+
+        double[] coefficients = estimateRadialCoefficients(target, points);
+        if (coefficients[0] == 0.0 && coefficients[1] == 0.0) {
+            return null;
+        }
+
+        int columns = mappingConfig != null ? mappingConfig.getDistortionGridColumns() : 64;
+        int rows = mappingConfig != null ? mappingConfig.getDistortionGridRows() : 48;
+
+        logger.info("🔧 Grade de distorção reconstruída: {}x{} (k1={}, k2={})",
+                columns, rows, coefficients[0], coefficients[1]);
+
+        return DistortionGrid.fromRadialCoefficients(columns, rows, coefficients[0], coefficients[1]);
+    }
+
+    /**
+     * Ajusta o thin-plate spline local no espaço já corrigido da câmera
+     */
+    private ThinPlateSpline fitSpline(List<CalibrationData.CalibrationPoint> points, DistortionGrid grid) {
+        if (points.size() < CalibrationData.MIN_CALIBRATION_POINTS) {
+            return null;
+        }
+
+        int count = points.size();
+        double[] srcX = new double[count];
+        double[] srcY = new double[count];
+        double[] dstX = new double[count];
+        double[] dstY = new double[count];
+
+        for (int i = 0; i < count; i++) {
+            CalibrationData.CalibrationPoint point = points.get(i);
+            double[] source = grid != null
+                    ? grid.correct(point.getCameraX(), point.getCameraY())
+                    : new double[]{point.getCameraX(), point.getCameraY()};
+            srcX[i] = source[0];
+            srcY[i] = source[1];
+            dstX[i] = point.getScreenX();
+            dstY[i] = point.getScreenY();
+        }
+
+        int neighbours = mappingConfig != null ? mappingConfig.getSplineNeighbours() : 8;
+        double regularization = mappingConfig != null ? mappingConfig.getSplineRegularization() : 0.0;
+
+        long start = System.nanoTime();
+        ThinPlateSpline spline = ThinPlateSpline.fit(srcX, srcY, dstX, dstY, neighbours, regularization);
+
+        logger.info("📐 Spline de calibração ajustado: {} pontos, {} vizinhos em {} µs",
+                count, neighbours, (System.nanoTime() - start) / 1000);
+
+        return spline;
+    }
+
+    /**
+     * Estima os coeficientes radiais (k1, k2) por mínimos quadrados a partir de
+     * amostras densas de calibração; sem amostras suficientes usa os configurados
+     *
+     * A relação câmera -> tela (escala, deslocamento, espelhamento e perspectiva)
+     * é removida antes por uma homografia tela -> câmera: k1/k2 são regredidos só
+     * sobre o resíduo que ela não explica. Os dois ajustes se alternam por algumas
+     * iterações, com a homografia refeita sobre os pontos já corrigidos.
+     */
+    private double[] estimateRadialCoefficients(CalibrationData data,
+            List<CalibrationData.CalibrationPoint> points) {
+        double configuredK1 = mappingConfig != null ? mappingConfig.getDistortionK1() : 0.0;
+        double configuredK2 = mappingConfig != null ? mappingConfig.getDistortionK2() : 0.0;
+        int minSamples = mappingConfig != null ? mappingConfig.getCalibrationPoints() : 9;
+
+        if (points.size() < Math.max(minSamples, Homography.MIN_POINTS + 2)) {
+            return new double[]{configuredK1, configuredK2};
         }
 
-        // Aplica compensação para usuários canhotos
-        if (userSettings != null && userSettings.isLeftHanded()) {
-            screenCoords[0] = (int) screenSize.getWidth() - screenCoords[0];
+        DisplayInfo display = targetDisplay;
+        double offsetX = display != null ? display.getX() : 0;
+        double offsetY = display != null ? display.getY() : 0;
+        double width = data.getScreenWidth() > 0 ? data.getScreenWidth()
+                : (display != null ? display.getWidth() : 1920);
+        double height = data.getScreenHeight() > 0 ? data.getScreenHeight()
+                : (display != null ? display.getHeight() : 1080);
+
+        // Tela normalizada (≈ [0, 1]) para o ajuste da homografia ficar bem condicionado
+        int count = points.size();
+        double[] cameraX = new double[count];
+        double[] cameraY = new double[count];
+        double[] screenX = new double[count];
+        double[] screenY = new double[count];
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            CalibrationData.CalibrationPoint point = points.get(i);
+            cameraX[i] = point.getCameraX();
+            cameraY[i] = point.getCameraY();
+            screenX[i] = (point.getScreenX() - offsetX) / width;
+            screenY[i] = (point.getScreenY() - offsetY) / height;
+            indices[i] = i;
         }
 
-        // Atualiza última posição
-        lastX = cameraX;
-        lastY = cameraY;
+        double k1 = 0.0;
+        double k2 = 0.0;
+        double[] correctedX = new double[count];
+        double[] correctedY = new double[count];
+        double[] ideal = new double[2];
+
+        for (int iteration = 0; iteration < RADIAL_FIT_ITERATIONS; iteration++) {
+            // Pontos da câmera corrigidos pela estimativa atual
+            for (int i = 0; i < count; i++) {
+                double dx = cameraX[i] - 0.5;
+                double dy = cameraY[i] - 0.5;
+                double r2 = dx * dx + dy * dy;
+                double factor = k1 * r2 + k2 * r2 * r2;
+                correctedX[i] = cameraX[i] + dx * factor;
+                correctedY[i] = cameraY[i] + dy * factor;
+            }
 
-        return screenCoords;
+            // Posição na câmera que cada alvo teria sem distorção
+            Homography homography = Homography.fit(screenX, screenY, correctedX, correctedY, indices, count);
+            if (homography == null) {
+                return new double[]{configuredK1, configuredK2};
+            }
+
+            // Equações normais em (s, k1, k2) sobre o resíduo da homografia. O termo s
+            // (escala em torno do centro) é quase colinear com k1 e a homografia já o
+            // representa: entra no ajuste para não contaminar k1/k2 e é descartado
+            double[][] normal = new double[3][4];
+            for (int i = 0; i < count; i++) {
+                double dx = cameraX[i] - 0.5;
+                double dy = cameraY[i] - 0.5;
+                double r2 = dx * dx + dy * dy;
+                homography.map(screenX[i], screenY[i], ideal);
+                double ex = ideal[0] - cameraX[i];
+                double ey = ideal[1] - cameraY[i];
+
+                for (double[] row : new double[][]{{dx, dx * r2, dx * r2 * r2, ex}, {dy, dy * r2, dy * r2 * r2, ey}}) {
+                    for (int r = 0; r < 3; r++) {
+                        for (int c = 0; c < 3; c++) {
+                            normal[r][c] += row[r] * row[c];
+                        }
+                        normal[r][3] += row[r] * row[3];
+                    }
+                }
+            }
+
+            // Regularização leve para amostras com raios muito parecidos
+            for (int r = 0; r < 3; r++) {
+                normal[r][r] += 1e-9;
+            }
+
+            if (!MathUtils.solveLinearSystem(normal, 3)) {
+                return new double[]{configuredK1, configuredK2};
+            }
+            k1 = normal[1][3];
+            k2 = normal[2][3];
+        }
+
+        // Coeficientes absurdos indicam câmera desalinhada, não distorção
+        if (!Double.isFinite(k1) || !Double.isFinite(k2) || Math.abs(k1) > 1.0 || Math.abs(k2) > 1.0) {
+            logger.warn("⚠️ Coeficientes de distorção fora da faixa (k1={}, k2={}), usando configurados", k1, k2);
+            return new double[]{configuredK1, configuredK2};
+        }
+
+        return new double[]{k1, k2};
     }
 
     /**
@@ -142,62 +495,78 @@ public class CoordinateMappingService {
     }
 
     /**
-     * Mapeamento linear simples
+     * Adiciona um ponto de calibração
      */
-    private int[] linearMapping(double cameraX, double cameraY) {
-        int screenX = (int) (cameraX * screenSize.getWidth());
-        int screenY = (int) (cameraY * screenSize.getHeight());
-
-        // Garante que as coordenadas estão dentro dos limites da tela
-        screenX = Math.max(0, Math.min(screenX, (int) screenSize.getWidth()));
-        screenY = Math.max(0, Math.min(screenY, (int) screenSize.getHeight()));
+    public synchronized void addCalibrationPoint(double cameraX, double cameraY, int screenX, int screenY) {
+        calibrationData.addCalibrationPoint(cameraX, cameraY, screenX, screenY);
+        refreshSnapshot();
 
-        return new int[]{screenX, screenY};
+        if (calibrationData.isCalibrated()) {
+            rebuildCalibrationModel();
+        }
     }
 
     /**
-     * Adiciona um ponto de calibração
+     * Limpa a calibração
      */
-    public void addCalibrationPoint(double cameraX, double cameraY, int screenX, int screenY) {
-        calibrationData.addCalibrationPoint(cameraX, cameraY, screenX, screenY);
+    public synchronized void clearCalibration() {
+        calibrationData.clearCalibration();
+        refreshSnapshot();
+        rebuildCalibrationModel();
     }
 
     /**
-     * Limpa a calibração
+     * Publica a correção online para o perfil informado
+     *
+     * @return false se o perfil em uso mudou desde que a correção foi calculada
      */
-    public void clearCalibration() {
-        calibrationData.clearCalibration();
+    public synchronized boolean applyRefinement(CalibrationData expected, double[] refinement) {
+        if (calibrationData != expected) {
+            return false;
+        }
+        calibrationData.setRefinement(refinement);
+        refreshSnapshot();
+        return true;
     }
 
     /**
      * Verifica se está calibrado
      */
     public boolean isCalibrated() {
-        return calibrationData.isCalibrated();
+        MappingSnapshot current = getSnapshot();
+        return current != null && current.isCalibrated();
     }
 
     /**
      * Obtém os dados de calibração
      */
-    public CalibrationData getCalibrationData() {
+    public synchronized CalibrationData getCalibrationData() {
         return calibrationData;
     }
 
     /**
      * Define os dados de calibração
      */
-    public void setCalibrationData(CalibrationData calibrationData) {
+    public synchronized void setCalibrationData(CalibrationData calibrationData) {
         this.calibrationData = calibrationData;
+
+        if (isInitialized) {
+            resolveTargetDisplay();
+            refreshSnapshot();
+        }
+
+        // Perfis já ajustados são usados direto; os demais são reconstruídos em background
+        if (calibrationData.getSpline() == null || calibrationData.getDistortionGrid() == null) {
+            rebuildCalibrationModel();
+        }
     }
 
     /**
      * Obtém as dimensões da tela
      */
     public Dimension getScreenSize() {
-        if (!isInitialized) {
-            initialize();
-        }
-        return screenSize;
+        DisplayInfo display = getTargetDisplay();
+        return new Dimension(display.getWidth(), display.getHeight());
     }
 
     /**
@@ -230,6 +599,8 @@ public class CoordinateMappingService {
             return coordinates;
         }
 
+        double lastX = pointerFilter.getLastX();
+        double lastY = pointerFilter.getLastY();
         int smoothedX = (int) (coordinates[0] * smoothingFactor + lastX * (1 - smoothingFactor));
         int smoothedY = (int) (coordinates[1] * smoothingFactor + lastY * (1 - smoothingFactor));
 
@@ -240,14 +611,14 @@ public class CoordinateMappingService {
      * Obtém a última posição X
      */
     public double getLastX() {
-        return lastX;
+        return pointerFilter.getLastX();
     }
 
     /**
      * Obtém a última posição Y
      */
     public double getLastY() {
-        return lastY;
+        return pointerFilter.getLastY();
     }
 
     /**
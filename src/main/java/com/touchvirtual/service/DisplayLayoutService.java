@@ -0,0 +1,192 @@
+package com.touchvirtual.service;
+
+import com.touchvirtual.config.MappingConfig;
+import com.touchvirtual.model.DisplayInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.PostConstruct;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serviço que enumera os monitores e mantém o layout do desktop virtual em cache
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Service
+public class DisplayLayoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisplayLayoutService.class);
+
+    @Autowired
+    @Lazy
+    private MappingConfig mappingConfig;
+
+    @Autowired
+    @Lazy
+    private CoordinateMappingService coordinateMappingService;
+
+    // Layout atual; substituído por inteiro a cada mudança
+    private volatile Map<String, DisplayInfo> displays = Collections.emptyMap();
+    private volatile DisplayInfo primaryDisplay;
+    private volatile DisplayInfo virtualDesktop;
+    private String layoutSignature = "";
+
+    @PostConstruct
+    public void initialize() {
+        refreshLayout();
+    }
+
+    /**
+     * Verifica periodicamente se o layout dos monitores mudou
+     */
+    @Scheduled(fixedDelay = 2000)
+    public void checkLayout() {
+        if (refreshLayout() && coordinateMappingService != null) {
+            coordinateMappingService.onDisplayLayoutChanged();
+        }
+    }
+
+    /**
+     * Enumera os monitores e atualiza o cache
+     *
+     * @return true se o layout mudou
+     */
+    public synchronized boolean refreshLayout() {
+        List<DisplayInfo> detected = enumerateDisplays();
+
+        StringBuilder signature = new StringBuilder();
+        for (DisplayInfo display : detected) {
+            signature.append(display).append(';');
+        }
+        if (signature.toString().equals(layoutSignature)) {
+            return false;
+        }
+
+        Map<String, DisplayInfo> byId = new LinkedHashMap<>();
+        DisplayInfo primary = detected.get(0);
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+
+        for (DisplayInfo display : detected) {
+            byId.put(display.getId(), display);
+            if (display.isPrimary()) {
+                primary = display;
+            }
+            minX = Math.min(minX, display.getX());
+            minY = Math.min(minY, display.getY());
+            maxX = Math.max(maxX, display.getX() + display.getWidth());
+            maxY = Math.max(maxY, display.getY() + display.getHeight());
+        }
+
+        this.displays = Collections.unmodifiableMap(byId);
+        this.primaryDisplay = primary;
+        this.virtualDesktop = new DisplayInfo(DisplayInfo.VIRTUAL_DESKTOP_ID, minX, minY,
+                maxX - minX, maxY - minY, primary.getScaleX(), primary.getScaleY(), false);
+        this.layoutSignature = signature.toString();
+
+        logger.info("🖥️ Layout de monitores atualizado: {} monitor(es), desktop virtual {}x{}",
+                detected.size(), virtualDesktop.getWidth(), virtualDesktop.getHeight());
+        for (DisplayInfo display : detected) {
+            logger.info("   - {}", display);
+        }
+
+        return true;
+    }
+
+    /**
+     * Lista os monitores do sistema; em modo headless usa as dimensões configuradas
+     */
+    private List<DisplayInfo> enumerateDisplays() {
+        List<DisplayInfo> detected = new ArrayList<>();
+
+        try {
+            if (!GraphicsEnvironment.isHeadless()) {
+                GraphicsEnvironment environment = GraphicsEnvironment.getLocalGraphicsEnvironment();
+                GraphicsDevice defaultDevice = environment.getDefaultScreenDevice();
+
+                for (GraphicsDevice device : environment.getScreenDevices()) {
+                    GraphicsConfiguration configuration = device.getDefaultConfiguration();
+                    Rectangle bounds = configuration.getBounds();
+                    AffineTransform transform = configuration.getDefaultTransform();
+
+                    detected.add(new DisplayInfo(device.getIDstring(), bounds.x, bounds.y,
+                            bounds.width, bounds.height, transform.getScaleX(), transform.getScaleY(),
+                            device == defaultDevice));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️ Erro ao enumerar monitores: {}", e.getMessage());
+            detected.clear();
+        }
+
+        if (detected.isEmpty()) {
+            int width = mappingConfig != null ? mappingConfig.getScreenWidth() : 1920;
+            int height = mappingConfig != null ? mappingConfig.getScreenHeight() : 1080;
+            detected.add(new DisplayInfo(DisplayInfo.PRIMARY_ID, 0, 0, width, height, 1.0, 1.0, true));
+        }
+
+        return detected;
+    }
+
+    /**
+     * Resolve o monitor alvo de um perfil de calibração
+     *
+     * @param displayId id do monitor, "virtual" para o desktop inteiro ou
+     *                  null/"primary" para o monitor principal
+     */
+    public DisplayInfo resolve(String displayId) {
+        if (primaryDisplay == null) {
+            refreshLayout();
+        }
+
+        if (displayId == null || DisplayInfo.PRIMARY_ID.equals(displayId)) {
+            return primaryDisplay;
+        }
+        if (DisplayInfo.VIRTUAL_DESKTOP_ID.equals(displayId)) {
+            return virtualDesktop;
+        }
+
+        DisplayInfo display = displays.get(displayId);
+        if (display == null) {
+            logger.debug("⚠️ Monitor {} não encontrado, usando o principal", displayId);
+            return primaryDisplay;
+        }
+        return display;
+    }
+
+    /**
+     * Obtém os monitores conhecidos
+     */
+    public List<DisplayInfo> getDisplays() {
+        return new ArrayList<>(displays.values());
+    }
+
+    /**
+     * Obtém o monitor principal
+     */
+    public DisplayInfo getPrimaryDisplay() {
+        return resolve(DisplayInfo.PRIMARY_ID);
+    }
+
+    /**
+     * Obtém os limites do desktop virtual
+     */
+    public DisplayInfo getVirtualDesktop() {
+        return resolve(DisplayInfo.VIRTUAL_DESKTOP_ID);
+    }
+}
@@ -0,0 +1,195 @@
+package com.touchvirtual.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sessão WebSocket com fila de saída limitada que descarta as mensagens mais antigas
+ *
+ * O envio nunca bloqueia quem chama: a mensagem entra na fila e uma tarefa da
+ * própria sessão a esvazia no executor de envio, então um cliente lento não
+ * prende as threads do canal de saída do broker. Passando do limite de bytes,
+ * os frames MESSAGE mais antigos são descartados (cada um traz o estado
+ * completo do tópico); frames de controle do STOMP nunca são descartados. Um
+ * envio travado por mais que o limite de tempo encerra a sessão.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+class DropOldestSessionDecorator extends WebSocketSessionDecorator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DropOldestSessionDecorator.class);
+
+    private record Pending(WebSocketMessage<?> message, long enqueuedNanos, boolean droppable) {}
+
+    private final Deque<Pending> buffer = new ArrayDeque<>();
+    private int bufferBytes;
+
+    private final int bufferSizeLimit;
+    private final long sendTimeLimitNanos;
+    private final Executor sendExecutor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile long sendStartNanos;
+    private volatile boolean terminated;
+
+    // Métricas
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalLagNanos = new AtomicLong();
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+
+    DropOldestSessionDecorator(WebSocketSession delegate, int bufferSizeLimit, long sendTimeLimitMillis,
+            Executor sendExecutor) {
+        super(delegate);
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.sendTimeLimitNanos = sendTimeLimitMillis * 1_000_000L;
+        this.sendExecutor = sendExecutor;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (terminated) {
+            return;
+        }
+        checkSendTimeLimit();
+
+        boolean droppable = message instanceof TextMessage text && text.getPayload().startsWith("MESSAGE");
+        synchronized (buffer) {
+            Pending pending = new Pending(message, System.nanoTime(), droppable);
+            buffer.addLast(pending);
+            bufferBytes += message.getPayloadLength();
+            trimOldest(pending);
+        }
+
+        if (draining.compareAndSet(false, true)) {
+            sendExecutor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Descarta frames MESSAGE do mais antigo para o mais novo até caber no limite;
+     * o frame recém-chegado é sempre mantido
+     */
+    private void trimOldest(Pending newest) {
+        Iterator<Pending> iterator = buffer.iterator();
+        while (bufferBytes > bufferSizeLimit && iterator.hasNext()) {
+            Pending pending = iterator.next();
+            if (pending == newest) {
+                break;
+            }
+            if (pending.droppable()) {
+                iterator.remove();
+                bufferBytes -= pending.message().getPayloadLength();
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private void checkSendTimeLimit() throws SessionLimitExceededException {
+        long start = sendStartNanos;
+        if (start != 0 && System.nanoTime() - start > sendTimeLimitNanos) {
+            terminated = true;
+            throw new SessionLimitExceededException("Envio travado há mais de "
+                    + sendTimeLimitNanos / 1_000_000 + " ms", CloseStatus.SESSION_NOT_RELIABLE);
+        }
+    }
+
+    /**
+     * Esvazia a fila na ordem de chegada; só uma tarefa por sessão roda por vez
+     */
+    private void drain() {
+        while (true) {
+            Pending pending;
+            synchronized (buffer) {
+                pending = buffer.pollFirst();
+                if (pending == null) {
+                    draining.set(false);
+                    return;
+                }
+                bufferBytes -= pending.message().getPayloadLength();
+            }
+
+            try {
+                sendStartNanos = System.nanoTime();
+                getDelegate().sendMessage(pending.message());
+                recordLag(System.nanoTime() - pending.enqueuedNanos());
+                sent.incrementAndGet();
+            } catch (Exception e) {
+                terminate(e);
+                return;
+            } finally {
+                sendStartNanos = 0;
+            }
+        }
+    }
+
+    private void terminate(Exception cause) {
+        terminated = true;
+        synchronized (buffer) {
+            buffer.clear();
+            bufferBytes = 0;
+        }
+        logger.debug("⚠️ Falha ao enviar para a sessão {}: {}", getId(), cause.getMessage());
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            logger.debug("⚠️ Erro ao fechar a sessão {}: {}", getId(), e.getMessage());
+        }
+    }
+
+    private void recordLag(long lagNanos) {
+        lastLagNanos = lagNanos;
+        totalLagNanos.addAndGet(lagNanos);
+        if (lagNanos > maxLagNanos) {
+            maxLagNanos = lagNanos;
+        }
+    }
+
+    int getQueuedMessages() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    int getQueuedBytes() {
+        synchronized (buffer) {
+            return bufferBytes;
+        }
+    }
+
+    /**
+     * Há quanto tempo o envio em andamento está bloqueado (0 sem envio)
+     */
+    double getSendingMillis() {
+        long start = sendStartNanos;
+        return start != 0 ? (System.nanoTime() - start) / 1_000_000.0 : 0.0;
+    }
+
+    long getSent() { return sent.get(); }
+
+    long getDropped() { return dropped.get(); }
+
+    double getLastLagMillis() { return lastLagNanos / 1_000_000.0; }
+
+    double getMaxLagMillis() { return maxLagNanos / 1_000_000.0; }
+
+    double getAvgLagMillis() {
+        long count = sent.get();
+        return count > 0 ? totalLagNanos.get() / 1_000_000.0 / count : 0.0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.touchvirtual.service;
+
+/**
+ * Destino da injeção de eventos de entrada no sistema operacional
+ *
+ * Os métodos seguem a semântica do java.awt.Robot (máscaras de botão de
+ * InputEvent e códigos de tecla de KeyEvent). São chamados apenas pela thread
+ * de atuação, então as implementações não precisam ser thread-safe na escrita.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public interface InputSink {
+
+    /**
+     * Nome do backend, usado na configuração e nas métricas
+     */
+    String getName();
+
+    void mouseMove(int x, int y);
+
+    void mousePress(int buttons);
+
+    void mouseRelease(int buttons);
+
+    void mouseWheel(int amount);
+
+    void keyPress(int keyCode);
+
+    void keyRelease(int keyCode);
+}
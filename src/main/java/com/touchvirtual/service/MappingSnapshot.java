@@ -0,0 +1,170 @@
+package com.touchvirtual.service;
+
+import com.touchvirtual.model.CalibrationData;
+import com.touchvirtual.model.DisplayInfo;
+import com.touchvirtual.model.DistortionGrid;
+import com.touchvirtual.model.UserSettings;
+import com.touchvirtual.util.AccelerationCurve;
+import com.touchvirtual.util.ThinPlateSpline;
+
+import java.util.List;
+
+/**
+ * Transformação câmera -> tela imutável
+ *
+ * Reúne tudo que o mapeamento precisa (calibração, monitor alvo, sensibilidade,
+ * deadband, lateralidade e curva de aceleração) num único objeto que é
+ * substituído por inteiro a cada mudança. Leitores concorrentes sempre veem
+ * um conjunto consistente de parâmetros sem precisar de locks.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public final class MappingSnapshot {
+
+    private final long version;
+    private final DisplayInfo display;
+    private final DistortionGrid distortionGrid;
+    private final ThinPlateSpline spline;
+    private final boolean calibrated;
+    private final double[] refinement;
+    private final double[] pointCameraX;
+    private final double[] pointCameraY;
+    private final double[] pointScreenX;
+    private final double[] pointScreenY;
+    private final double sensitivity;
+    private final double deadband;
+    private final boolean leftHanded;
+    private final UserSettings.PointerMode pointerMode;
+    private final AccelerationCurve accelerationCurve;
+
+    public MappingSnapshot(long version, DisplayInfo display, CalibrationData calibrationData,
+                           double sensitivity, boolean leftHanded,
+                           UserSettings.PointerMode pointerMode, AccelerationCurve accelerationCurve) {
+        this.version = version;
+        this.display = display;
+        this.distortionGrid = calibrationData.getDistortionGrid();
+        this.spline = calibrationData.getSpline();
+        this.calibrated = calibrationData.isCalibrated();
+        this.refinement = calibrationData.getRefinement() != null
+                ? calibrationData.getRefinement().clone() : null;
+        this.sensitivity = sensitivity;
+        this.deadband = calibrationData.getDeadband();
+        this.leftHanded = leftHanded;
+        this.pointerMode = pointerMode != null ? pointerMode : UserSettings.PointerMode.ABSOLUTE;
+        this.accelerationCurve = accelerationCurve;
+
+        // Cópia dos pontos (já sem distorção) para o fallback por média ponderada
+        List<CalibrationData.CalibrationPoint> points = List.copyOf(calibrationData.getCalibrationPoints());
+        this.pointCameraX = new double[points.size()];
+        this.pointCameraY = new double[points.size()];
+        this.pointScreenX = new double[points.size()];
+        this.pointScreenY = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            CalibrationData.CalibrationPoint point = points.get(i);
+            double[] camera = correctDistortion(point.getCameraX(), point.getCameraY());
+            pointCameraX[i] = camera[0];
+            pointCameraY[i] = camera[1];
+            pointScreenX[i] = point.getScreenX();
+            pointScreenY[i] = point.getScreenY();
+        }
+    }
+
+    /**
+     * Mapeamento absoluto, sem estado
+     */
+    public int[] map(double cameraX, double cameraY) {
+        int[] screenCoords = mapBase(cameraX, cameraY);
+
+        // Correção de deriva aprendida online, sobre a transformação calibrada
+        if (refinement != null) {
+            double u = (double) (screenCoords[0] - display.getX()) / display.getWidth();
+            double v = (double) (screenCoords[1] - display.getY()) / display.getHeight();
+            screenCoords[0] = display.clampX(screenCoords[0]
+                    + (int) Math.round((refinement[0] * u + refinement[1] * v + refinement[2]) * display.getWidth()));
+            screenCoords[1] = display.clampY(screenCoords[1]
+                    + (int) Math.round((refinement[3] * u + refinement[4] * v + refinement[5]) * display.getHeight()));
+        }
+
+        // Aplica compensação para usuários canhotos
+        if (leftHanded) {
+            screenCoords[0] = display.mirrorX(screenCoords[0]);
+        }
+
+        return screenCoords;
+    }
+
+    /**
+     * Mapeamento pela calibração, sem a correção online e sem espelhamento
+     */
+    public int[] mapBase(double cameraX, double cameraY) {
+        double[] corrected = correctDistortion(cameraX, cameraY);
+        double adjustedX = corrected[0] * sensitivity;
+        double adjustedY = corrected[1] * sensitivity;
+
+        if (calibrated && pointCameraX.length > 0) {
+            // Os pontos de calibração já estão em coordenadas do desktop virtual
+            int[] screenCoords = calibratedMapping(adjustedX, adjustedY);
+            screenCoords[0] = display.clampX(screenCoords[0]);
+            screenCoords[1] = display.clampY(screenCoords[1]);
+            return screenCoords;
+        }
+
+        // Mapeamento linear simples, limitado ao monitor alvo
+        return new int[]{
+            display.clampX(display.toScreenX(adjustedX)),
+            display.clampY(display.toScreenY(adjustedY))
+        };
+    }
+
+    /**
+     * Corrige a distorção da lente usando a grade pré-calculada (custo constante)
+     */
+    public double[] correctDistortion(double cameraX, double cameraY) {
+        if (distortionGrid == null) {
+            return new double[]{cameraX, cameraY};
+        }
+        return distortionGrid.correct(cameraX, cameraY);
+    }
+
+    /**
+     * Usa o spline quando já ajustado; senão média ponderada pelo inverso da distância
+     */
+    private int[] calibratedMapping(double cameraX, double cameraY) {
+        if (spline != null) {
+            double[] screen = spline.map(cameraX, cameraY);
+            return new int[]{(int) screen[0], (int) screen[1]};
+        }
+
+        double totalWeight = 0;
+        double weightedX = 0;
+        double weightedY = 0;
+        for (int i = 0; i < pointCameraX.length; i++) {
+            double distance = Math.max(0.001,
+                    Math.hypot(cameraX - pointCameraX[i], cameraY - pointCameraY[i]));
+            double weight = 1.0 / distance;
+            totalWeight += weight;
+            weightedX += pointScreenX[i] * weight;
+            weightedY += pointScreenY[i] * weight;
+        }
+
+        return new int[]{(int) (weightedX / totalWeight), (int) (weightedY / totalWeight)};
+    }
+
+    // Getters
+    public long getVersion() { return version; }
+
+    public DisplayInfo getDisplay() { return display; }
+
+    public boolean isCalibrated() { return calibrated; }
+
+    public double getSensitivity() { return sensitivity; }
+
+    public double getDeadband() { return deadband; }
+
+    public boolean isLeftHanded() { return leftHanded; }
+
+    public UserSettings.PointerMode getPointerMode() { return pointerMode; }
+
+    public AccelerationCurve getAccelerationCurve() { return accelerationCurve; }
+}
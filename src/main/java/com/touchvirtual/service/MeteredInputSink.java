@@ -0,0 +1,95 @@
+package com.touchvirtual.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decorador que mede o tempo de cada chamada ao backend de injeção
+ *
+ * Só a thread de atuação escreve; os campos voláteis permitem ler as métricas
+ * de outras threads.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+class MeteredInputSink implements InputSink {
+
+    private final InputSink delegate;
+
+    private volatile long calls;
+    private volatile long totalNanos;
+    private volatile long maxNanos;
+
+    MeteredInputSink(InputSink delegate) {
+        this.delegate = delegate;
+    }
+
+    InputSink getDelegate() { return delegate; }
+
+    @Override
+    public String getName() { return delegate.getName(); }
+
+    @Override
+    public void mouseMove(int x, int y) {
+        long start = System.nanoTime();
+        delegate.mouseMove(x, y);
+        record(start);
+    }
+
+    @Override
+    public void mousePress(int buttons) {
+        long start = System.nanoTime();
+        delegate.mousePress(buttons);
+        record(start);
+    }
+
+    @Override
+    public void mouseRelease(int buttons) {
+        long start = System.nanoTime();
+        delegate.mouseRelease(buttons);
+        record(start);
+    }
+
+    @Override
+    public void mouseWheel(int amount) {
+        long start = System.nanoTime();
+        delegate.mouseWheel(amount);
+        record(start);
+    }
+
+    @Override
+    public void keyPress(int keyCode) {
+        long start = System.nanoTime();
+        delegate.keyPress(keyCode);
+        record(start);
+    }
+
+    @Override
+    public void keyRelease(int keyCode) {
+        long start = System.nanoTime();
+        delegate.keyRelease(keyCode);
+        record(start);
+    }
+
+    private void record(long start) {
+        long elapsed = System.nanoTime() - start;
+        calls++;
+        totalNanos += elapsed;
+        if (elapsed > maxNanos) {
+            maxNanos = elapsed;
+        }
+    }
+
+    /**
+     * Latência das chamadas ao backend
+     */
+    Map<String, Object> getMetrics() {
+        long count = calls;
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("backend", delegate.getName());
+        metrics.put("calls", count);
+        metrics.put("avgCallMicros", count > 0 ? totalNanos / count / 1000.0 : 0.0);
+        metrics.put("maxCallMicros", maxNanos / 1000.0);
+        return metrics;
+    }
+}
@@ -1,21 +1,70 @@
 package com.touchvirtual.service;
 
+import com.touchvirtual.config.ActuationConfig;
 import com.touchvirtual.model.GestureType;
 import com.touchvirtual.model.TouchEvent;
+import com.touchvirtual.util.TokenBucket;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.awt.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.awt.GraphicsEnvironment;
+import java.awt.Toolkit;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Serviço de simulação de eventos de mouse usando Java Robot
+ * Serviço de simulação de eventos de mouse
+ *
+ * Toda injeção de entrada no sistema operacional acontece em uma única thread
+ * de atuação, alimentada por uma fila sem locks (vários produtores, um
+ * consumidor). Quem chama apenas enfileira um comando compacto e retorna; a
+ * ordem dos eventos é a ordem de enfileiramento e o estado do mouse fica
+ * confinado à thread de atuação.
+ *
+ * Sequências de clique (press/release e duplo clique) não usam delay: os
+ * passos seguintes são agendados em um timer, que os devolve à fila no
+ * instante certo. Movimentos continuam fluindo entre o press e o release.
+ *
+ * Movimentos enfileirados em sequência são reduzidos ao mais recente, e o
+ * cursor é levado até o novo alvo por posições interpoladas emitidas na taxa
+ * de saída configurada (ex.: 120 Hz), num laço cronometrado com parkNanos.
+ * Assim o cursor anda suave mesmo com a câmera a 30 fps.
+ *
+ * Eventos contínuos (movimento, zoom) passam por um balde de fichas por
+ * tipo; o excedente é coalescido (último movimento, soma dos passos de zoom)
+ * e entregue quando houver ficha. Eventos de scroll alimentam o motor de
+ * scroll inercial, que emite giros pequenos numa cadência fixa. Eventos discretos (cliques, press/release,
+ * início e fim do arrasto) nunca são limitados nem descartados: antes deles o
+ * que estiver pendente é entregue, preservando a ordem.
+ *
+ * A injeção em si é feita por um InputSink escolhido na configuração
+ * (actuation.input-sink): o Robot do AWT ou um backend de gravação que
+ * funciona sem interface gráfica.
+ *
+ * Lotes de eventos de clientes remotos são reproduzidos pelo mesmo timer das
+ * sequências de clique, mantendo a ordem e o intervalo original entre eles.
  *
  * @author TouchVirtual Team
  * @version 1.0.0
@@ -29,17 +78,89 @@ public class MouseSimulationService {
     @Lazy
     private CoordinateMappingService coordinateMappingService;
 
-    private Robot robot;
+    @Autowired
+    @Lazy
+    private CalibrationRefinementService calibrationRefinementService;
+
+    @Autowired
+    private ActuationConfig actuationConfig;
+
+    private volatile MeteredInputSink inputSink;
     private AtomicBoolean isEnabled;
-    private int lastX, lastY;
-    private long lastEventTime;
-    private boolean isDragging;
-    private int dragStartX, dragStartY;
+
+    // Estado do mouse: escrito só pela thread de atuação, lido pelos endpoints
+    private volatile int lastX, lastY;
+    private volatile long lastEventTime;
+    private volatile boolean isDragging;
+    private volatile int dragStartX, dragStartY;
+
+    // Fila de comandos e thread de atuação
+    private final ConcurrentLinkedQueue<Command> commandQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong enqueuedCommands = new AtomicLong();
+    private volatile Thread actuationThread;
+    private volatile boolean running;
+    private ScheduledExecutorService actuationTimer;
+
+    // Reprodução de lotes: fim do último lote agendado, eventos ainda agendados e
+    // última sequência por sessão (da menos para a mais recente)
+    private long replayHorizonNanos;
+    private final ConcurrentLinkedQueue<ScheduledFuture<?>> replayFutures = new ConcurrentLinkedQueue<>();
+    private final LinkedHashMap<String, BatchSession> batchSequences = new LinkedHashMap<>();
+    private final AtomicLong batchesReceived = new AtomicLong();
+    private final AtomicLong batchEventsAccepted = new AtomicLong();
+    private final AtomicLong batchEventsRejected = new AtomicLong();
+
+    // Passos de clique agendados e eventos retidos até a sequência terminar (thread de atuação)
+    private int pendingSteps;
+    private final ArrayDeque<Command> deferredCommands = new ArrayDeque<>();
+    private long doubleClickGapMillis;
+
+    // Métricas da thread de atuação (um único escritor)
+    private volatile int maxQueueDepth;
+    private volatile long executedCommands;
+    private volatile long skippedCommands;
+    private volatile long failedCommands;
+    private volatile long totalLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile long lastLatencyNanos;
+
+    // Interpolação do cursor (confinada à thread de atuação)
+    private long outputPeriodNanos;
+    private boolean interpolating;
+    private boolean hasCursor;
+    private int cursorX, cursorY;
+    private int fromX, fromY;
+    private int targetX, targetY;
+    private long targetNanos;
+    private long inputPeriodNanos = DEFAULT_INPUT_PERIOD_NANOS;
+    private long lastTickNanos;
+
+    // Canais dos eventos contínuos, com balde de fichas e pendência coalescida
+    private final Map<TouchEvent.EventType, ContinuousChannel> channels = new EnumMap<>(TouchEvent.EventType.class);
+
+    // Scroll inercial (confinado à thread de atuação)
+    private ScrollEngine scrollEngine;
+
+    // Eventos entregues e coalescidos por tipo (índice = ordinal do tipo)
+    private final AtomicLongArray deliveredByType = new AtomicLongArray(TouchEvent.EventType.values().length);
+    private final AtomicLongArray coalescedByType = new AtomicLongArray(TouchEvent.EventType.values().length);
+
+    // Métricas do jitter da saída (um único escritor)
+    private volatile long outputMoves;
+    private volatile long jitterSamples;
+    private volatile long jitterSumNanos;
+    private volatile double jitterSumSquares;
+    private volatile long maxJitterNanos;
 
     // Constantes para controle de eventos
-    private static final long MIN_EVENT_INTERVAL = 50; // 50ms entre eventos
+    private static final long DEFAULT_INPUT_PERIOD_NANOS = 33_000_000L; // câmera a 30 fps
+    private static final long MAX_INPUT_PERIOD_NANOS = 100_000_000L; // pausas maiores não contam como período
     private static final int CLICK_DELAY = 10; // 10ms entre press e release
-    private static final int DOUBLE_CLICK_DELAY = 300; // 300ms para duplo clique
+    private static final int DOUBLE_CLICK_DELAY = 300; // intervalo máximo entre os cliques do duplo clique
+    private static final int DEFAULT_MULTI_CLICK_INTERVAL = 500; // padrão quando o SO não informa
+    private static final int MAX_BATCH_SESSIONS = 256; // sessões de lote lembradas
+    private static final long BATCH_SESSION_IDLE_NANOS = TimeUnit.MINUTES.toNanos(10); // sessão esquecida após esse ócio
 
     public MouseSimulationService() {
         this.isEnabled = new AtomicBoolean(true);
@@ -49,158 +170,783 @@ public class MouseSimulationService {
         this.isDragging = false;
         this.dragStartX = 0;
         this.dragStartY = 0;
+    }
+
+    /**
+     * Última sequência de lote de uma sessão e quando ela foi vista
+     */
+    private record BatchSession(long sequence, long seenNanos) {
+    }
+
+    /**
+     * Comando compacto de atuação: tipo, coordenadas e instante de enfileiramento
+     */
+    private static final class Command {
+        final TouchEvent.EventType type;
+        final Step step;
+        final int x;
+        final int y;
+        final long enqueuedNanos;
+        final long enqueuedMillis;
+
+        Command(TouchEvent.EventType type, int x, int y) {
+            this(type, Step.EVENT, x, y);
+        }
+
+        Command(TouchEvent.EventType type, Step step, int x, int y) {
+            this.type = type;
+            this.step = step;
+            this.x = x;
+            this.y = y;
+            this.enqueuedNanos = System.nanoTime();
+            this.enqueuedMillis = System.currentTimeMillis();
+        }
+    }
 
-        initializeRobot();
+    /**
+     * Canal de um tipo de evento contínuo: balde de fichas e o que está pendente
+     */
+    private static final class ContinuousChannel {
+        final TokenBucket bucket;
+        Command latest;  // comando mais recente ainda não entregue
+        int amount;      // quantidade acumulada (scroll/zoom)
+
+        ContinuousChannel(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    /**
+     * Passo de um comando: evento de toque ou passo agendado de uma sequência de clique
+     * (x carrega a máscara do botão)
+     */
+    private enum Step {
+        EVENT,
+        PRESS,
+        RELEASE
+    }
+
+    /**
+     * Inicia a thread de atuação
+     */
+    @PostConstruct
+    public void startActuation() {
+        int outputRateHz = actuationConfig != null ? actuationConfig.getOutputRateHz() : 0;
+        outputPeriodNanos = outputRateHz > 0 ? 1_000_000_000L / outputRateHz : 0;
+        doubleClickGapMillis = resolveDoubleClickGap();
+        createChannels();
+        scrollEngine = new ScrollEngine(this::emitWheel,
+                actuationConfig != null ? actuationConfig.getScrollCadenceHz() : 60,
+                actuationConfig != null ? actuationConfig.getScrollPixelsPerTick() : 40.0,
+                actuationConfig != null ? actuationConfig.getScrollMomentumMillis() : 325,
+                actuationConfig != null ? actuationConfig.getScrollContactTimeoutMillis() : 120);
+        initializeInputSink();
+        actuationTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread timer = new Thread(runnable, "touchvirtual-actuation-timer");
+            timer.setDaemon(true);
+            return timer;
+        });
+
+        running = true;
+        Thread thread = new Thread(this::runActuationLoop, "touchvirtual-actuation");
+        thread.setDaemon(true);
+        actuationThread = thread;
+        thread.start();
+        logger.info("🚀 Thread de atuação iniciada (intervalo do duplo clique: {}ms)", doubleClickGapMillis);
+    }
+
+    /**
+     * Cria os canais dos eventos contínuos; movimento e movimento de arrasto
+     * compartilham o canal, assim como zoom in e zoom out
+     */
+    private void createChannels() {
+        int burst = actuationConfig != null ? actuationConfig.getRateLimitBurst() : 3;
+        ContinuousChannel move = new ContinuousChannel(new TokenBucket(
+                actuationConfig != null ? actuationConfig.getMoveRateLimit() : 0, burst));
+        ContinuousChannel zoom = new ContinuousChannel(new TokenBucket(
+                actuationConfig != null ? actuationConfig.getZoomRateLimit() : 0, burst));
+
+        channels.put(TouchEvent.EventType.MOUSE_MOVE, move);
+        channels.put(TouchEvent.EventType.MOUSE_DRAG_MOVE, move);
+        channels.put(TouchEvent.EventType.ZOOM_IN, zoom);
+        channels.put(TouchEvent.EventType.ZOOM_OUT, zoom);
     }
 
     /**
-     * Inicializa o Robot para simulação de eventos
+     * Intervalo entre os cliques do duplo clique, a partir do intervalo de
+     * multi-clique do SO (awt.multiClickInterval) quando disponível
      */
-    private void initializeRobot() {
+    private static long resolveDoubleClickGap() {
+        int multiClickInterval = DEFAULT_MULTI_CLICK_INTERVAL;
         try {
-            // Verifica se o ambiente suporta GUI
-            if (GraphicsEnvironment.isHeadless()) {
-                logger.warn("⚠️ Ambiente headless detectado - Robot não disponível");
-                logger.info("💡 Para usar o Robot, execute a aplicação com GUI ou use -Djava.awt.headless=false");
-                return;
+            if (!GraphicsEnvironment.isHeadless()) {
+                Object property = Toolkit.getDefaultToolkit().getDesktopProperty("awt.multiClickInterval");
+                if (property instanceof Integer interval && interval > 0) {
+                    multiClickInterval = interval;
+                }
             }
+        } catch (Exception e) {
+            logger.debug("⚠️ Intervalo de multi-clique do SO indisponível: {}", e.getMessage());
+        }
+        // Um terço do intervalo fica bem dentro da janela do SO sem parecer dois cliques
+        return Math.max(CLICK_DELAY * 3L, Math.min(DOUBLE_CLICK_DELAY, multiClickInterval / 3));
+    }
 
-            // Tenta criar o Robot com configurações específicas
-            robot = new Robot();
-            robot.setAutoDelay(0); // Sem delay automático
-            robot.setAutoWaitForIdle(false); // Não espera idle
-
-            logger.info("🤖 Robot inicializado para simulação de eventos");
+    /**
+     * Encerra a thread de atuação, descartando comandos pendentes
+     */
+    @PreDestroy
+    public void stopActuation() {
+        running = false;
+        if (actuationTimer != null) {
+            actuationTimer.shutdownNow();
+        }
+        Thread thread = actuationThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        commandQueue.clear();
+        queueDepth.set(0);
+    }
 
-        } catch (AWTException e) {
-            logger.error("❌ Erro ao inicializar Robot: {}", e.getMessage());
-            logger.info("💡 Verifique se o ambiente suporta GUI ou use -Djava.awt.headless=false");
-            // Não lança exceção, apenas loga o erro
-        } catch (SecurityException e) {
-            logger.error("❌ Erro de segurança ao inicializar Robot: {}", e.getMessage());
-            logger.info("💡 Verifique as permissões de segurança da aplicação");
+    /**
+     * Cria o backend de injeção configurado
+     */
+    private void initializeInputSink() {
+        String name = actuationConfig != null ? actuationConfig.getInputSink() : RobotInputSink.NAME;
+        InputSink sink;
+        if (RecordingInputSink.NAME.equalsIgnoreCase(name)) {
+            sink = new RecordingInputSink(actuationConfig.getRecordingCapacity());
+            logger.info("📼 Backend de gravação ativo: eventos não chegam ao sistema operacional");
+        } else {
+            if (!RobotInputSink.NAME.equalsIgnoreCase(name)) {
+                logger.warn("⚠️ Backend de injeção desconhecido '{}', usando {}", name, RobotInputSink.NAME);
+            }
+            sink = RobotInputSink.create();
         }
+        inputSink = sink != null ? new MeteredInputSink(sink) : null;
     }
 
     /**
-     * Processa um evento de toque e simula o evento de mouse correspondente
+     * Enfileira um evento de toque para a thread de atuação; nunca bloqueia
      */
     public void processTouchEvent(TouchEvent touchEvent) {
-        if (!isEnabled.get() || robot == null) {
+        if (!isEnabled.get() || inputSink == null || touchEvent.getEventType() == null) {
+            return;
+        }
+
+        enqueue(new Command(touchEvent.getEventType(),
+                touchEvent.getScreenX(), touchEvent.getScreenY()));
+    }
+
+    /**
+     * Agenda um lote ordenado de eventos, respeitando o intervalo entre os
+     * timestamps do cliente. O lote começa quando o anterior termina, então
+     * lotes consecutivos não se intercalam.
+     *
+     * @param clientMillis timestamp do cliente de cada evento (ms); 0 se ausente
+     * @return contagem de eventos aceitos e recusados por motivo
+     */
+    public synchronized Map<String, Object> replayBatch(String sessionId, long sequence,
+            List<TouchEvent> events, long[] clientMillis) {
+        Map<String, Object> result = new HashMap<>();
+        int received = events.size();
+        result.put("received", received);
+        batchesReceived.incrementAndGet();
+
+        String refusal = null;
+        if (!isEnabled.get() || inputSink == null) {
+            refusal = "Simulação de mouse desabilitada";
+        } else if (sessionId != null && sequence > 0) {
+            long seenNanos = System.nanoTime();
+            expireBatchSessions(seenNanos);
+            BatchSession last = batchSequences.get(sessionId);
+            if (last != null && sequence <= last.sequence()) {
+                refusal = "Lote fora de ordem (sequência " + sequence + " <= " + last.sequence() + ")";
+            } else {
+                // Reinsere para manter o mapa ordenado da sessão menos para a mais recente
+                batchSequences.remove(sessionId);
+                batchSequences.put(sessionId, new BatchSession(sequence, seenNanos));
+            }
+        }
+        if (refusal != null) {
+            batchEventsRejected.addAndGet(received);
+            result.put("accepted", 0);
+            result.put("rejected", received);
+            result.put("message", refusal);
+            return result;
+        }
+
+        int maxEvents = actuationConfig != null ? actuationConfig.getBatchMaxEvents() : 1000;
+        long maxSpanNanos = TimeUnit.MILLISECONDS.toNanos(
+                actuationConfig != null ? actuationConfig.getBatchMaxSpanMillis() : 5000);
+
+        replayFutures.removeIf(ScheduledFuture::isDone);
+        long now = System.nanoTime();
+        long base = Math.max(now, replayHorizonNanos);
+        long offsetNanos = 0;
+        long previousMillis = 0;
+        int accepted = 0, invalid = 0, overflow = 0, outOfSpan = 0;
+
+        for (int i = 0; i < received; i++) {
+            TouchEvent event = events.get(i);
+            if (event == null || event.getEventType() == null) {
+                invalid++;
+                continue;
+            }
+            if (accepted >= maxEvents) {
+                overflow++;
+                continue;
+            }
+
+            // Soma só os avanços do relógio do cliente: a ordem da lista sempre prevalece
+            long millis = clientMillis[i];
+            if (millis > 0) {
+                if (previousMillis > 0 && millis > previousMillis) {
+                    offsetNanos += TimeUnit.MILLISECONDS.toNanos(millis - previousMillis);
+                }
+                previousMillis = Math.max(previousMillis, millis);
+            }
+            if (offsetNanos > maxSpanNanos) {
+                outOfSpan++;
+                continue;
+            }
+
+            TouchEvent.EventType type = event.getEventType();
+            int x = event.getScreenX();
+            int y = event.getScreenY();
+            try {
+                replayFutures.add(actuationTimer.schedule(() -> {
+                    // O mouse pode ter sido desabilitado depois do agendamento
+                    if (isEnabled.get()) {
+                        enqueue(new Command(type, x, y));
+                    }
+                }, base + offsetNanos - now, TimeUnit.NANOSECONDS));
+                accepted++;
+            } catch (Exception e) {
+                invalid++;
+            }
+        }
+
+        if (accepted > 0) {
+            replayHorizonNanos = base + offsetNanos;
+        }
+        batchEventsAccepted.addAndGet(accepted);
+        batchEventsRejected.addAndGet(received - accepted);
+
+        result.put("accepted", accepted);
+        result.put("rejected", received - accepted);
+        result.put("invalid", invalid);
+        result.put("overflow", overflow);
+        result.put("outOfSpan", outOfSpan);
+        result.put("spanMillis", TimeUnit.NANOSECONDS.toMillis(offsetNanos));
+        result.put("startDelayMillis", TimeUnit.NANOSECONDS.toMillis(base - now));
+        return result;
+    }
+
+    /**
+     * Esquece as sessões de lote ociosas e, acima do limite, as mais antigas
+     */
+    private void expireBatchSessions(long now) {
+        Iterator<BatchSession> sessions = batchSequences.values().iterator();
+        while (sessions.hasNext()) {
+            BatchSession oldest = sessions.next();
+            if (batchSequences.size() < MAX_BATCH_SESSIONS
+                    && now - oldest.seenNanos() < BATCH_SESSION_IDLE_NANOS) {
+                break;
+            }
+            sessions.remove();
+        }
+    }
+
+    /**
+     * Cancela os eventos de lote ainda agendados
+     */
+    private synchronized void cancelReplay() {
+        ScheduledFuture<?> future;
+        while ((future = replayFutures.poll()) != null) {
+            future.cancel(false);
+        }
+        replayHorizonNanos = 0;
+    }
+
+    /**
+     * Coloca um comando na fila e acorda a thread de atuação
+     */
+    private void enqueue(Command command) {
+        commandQueue.offer(command);
+        enqueuedCommands.incrementAndGet();
+        int depth = queueDepth.incrementAndGet();
+        if (depth > maxQueueDepth) {
+            // Corrida benigna: o máximo é apenas indicativo
+            maxQueueDepth = depth;
+        }
+
+        Thread thread = actuationThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Laço da thread de atuação: drena a fila e, enquanto o cursor estiver a
+     * caminho do alvo, emite uma posição interpolada a cada período de saída
+     */
+    private void runActuationLoop() {
+        long nextTick = 0;
+        while (running) {
+            try {
+                drainQueue();
+                long pendingWait = earliest(flushDueChannels(System.nanoTime()), scrollEngine.tick(System.nanoTime()));
+
+                if (!interpolating) {
+                    nextTick = 0;
+                    lastTickNanos = 0;
+                    if (commandQueue.isEmpty()) {
+                        // Um unpark feito entre a verificação e o park não se perde (fica como permissão)
+                        if (pendingWait > 0) {
+                            LockSupport.parkNanos(this, pendingWait);
+                        } else {
+                            LockSupport.park(this);
+                        }
+                    }
+                    continue;
+                }
+
+                long now = System.nanoTime();
+                if (nextTick == 0) {
+                    nextTick = now;
+                }
+                if (now < nextTick) {
+                    // Acorda antes se chegar comando ou vencer uma pendência; o prazo do tick é mantido
+                    long wait = nextTick - now;
+                    LockSupport.parkNanos(this, pendingWait > 0 ? Math.min(wait, pendingWait) : wait);
+                    continue;
+                }
+
+                emitInterpolated(now);
+                nextTick += outputPeriodNanos;
+                if (now - nextTick > outputPeriodNanos) {
+                    // Atrasou mais de um período: ressincroniza em vez de emitir em rajada
+                    nextTick = now + outputPeriodNanos;
+                }
+            } catch (Exception e) {
+                logger.error("❌ Erro na thread de atuação: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Menor de dois tempos de espera, onde 0 significa "nada pendente"
+     */
+    private static long earliest(long first, long second) {
+        if (first == 0) {
+            return second;
+        }
+        return second == 0 ? first : Math.min(first, second);
+    }
+
+    /**
+     * Executa os comandos enfileirados, em ordem
+     */
+    private void drainQueue() {
+        Command command;
+        while ((command = commandQueue.poll()) != null) {
+            queueDepth.decrementAndGet();
+            execute(command);
+        }
+    }
+
+    /**
+     * Entrega as pendências cujo balde já tem ficha
+     *
+     * @return tempo até a próxima pendência poder ser entregue, ou 0 se não houver
+     */
+    private long flushDueChannels(long now) {
+        long wait = 0;
+        for (ContinuousChannel channel : channels.values()) {
+            if (channel.latest == null) {
+                continue;
+            }
+            // Canais compartilhados aparecem duas vezes; a segunda visita já encontra latest nulo
+            if (channel.bucket.tryAcquire(now)) {
+                flush(channel);
+            } else {
+                long until = Math.max(1, channel.bucket.nanosUntilAvailable(now));
+                wait = wait == 0 ? until : Math.min(wait, until);
+            }
+        }
+        return wait;
+    }
+
+    /**
+     * Entrega todas as pendências sem consultar os baldes (antes de um evento discreto)
+     */
+    private void flushAllChannels() {
+        for (ContinuousChannel channel : channels.values()) {
+            if (channel.latest != null) {
+                flush(channel);
+            }
+        }
+    }
+
+    /**
+     * Coalesce um evento contínuo no seu canal e o entrega se houver ficha
+     */
+    private void throttle(Command command) {
+        ContinuousChannel channel = channels.get(command.type);
+        if (channel.latest != null) {
+            coalescedByType.incrementAndGet(channel.latest.type.ordinal());
+            if (channel.latest.type != command.type) {
+                // Zoom in e zoom out se anulam; trocar de movimento para arrasto não soma nada
+                channel.amount = -channel.amount;
+            }
+        }
+        channel.latest = command;
+        channel.amount += amountOf(command);
+
+        if (channel.bucket.tryAcquire(System.nanoTime())) {
+            flush(channel);
+        }
+    }
+
+    private static int amountOf(Command command) {
+        switch (command.type) {
+            case ZOOM_IN:
+            case ZOOM_OUT:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private void flush(ContinuousChannel channel) {
+        Command command = channel.latest;
+        int amount = channel.amount;
+        channel.latest = null;
+        channel.amount = 0;
+        deliver(command, amount);
+    }
+
+    /**
+     * Executa um comando na thread de atuação
+     */
+    private void execute(Command command) {
+        if (command.step != Step.EVENT) {
+            // Passos agendados sempre executam, para nunca deixar um botão pressionado
+            executeStep(command);
+            pendingSteps--;
+            if (pendingSteps <= 0) {
+                pendingSteps = 0;
+                releaseDeferred();
+            }
+            return;
+        }
+
+        if (!deferredCommands.isEmpty() || (pendingSteps > 0 && !channels.containsKey(command.type))) {
+            // Um evento discreto não começa antes de a sequência de clique anterior
+            // terminar; o que chega depois dele espera junto, preservando a ordem
+            deferredCommands.add(command);
+            return;
+        }
+        dispatch(command);
+    }
+
+    /**
+     * Despacha um evento de toque conforme a política do seu tipo
+     */
+    private void dispatch(Command command) {
+        if (command.type == TouchEvent.EventType.SCROLL_VERTICAL
+                || command.type == TouchEvent.EventType.SCROLL_HORIZONTAL) {
+            if (!isEnabled.get()) {
+                skippedCommands++;
+                return;
+            }
+            // A posição da mão alimenta o motor de scroll; os giros saem na cadência dele
+            boolean horizontal = command.type == TouchEvent.EventType.SCROLL_HORIZONTAL;
+            scrollEngine.onSample(horizontal, horizontal ? command.x : command.y, System.nanoTime());
+            deliveredByType.incrementAndGet(command.type.ordinal());
+            lastEventTime = command.enqueuedMillis;
+            recordLatency(command);
             return;
         }
 
-        long currentTime = System.currentTimeMillis();
+        if (channels.containsKey(command.type)) {
+            if (!isEnabled.get()) {
+                skippedCommands++;
+                return;
+            }
+            throttle(command);
+            return;
+        }
 
-        // Verifica se há tempo suficiente desde o último evento
-        if (currentTime - lastEventTime < MIN_EVENT_INTERVAL) {
+        // Desabilitado, o único efeito possível é soltar um botão que ficou preso
+        if (!isEnabled.get()) {
+            if (isDragging) {
+                handleDragEnd();
+            }
+            skippedCommands++;
             return;
         }
 
+        // Evento discreto: entrega garantida, depois do que estava pendente e com o cursor no alvo.
+        // Também interrompe a inércia do scroll, como um toque numa lista em movimento.
+        flushAllChannels();
+        scrollEngine.stop();
+        finishMove();
+        deliver(command, 0);
+    }
+
+    /**
+     * Injeta um evento e registra a latência de injeção
+     */
+    private void deliver(Command command, int amount) {
         try {
-            switch (touchEvent.getEventType()) {
+            switch (command.type) {
                 case MOUSE_MOVE:
-                    handleMouseMove(touchEvent);
+                    handleMouseMove(command);
                     break;
                 case MOUSE_CLICK:
-                    handleMouseClick(touchEvent);
+                    handleMouseClick();
+                    confirmPointer();
                     break;
                 case MOUSE_RIGHT_CLICK:
-                    handleRightClick(touchEvent);
+                    handleRightClick();
+                    confirmPointer();
                     break;
                 case MOUSE_DOUBLE_CLICK:
-                    handleDoubleClick(touchEvent);
+                    handleDoubleClick();
+                    confirmPointer();
                     break;
                 case MOUSE_DRAG_START:
-                    handleDragStart(touchEvent);
+                    handleDragStart();
                     break;
                 case MOUSE_DRAG_MOVE:
-                    handleDragMove(touchEvent);
+                    handleDragMove(command);
                     break;
                 case MOUSE_DRAG_END:
-                    handleDragEnd(touchEvent);
-                    break;
-                case SCROLL_VERTICAL:
-                    handleScrollVertical(touchEvent);
-                    break;
-                case SCROLL_HORIZONTAL:
-                    handleScrollHorizontal(touchEvent);
+                    handleDragEnd();
+                    confirmPointer();
                     break;
                 case ZOOM_IN:
-                    handleZoomIn(touchEvent);
+                    handleZoom(-amount);
                     break;
                 case ZOOM_OUT:
-                    handleZoomOut(touchEvent);
+                    handleZoom(amount);
                     break;
                 default:
-                    logger.debug("⚠️ Tipo de evento não suportado: {}", touchEvent.getEventType());
+                    logger.debug("⚠️ Tipo de evento não suportado: {}", command.type);
                     break;
             }
 
-            lastEventTime = currentTime;
+            deliveredByType.incrementAndGet(command.type.ordinal());
+            lastEventTime = command.enqueuedMillis;
 
         } catch (Exception e) {
+            failedCommands++;
             logger.error("❌ Erro ao processar evento de toque: {}", e.getMessage());
         }
+
+        recordLatency(command);
+    }
+
+    /**
+     * Executa os eventos retidos até que um deles inicie outra sequência de clique
+     */
+    private void releaseDeferred() {
+        Command command;
+        while (pendingSteps == 0 && (command = deferredCommands.poll()) != null) {
+            dispatch(command);
+        }
+    }
+
+    /**
+     * Executa um passo agendado de uma sequência de clique
+     */
+    private void executeStep(Command command) {
+        try {
+            if (command.step == Step.PRESS) {
+                inputSink.mousePress(command.x);
+            } else {
+                inputSink.mouseRelease(command.x);
+            }
+        } catch (Exception e) {
+            failedCommands++;
+            logger.error("❌ Erro ao executar passo de clique: {}", e.getMessage());
+        }
+        recordLatency(command);
+    }
+
+    private void recordLatency(Command command) {
+        long latency = System.nanoTime() - command.enqueuedNanos;
+        executedCommands++;
+        totalLatencyNanos += latency;
+        lastLatencyNanos = latency;
+        if (latency > maxLatencyNanos) {
+            maxLatencyNanos = latency;
+        }
     }
 
     /**
      * Manipula movimento do mouse
      */
-    private void handleMouseMove(TouchEvent touchEvent) {
+    private void handleMouseMove(Command command) {
         if (coordinateMappingService == null) {
             return;
         }
 
-        int[] screenCoords = coordinateMappingService.mapToScreenCoordinates(
-                touchEvent.getScreenX(), touchEvent.getScreenY());
+        int[] screenCoords = coordinateMappingService.mapPointer(command.x, command.y);
+        moveTo(screenCoords[0], screenCoords[1]);
+    }
+
+    /**
+     * Define um novo alvo para o cursor; sem interpolação move direto
+     */
+    private void moveTo(int x, int y) {
+        lastX = x;
+        lastY = y;
 
-        robot.mouseMove(screenCoords[0], screenCoords[1]);
-        lastX = screenCoords[0];
-        lastY = screenCoords[1];
+        long now = System.nanoTime();
+        if (outputPeriodNanos <= 0 || !hasCursor) {
+            inputSink.mouseMove(x, y);
+            outputMoves++;
+            cursorX = x;
+            cursorY = y;
+            hasCursor = true;
+            targetNanos = now;
+            return;
+        }
+
+        // Estima o período de entrada para atravessar o trecho em um quadro da câmera
+        long gap = now - targetNanos;
+        if (gap > 0 && gap < MAX_INPUT_PERIOD_NANOS) {
+            inputPeriodNanos = (inputPeriodNanos * 4 + gap) / 5;
+        }
+
+        fromX = cursorX;
+        fromY = cursorY;
+        targetX = x;
+        targetY = y;
+        targetNanos = now;
+        interpolating = true;
+    }
+
+    /**
+     * Emite a posição interpolada entre a posição anterior e o alvo
+     */
+    private void emitInterpolated(long now) {
+        double t = (double) (now - targetNanos) / Math.max(inputPeriodNanos, outputPeriodNanos);
+        if (t >= 1.0) {
+            t = 1.0;
+            interpolating = false;
+        }
+
+        int x = (int) Math.round(fromX + (targetX - fromX) * t);
+        int y = (int) Math.round(fromY + (targetY - fromY) * t);
+        if (x != cursorX || y != cursorY) {
+            inputSink.mouseMove(x, y);
+            outputMoves++;
+            cursorX = x;
+            cursorY = y;
+        }
+
+        if (lastTickNanos != 0) {
+            long jitter = Math.abs(now - lastTickNanos - outputPeriodNanos);
+            jitterSamples++;
+            jitterSumNanos += jitter;
+            jitterSumSquares += (double) jitter * jitter;
+            if (jitter > maxJitterNanos) {
+                maxJitterNanos = jitter;
+            }
+        }
+        lastTickNanos = interpolating ? now : 0;
+    }
+
+    /**
+     * Conclui a interpolação em andamento, posicionando o cursor no alvo
+     */
+    private void finishMove() {
+        if (!interpolating) {
+            return;
+        }
+        interpolating = false;
+        lastTickNanos = 0;
+        if (cursorX != targetX || cursorY != targetY) {
+            inputSink.mouseMove(targetX, targetY);
+            outputMoves++;
+            cursorX = targetX;
+            cursorY = targetY;
+        }
+    }
+
+    /**
+     * Informa ao refinamento da calibração que houve um clique ou fim de arrasto
+     */
+    private void confirmPointer() {
+        if (calibrationRefinementService != null) {
+            calibrationRefinementService.onPointerConfirmed();
+        }
     }
 
     /**
      * Manipula clique do mouse
      */
-    private void handleMouseClick(TouchEvent touchEvent) {
-        robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
-        robot.delay(CLICK_DELAY);
-        robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
+    private void handleMouseClick() {
+        inputSink.mousePress(InputEvent.BUTTON1_DOWN_MASK);
+        scheduleStep(Step.RELEASE, InputEvent.BUTTON1_DOWN_MASK, CLICK_DELAY);
     }
 
     /**
      * Manipula clique direito do mouse
      */
-    private void handleRightClick(TouchEvent touchEvent) {
-        robot.mousePress(InputEvent.BUTTON3_DOWN_MASK);
-        robot.delay(CLICK_DELAY);
-        robot.mouseRelease(InputEvent.BUTTON3_DOWN_MASK);
+    private void handleRightClick() {
+        inputSink.mousePress(InputEvent.BUTTON3_DOWN_MASK);
+        scheduleStep(Step.RELEASE, InputEvent.BUTTON3_DOWN_MASK, CLICK_DELAY);
     }
 
     /**
      * Manipula duplo clique do mouse
      */
-    private void handleDoubleClick(TouchEvent touchEvent) {
-        handleMouseClick(touchEvent);
-        robot.delay(DOUBLE_CLICK_DELAY);
-        handleMouseClick(touchEvent);
+    private void handleDoubleClick() {
+        handleMouseClick();
+        scheduleStep(Step.PRESS, InputEvent.BUTTON1_DOWN_MASK, doubleClickGapMillis);
+        scheduleStep(Step.RELEASE, InputEvent.BUTTON1_DOWN_MASK, doubleClickGapMillis + CLICK_DELAY);
+    }
+
+    /**
+     * Agenda um passo de clique; no vencimento ele volta para a fila de atuação
+     */
+    private void scheduleStep(Step step, int buttonMask, long delayMillis) {
+        pendingSteps++;
+        try {
+            actuationTimer.schedule(() -> enqueue(new Command(null, step, buttonMask, 0)),
+                    delayMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Timer encerrado: executa o passo imediatamente para não prender o botão
+            pendingSteps--;
+            executeStep(new Command(null, step, buttonMask, 0));
+        }
     }
 
     /**
      * Manipula início do arrastar
      */
-    private void handleDragStart(TouchEvent touchEvent) {
+    private void handleDragStart() {
         isDragging = true;
         dragStartX = lastX;
         dragStartY = lastY;
-        robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
+        inputSink.mousePress(InputEvent.BUTTON1_DOWN_MASK);
     }
 
     /**
      * Manipula movimento durante arrastar
      */
-    private void handleDragMove(TouchEvent touchEvent) {
+    private void handleDragMove(Command command) {
         if (!isDragging) {
             return;
         }
@@ -209,57 +955,42 @@ public class MouseSimulationService {
             return;
         }
 
-        int[] screenCoords = coordinateMappingService.mapToScreenCoordinates(
-                touchEvent.getScreenX(), touchEvent.getScreenY());
-
-        robot.mouseMove(screenCoords[0], screenCoords[1]);
-        lastX = screenCoords[0];
-        lastY = screenCoords[1];
+        int[] screenCoords = coordinateMappingService.mapPointer(command.x, command.y);
+        moveTo(screenCoords[0], screenCoords[1]);
     }
 
     /**
      * Manipula fim do arrastar
      */
-    private void handleDragEnd(TouchEvent touchEvent) {
+    private void handleDragEnd() {
         isDragging = false;
-        robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
+        inputSink.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
     }
 
     /**
-     * Manipula scroll vertical
+     * Emite giros da roda do motor de scroll
      */
-    private void handleScrollVertical(TouchEvent touchEvent) {
-        int scrollAmount = (int) (touchEvent.getScreenY() * 3); // Sensibilidade do scroll
-        robot.mouseWheel(scrollAmount);
-    }
-
-    /**
-     * Manipula scroll horizontal
-     */
-    private void handleScrollHorizontal(TouchEvent touchEvent) {
-        // Simula scroll horizontal com Ctrl + scroll
-        robot.keyPress(KeyEvent.VK_CONTROL);
-        int scrollAmount = (int) (touchEvent.getScreenX() * 3);
-        robot.mouseWheel(scrollAmount);
-        robot.keyRelease(KeyEvent.VK_CONTROL);
-    }
-
-    /**
-     * Manipula zoom in
-     */
-    private void handleZoomIn(TouchEvent touchEvent) {
-        robot.keyPress(KeyEvent.VK_CONTROL);
-        robot.mouseWheel(-3);
-        robot.keyRelease(KeyEvent.VK_CONTROL);
+    private void emitWheel(boolean horizontal, int ticks) {
+        if (horizontal) {
+            // Shift + roda é o scroll horizontal na maioria das aplicações (Ctrl + roda faz zoom)
+            inputSink.keyPress(KeyEvent.VK_SHIFT);
+            inputSink.mouseWheel(ticks);
+            inputSink.keyRelease(KeyEvent.VK_SHIFT);
+        } else {
+            inputSink.mouseWheel(ticks);
+        }
     }
 
     /**
-     * Manipula zoom out
+     * Manipula zoom: passos negativos aproximam, positivos afastam
      */
-    private void handleZoomOut(TouchEvent touchEvent) {
-        robot.keyPress(KeyEvent.VK_CONTROL);
-        robot.mouseWheel(3);
-        robot.keyRelease(KeyEvent.VK_CONTROL);
+    private void handleZoom(int steps) {
+        if (steps == 0) {
+            return;
+        }
+        inputSink.keyPress(KeyEvent.VK_CONTROL);
+        inputSink.mouseWheel(steps * 3);
+        inputSink.keyRelease(KeyEvent.VK_CONTROL);
     }
 
     /**
@@ -267,6 +998,13 @@ public class MouseSimulationService {
      */
     public void setEnabled(boolean enabled) {
         isEnabled.set(enabled);
+        if (!enabled) {
+            cancelReplay();
+        }
+        if (!enabled && isDragging && inputSink != null) {
+            // Não deixa o botão preso ao desabilitar no meio de um arrasto
+            enqueue(new Command(TouchEvent.EventType.MOUSE_DRAG_END, 0, 0));
+        }
         logger.info("🤖 Mouse simulation {}", enabled ? "enabled" : "disabled");
     }
 
@@ -311,4 +1049,84 @@ public class MouseSimulationService {
     public long getLastEventTime() {
         return lastEventTime;
     }
+
+    /**
+     * Descarta a gravação; retorna false se o backend de gravação não estiver ativo
+     */
+    public boolean clearRecording() {
+        RecordingInputSink recording = getRecordingSink();
+        if (recording == null) {
+            return false;
+        }
+        recording.clear();
+        return true;
+    }
+
+    /**
+     * Backend de gravação ativo, se houver
+     */
+    public RecordingInputSink getRecordingSink() {
+        MeteredInputSink sink = inputSink;
+        return sink != null && sink.getDelegate() instanceof RecordingInputSink recording ? recording : null;
+    }
+
+    /**
+     * Métricas da fila e da latência de injeção (do enfileiramento ao fim da chamada ao Robot)
+     */
+    public Map<String, Object> getActuationMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        long executed = executedCommands;
+        metrics.put("running", running && actuationThread != null && actuationThread.isAlive());
+        metrics.put("queueDepth", Math.max(0, queueDepth.get()));
+        metrics.put("maxQueueDepth", maxQueueDepth);
+        metrics.put("enqueued", enqueuedCommands.get());
+        metrics.put("executed", executed);
+        metrics.put("skipped", skippedCommands);
+        metrics.put("failed", failedCommands);
+        metrics.put("avgLatencyMicros", executed > 0 ? totalLatencyNanos / executed / 1000.0 : 0.0);
+        metrics.put("maxLatencyMicros", maxLatencyNanos / 1000.0);
+        metrics.put("lastLatencyMicros", lastLatencyNanos / 1000.0);
+
+        ScrollEngine scroll = scrollEngine;
+        if (scroll != null) {
+            Map<String, Object> scrolling = new HashMap<>();
+            scrolling.put("samples", scroll.getSamples());
+            scrolling.put("wheelEvents", scroll.getEmittedEvents());
+            scrolling.put("wheelTicks", scroll.getEmittedTicks());
+            scrolling.put("flings", scroll.getFlings());
+            metrics.put("scroll", scrolling);
+        }
+
+        Map<String, Object> batches = new HashMap<>();
+        batches.put("received", batchesReceived.get());
+        batches.put("eventsAccepted", batchEventsAccepted.get());
+        batches.put("eventsRejected", batchEventsRejected.get());
+        metrics.put("batches", batches);
+
+        MeteredInputSink sink = inputSink;
+        metrics.put("inputSink", sink != null ? sink.getMetrics() : null);
+
+        long samples = jitterSamples;
+        double meanJitter = samples > 0 ? (double) jitterSumNanos / samples : 0.0;
+        metrics.put("outputRateHz", outputPeriodNanos > 0 ? 1_000_000_000L / outputPeriodNanos : 0);
+        Map<String, Object> byType = new HashMap<>();
+        for (TouchEvent.EventType type : TouchEvent.EventType.values()) {
+            long delivered = deliveredByType.get(type.ordinal());
+            long coalesced = coalescedByType.get(type.ordinal());
+            if (delivered > 0 || coalesced > 0) {
+                Map<String, Object> counters = new HashMap<>();
+                counters.put("delivered", delivered);
+                counters.put("coalesced", coalesced);
+                counters.put("rateLimited", channels.containsKey(type));
+                byType.put(type.name(), counters);
+            }
+        }
+        metrics.put("events", byType);
+        metrics.put("outputMoves", outputMoves);
+        metrics.put("jitterSamples", samples);
+        metrics.put("meanJitterMicros", meanJitter / 1000.0);
+        metrics.put("rmsJitterMicros", samples > 0 ? Math.sqrt(jitterSumSquares / samples) / 1000.0 : 0.0);
+        metrics.put("maxJitterMicros", maxJitterNanos / 1000.0);
+        return metrics;
+    }
 }
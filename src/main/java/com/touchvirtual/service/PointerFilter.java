@@ -0,0 +1,125 @@
+package com.touchvirtual.service;
+
+import com.touchvirtual.model.DisplayInfo;
+import com.touchvirtual.model.UserSettings;
+
+/**
+ * Estado de filtragem de um ponteiro (deadband no modo absoluto e modo relativo)
+ *
+ * Cada instância pertence a uma única thread do pipeline de eventos; apenas a
+ * última posição da câmera é publicada como volatile para monitoramento.
+ * A transformação em si vem sempre de um {@link MappingSnapshot} imutável.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+class PointerFilter {
+
+    // Acima deste intervalo o movimento relativo recomeça sem salto
+    private static final long RELATIVE_RESET_NANOS = 200_000_000L;
+
+    // Última posição da câmera aceita pelo deadband (lida por outras threads)
+    private volatile double lastX;
+    private volatile double lastY;
+    private int[] lastOutput;
+    private long lastSnapshotVersion = -1;
+
+    // Estado do modo relativo (posição com acumulação de subpixel)
+    private int pointerX, pointerY;
+    private double remainderX, remainderY;
+    private double lastRelativeX, lastRelativeY;
+    private long lastRelativeNanos;
+
+    /**
+     * Aplica deadband e, no modo relativo, a aceleração sobre o snapshot atual
+     */
+    int[] filter(MappingSnapshot snapshot, double cameraX, double cameraY) {
+        // Snapshot novo (calibração, monitor ou ajustes) invalida a saída anterior
+        if (snapshot.getVersion() != lastSnapshotVersion) {
+            lastSnapshotVersion = snapshot.getVersion();
+            lastOutput = null;
+        }
+
+        boolean relative = snapshot.getPointerMode() == UserSettings.PointerMode.RELATIVE;
+
+        // Aplica deadband para reduzir tremores. Só no modo absoluto: no relativo
+        // cada frame precisa avançar a referência da mão, e o tremor já é contido
+        // pelo ganho baixo da curva de aceleração em velocidades baixas
+        if (!relative && lastOutput != null
+                && Math.abs(cameraX - lastX) < snapshot.getDeadband()
+                && Math.abs(cameraY - lastY) < snapshot.getDeadband()) {
+            return lastOutput.clone();
+        }
+
+        int[] screenCoords;
+        if (relative) {
+            // Modo relativo: o deslocamento da mão move o cursor com aceleração
+            double[] corrected = snapshot.correctDistortion(cameraX, cameraY);
+            screenCoords = mapRelative(snapshot, corrected[0], corrected[1]);
+        } else {
+            screenCoords = snapshot.map(cameraX, cameraY);
+        }
+
+        lastX = cameraX;
+        lastY = cameraY;
+        lastOutput = screenCoords.clone();
+
+        return screenCoords;
+    }
+
+    /**
+     * Move o cursor pelo deslocamento da mão, com ganho da curva de aceleração
+     * indexado pela velocidade e acumulação do resto fracionário
+     */
+    private int[] mapRelative(MappingSnapshot snapshot, double cameraX, double cameraY) {
+        DisplayInfo display = snapshot.getDisplay();
+        long now = System.nanoTime();
+        long elapsed = now - lastRelativeNanos;
+
+        // Primeiro uso ou cursor fora do monitor alvo: começa no centro
+        if (lastRelativeNanos == 0 || pointerX < display.getX() || pointerX >= display.getX() + display.getWidth()
+                || pointerY < display.getY() || pointerY >= display.getY() + display.getHeight()) {
+            pointerX = display.getX() + display.getWidth() / 2;
+            pointerY = display.getY() + display.getHeight() / 2;
+            remainderX = 0.0;
+            remainderY = 0.0;
+        }
+
+        // Após uma pausa, apenas reposiciona a referência da mão
+        if (lastRelativeNanos == 0 || elapsed <= 0 || elapsed > RELATIVE_RESET_NANOS) {
+            lastRelativeX = cameraX;
+            lastRelativeY = cameraY;
+            lastRelativeNanos = now;
+            return new int[]{pointerX, pointerY};
+        }
+
+        double dx = cameraX - lastRelativeX;
+        double dy = cameraY - lastRelativeY;
+        if (snapshot.isLeftHanded()) {
+            dx = -dx;
+        }
+
+        double velocity = Math.sqrt(dx * dx + dy * dy) / (elapsed / 1_000_000_000.0);
+        double gain = snapshot.getAccelerationCurve().gain(velocity) * snapshot.getSensitivity();
+
+        double moveX = dx * display.getWidth() * gain + remainderX;
+        double moveY = dy * display.getHeight() * gain + remainderY;
+        int stepX = (int) moveX;
+        int stepY = (int) moveY;
+        remainderX = moveX - stepX;
+        remainderY = moveY - stepY;
+
+        pointerX = display.clampX(pointerX + stepX);
+        pointerY = display.clampY(pointerY + stepY);
+
+        lastRelativeX = cameraX;
+        lastRelativeY = cameraY;
+        lastRelativeNanos = now;
+
+        return new int[]{pointerX, pointerY};
+    }
+
+    double getLastX() { return lastX; }
+
+    double getLastY() { return lastY; }
+}
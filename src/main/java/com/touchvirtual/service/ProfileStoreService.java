@@ -0,0 +1,227 @@
+package com.touchvirtual.service;
+
+import com.touchvirtual.config.ProfileStoreConfig;
+import com.touchvirtual.model.CalibrationData;
+import com.touchvirtual.model.DisplayInfo;
+import com.touchvirtual.model.UserSettings;
+import com.touchvirtual.util.ProfileCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Armazenamento local de perfis por usuário e monitor
+ *
+ * Cada perfil é um arquivo binário ({@link ProfileCodec}) com pontos de
+ * calibração, grade de distorção, spline ajustado, filtros e limiares de
+ * gestos. A gravação usa arquivo temporário + rename atômico, então um perfil
+ * nunca fica pela metade; o perfil inicial é lido numa única operação na
+ * subida, sem refazer o ajuste da calibração.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Service
+public class ProfileStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileStoreService.class);
+
+    private static final String EXTENSION = ".tvp";
+
+    @Autowired
+    @Lazy
+    private ProfileStoreConfig profileStoreConfig;
+
+    @Autowired
+    @Lazy
+    private UserSettings userSettings;
+
+    @Autowired
+    @Lazy
+    private CoordinateMappingService coordinateMappingService;
+
+    // Estatísticas
+    private volatile long lastLoadMicros;
+    private volatile long lastSaveMicros;
+    private volatile long saveCount;
+    private volatile String activeProfile;
+
+    @PostConstruct
+    public void initialize() {
+        if (!profileStoreConfig.isEnabled()) {
+            logger.info("💾 Armazenamento de perfis desativado");
+            return;
+        }
+        loadProfile(profileStoreConfig.getUserId(), profileStoreConfig.getDisplayId());
+    }
+
+    /**
+     * Carrega o perfil de um usuário/monitor e aplica aos ajustes e ao mapeamento
+     *
+     * @return true se o perfil existia e foi aplicado
+     */
+    public synchronized boolean loadProfile(String userId, String displayId) {
+        if (!profileStoreConfig.isEnabled()) {
+            return false;
+        }
+
+        Path file = resolveFile(userId, displayId);
+        if (!Files.exists(file)) {
+            logger.info("💾 Nenhum perfil salvo para {}@{}, usando padrões", userId, normalizeDisplay(displayId));
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            // Leitura única para o heap; um mapeamento manteria o arquivo
+            // preso no Windows e impediria o rename da próxima gravação
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+
+            CalibrationData calibration = new CalibrationData();
+            ProfileCodec.DecodeResult result = ProfileCodec.decode(buffer, userSettings, calibration);
+            if (calibration.getTargetDisplay() == null) {
+                calibration.setTargetDisplay(normalizeDisplay(displayId));
+            }
+
+            coordinateMappingService.setCalibrationData(calibration);
+            coordinateMappingService.refreshSnapshot();
+
+            lastLoadMicros = (System.nanoTime() - start) / 1000;
+            activeProfile = file.getFileName().toString();
+            logger.info("💾 Perfil {} carregado em {} µs ({} pontos, schema v{})", activeProfile,
+                    lastLoadMicros, calibration.getCalibrationPoints().size(), result.getSchemaVersion());
+
+            // Regrava perfis antigos no formato atual
+            if (result.isMigrated()) {
+                logger.info("🔧 Perfil migrado para o schema v{}", ProfileCodec.SCHEMA_VERSION);
+                saveProfile();
+            }
+            return true;
+
+        } catch (Exception e) {
+            logger.error("❌ Erro ao carregar perfil {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Salva o perfil atual (usuário + monitor alvo da calibração em uso)
+     */
+    public synchronized boolean saveProfile() {
+        if (!profileStoreConfig.isEnabled()) {
+            return false;
+        }
+
+        CalibrationData calibration = coordinateMappingService.getCalibrationData();
+        Path file = resolveFile(userSettings.getUserId(), calibration.getTargetDisplay());
+
+        long start = System.nanoTime();
+        Path temp = null;
+        try {
+            byte[] bytes = ProfileCodec.encode(userSettings, calibration);
+
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            lastSaveMicros = (System.nanoTime() - start) / 1000;
+            saveCount++;
+            activeProfile = file.getFileName().toString();
+            logger.info("💾 Perfil {} salvo ({} bytes em {} µs)", activeProfile, bytes.length, lastSaveMicros);
+            return true;
+
+        } catch (Exception e) {
+            logger.error("❌ Erro ao salvar perfil {}: {}", file, e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Não impede o retorno; o perfil anterior continua intacto
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Lista os perfis salvos
+     */
+    public List<String> listProfiles() {
+        List<String> profiles = new ArrayList<>();
+        Path directory = Paths.get(profileStoreConfig.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            return profiles;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                profiles.add(name.substring(0, name.length() - EXTENSION.length()));
+            }
+        } catch (IOException e) {
+            logger.warn("⚠️ Erro ao listar perfis: {}", e.getMessage());
+        }
+        return profiles;
+    }
+
+    /**
+     * Obtém estatísticas do armazenamento
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", profileStoreConfig.isEnabled());
+        stats.put("directory", profileStoreConfig.getDirectory());
+        stats.put("schemaVersion", ProfileCodec.SCHEMA_VERSION);
+        stats.put("activeProfile", activeProfile);
+        stats.put("lastLoadMicros", lastLoadMicros);
+        stats.put("lastSaveMicros", lastSaveMicros);
+        stats.put("saveCount", saveCount);
+        return stats;
+    }
+
+    /**
+     * Caminho do arquivo de um perfil (usuario@monitor.tvp)
+     */
+    private Path resolveFile(String userId, String displayId) {
+        String name = sanitize(userId != null ? userId : "default") + "@" + sanitize(normalizeDisplay(displayId));
+        return Paths.get(profileStoreConfig.getDirectory()).resolve(name + EXTENSION);
+    }
+
+    private static String normalizeDisplay(String displayId) {
+        return displayId != null ? displayId : DisplayInfo.PRIMARY_ID;
+    }
+
+    private static String sanitize(String value) {
+        return value.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
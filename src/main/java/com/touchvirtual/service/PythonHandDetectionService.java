@@ -1,20 +1,26 @@
 package com.touchvirtual.service;
 
+import com.touchvirtual.dto.DetectorStateUpdate;
+import com.touchvirtual.model.DetectorState;
 import com.touchvirtual.model.HandLandmark;
 import com.touchvirtual.config.CameraConfig;
+import com.touchvirtual.config.PythonServiceConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.http.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -29,15 +35,47 @@ public class PythonHandDetectionService {
     @Autowired
     private CameraConfig cameraConfig;
 
-    private RestTemplate restTemplate;
+    @Autowired
+    @Lazy
+    private CalibrationService calibrationService;
+
+    @Autowired
+    private PythonServiceClient pythonServiceClient;
+
+    @Autowired
+    private PythonServiceConfig pythonServiceConfig;
+
+    @Autowired
+    @Lazy
+    private BroadcastPublisher broadcastPublisher;
+
     private ObjectMapper objectMapper;
     private ScheduledExecutorService executor;
     private AtomicBoolean isRunning;
     private AtomicBoolean isInitialized;
     private List<HandLandmark> lastDetectedLandmarks;
     private double lastDetectionConfidence;
-
-    private static final String PYTHON_SERVICE_URL = "http://localhost:5000/api/hand-detection";
+    private long frameSequence;
+
+    // Liveness derivada do fluxo de frames: o serviço só é sondado quando os frames param.
+    // Sem mão na imagem o Python continua enviando frames vazios em baixa cadência
+    private static final long LIVENESS_CHECK_MILLIS = 250;
+    private static final double FRAME_INTERVAL_ALPHA = 0.1;
+    private static final Set<DetectorState> PROBING = EnumSet.of(DetectorState.STALLED, DetectorState.DOWN);
+
+    private final Object livenessLock = new Object();
+    private volatile DetectorState detectorState = DetectorState.STOPPED;
+    private long stateSince = System.currentTimeMillis();
+    private long lastFrameAt;
+    private double frameIntervalMillis;
+    private long nextProbeAt;
+    private long probeDelayMillis;
+
+    // Métricas de liveness
+    private final AtomicLong probes = new AtomicLong();
+    private final AtomicLong restarts = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong transitions = new AtomicLong();
 
     @PostConstruct
     public void initialize() {
@@ -47,7 +85,6 @@ public class PythonHandDetectionService {
         this.isInitialized = new AtomicBoolean(false);
         this.lastDetectedLandmarks = new ArrayList<>();
         this.lastDetectionConfidence = 0.0;
-        this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
 
         logger.info("✅ Serviço de detecção de mãos Python inicializado");
@@ -92,8 +129,9 @@ public class PythonHandDetectionService {
         }
 
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(
-                    PYTHON_SERVICE_URL + "/status", Map.class);
+            // Consultas próximas reaproveitam a última resposta
+            ResponseEntity<Map> response = pythonServiceClient.getCached(
+                    PythonServiceClient.HAND_DETECTION, "/status", Map.class);
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Map<String, Object> status = response.getBody();
@@ -129,15 +167,23 @@ public class PythonHandDetectionService {
                 return;
             }
 
+            synchronized (livenessLock) {
+                lastFrameAt = 0;
+                frameIntervalMillis = 0;
+                nextProbeAt = 0;
+                probeDelayMillis = pythonServiceConfig.getProbeInitialMillis();
+            }
+            transition(EnumSet.allOf(DetectorState.class), DetectorState.STARTING);
+
             executor = Executors.newSingleThreadScheduledExecutor();
 
-            executor.scheduleAtFixedRate(() -> {
+            executor.scheduleWithFixedDelay(() -> {
                 try {
-                    checkPythonHealth();
+                    checkLiveness();
                 } catch (Exception e) {
                     logger.error("❌ Erro no processamento: {}", e.getMessage());
                 }
-            }, 0, 1000, TimeUnit.MILLISECONDS);
+            }, LIVENESS_CHECK_MILLIS, LIVENESS_CHECK_MILLIS, TimeUnit.MILLISECONDS);
 
             logger.info("🔄 Processamento iniciado em background");
         }
@@ -159,6 +205,7 @@ public class PythonHandDetectionService {
                     Thread.currentThread().interrupt();
                 }
             }
+            transition(EnumSet.allOf(DetectorState.class), DetectorState.STOPPED);
             logger.info("⏹️ Processamento parado");
         }
     }
@@ -175,26 +222,15 @@ public class PythonHandDetectionService {
             logger.info("🐍 Inicializando serviço Python...");
 
             // Verifica se o serviço Python está rodando
-            ResponseEntity<Map> healthResponse = restTemplate.getForEntity(
-                    PYTHON_SERVICE_URL + "/health", Map.class);
+            ResponseEntity<Map> healthResponse = pythonServiceClient.get(
+                    PythonServiceClient.HAND_DETECTION, "/health", Map.class);
 
             if (healthResponse.getStatusCode() != HttpStatus.OK) {
                 throw new RuntimeException("Serviço Python não está respondendo");
             }
 
             // Inicia o serviço de detecção
-            Map<String, Object> startRequest = new HashMap<>();
-            startRequest.put("camera_index", cameraConfig.getDeviceIndex());
-            startRequest.put("fps", cameraConfig.getFps());
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(startRequest, headers);
-
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                    PYTHON_SERVICE_URL + "/start", request, Map.class);
-
-            if (response.getStatusCode() == HttpStatus.OK) {
+            if (requestStart()) {
                 logger.info("✅ Serviço Python iniciado com sucesso");
                 isInitialized.set(true);
             } else {
@@ -210,20 +246,163 @@ public class PythonHandDetectionService {
     }
 
     /**
-     * Verifica saúde do serviço Python
+     * Pede ao serviço Python para iniciar a captura com a câmera e o fps configurados
+     */
+    private boolean requestStart() {
+        Map<String, Object> startRequest = new HashMap<>();
+        startRequest.put("camera_index", cameraConfig.getDeviceIndex());
+        startRequest.put("fps", cameraConfig.getFps());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(startRequest, headers);
+
+        ResponseEntity<Map> response = pythonServiceClient.post(
+                PythonServiceClient.HAND_DETECTION, "/start", request, Map.class);
+        return response.getStatusCode() == HttpStatus.OK;
+    }
+
+    /**
+     * Registra a chegada de um frame: mede o intervalo e marca o detector como ativo
+     */
+    private void onFrame() {
+        long now = System.currentTimeMillis();
+        synchronized (livenessLock) {
+            if (detectorState == DetectorState.STREAMING && lastFrameAt > 0) {
+                long interval = now - lastFrameAt;
+                frameIntervalMillis = frameIntervalMillis > 0
+                        ? frameIntervalMillis + (interval - frameIntervalMillis) * FRAME_INTERVAL_ALPHA
+                        : interval;
+            }
+            lastFrameAt = now;
+        }
+        if (detectorState != DetectorState.STREAMING) {
+            if (transition(EnumSet.of(DetectorState.STARTING, DetectorState.STALLED, DetectorState.DOWN),
+                    DetectorState.STREAMING)) {
+                isInitialized.set(true);
+            }
+        }
+    }
+
+    /**
+     * Tempo sem frames a partir do qual o fluxo é considerado parado
+     */
+    private long stallThresholdMillis() {
+        double expected = frameIntervalMillis > 0
+                ? frameIntervalMillis
+                : 1000.0 / Math.max(1, cameraConfig.getFps());
+        return Math.max(pythonServiceConfig.getMinStallMillis(),
+                Math.round(pythonServiceConfig.getStallFrames() * expected));
+    }
+
+    /**
+     * Verificação local (sem rede) do fluxo de frames; sonda o serviço só quando ele para
+     */
+    private void checkLiveness() {
+        long now = System.currentTimeMillis();
+        DetectorState stalledFrom = null;
+        boolean probeDue;
+        synchronized (livenessLock) {
+            if (detectorState == DetectorState.STREAMING && now - lastFrameAt > stallThresholdMillis()) {
+                stalledFrom = DetectorState.STREAMING;
+                nextProbeAt = now;
+                probeDelayMillis = pythonServiceConfig.getProbeInitialMillis();
+            } else if (detectorState == DetectorState.STARTING
+                    && now - stateSince > pythonServiceConfig.getStartTimeoutMillis()) {
+                // Sem o primeiro frame no prazo: a próxima sondagem segue o backoff
+                stalledFrom = DetectorState.STARTING;
+            }
+        }
+        if (stalledFrom != null && transition(EnumSet.of(stalledFrom), DetectorState.STALLED)) {
+            stalls.incrementAndGet();
+        }
+
+        synchronized (livenessLock) {
+            probeDue = detectorState.isProbing() && now >= nextProbeAt;
+        }
+        if (probeDue) {
+            probe();
+        }
+    }
+
+    /**
+     * Sonda o serviço parado pelo /status: sem resposta, marca como fora do ar; no ar
+     * com a captura parada (running=false), pede /start de novo; no ar e capturando,
+     * só aguarda os frames, sem reiniciar
      */
-    private void checkPythonHealth() {
+    private void probe() {
+        probes.incrementAndGet();
+        boolean reachable = false;
+        boolean running = false;
+        boolean restarted = false;
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(
-                    PYTHON_SERVICE_URL + "/health", Map.class);
+            ResponseEntity<Map> status = pythonServiceClient.get(
+                    PythonServiceClient.HAND_DETECTION, "/status", Map.class);
+            reachable = status.getStatusCode().is2xxSuccessful();
+            running = reachable && status.getBody() != null
+                    && Boolean.TRUE.equals(status.getBody().get("running"));
+            restarted = reachable && !running && requestStart();
+        } catch (Exception e) {
+            logger.debug("⚠️ Sondagem do serviço Python falhou: {}", e.getMessage());
+        }
+
+        synchronized (livenessLock) {
+            nextProbeAt = System.currentTimeMillis() + probeDelayMillis;
+            probeDelayMillis = Math.min(probeDelayMillis * 2, pythonServiceConfig.getProbeMaxMillis());
+        }
 
-            if (response.getStatusCode() != HttpStatus.OK) {
-                logger.warn("⚠️ Serviço Python não está respondendo");
-                isInitialized.set(false);
+        if (restarted) {
+            restarts.incrementAndGet();
+            isInitialized.set(true);
+            // O primeiro frame leva a STREAMING; sem frame no prazo, volta a STALLED
+            transition(PROBING, DetectorState.STARTING);
+        } else if (running) {
+            // Serviço capturando: os frames voltam sozinhos, o estado passa a STREAMING no próximo
+            isInitialized.set(true);
+            transition(EnumSet.of(DetectorState.DOWN), DetectorState.STALLED);
+        } else if (!reachable) {
+            isInitialized.set(false);
+            transition(EnumSet.of(DetectorState.STALLED), DetectorState.DOWN);
+        }
+    }
+
+    /**
+     * Muda o estado do detector se o atual estiver em {@code from} e publica o evento em /topic/detector
+     */
+    private boolean transition(Set<DetectorState> from, DetectorState next) {
+        DetectorStateUpdate update;
+        synchronized (livenessLock) {
+            DetectorState previous = detectorState;
+            if (previous == next || !from.contains(previous)) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            if (next == DetectorState.STREAMING) {
+                probeDelayMillis = pythonServiceConfig.getProbeInitialMillis();
             }
+            detectorState = next;
+            stateSince = now;
+            transitions.incrementAndGet();
+            update = new DetectorStateUpdate(next, previous,
+                    lastFrameAt > 0 ? now - lastFrameAt : -1,
+                    frameIntervalMillis,
+                    next.isProbing() ? Math.max(0, nextProbeAt - now) : 0,
+                    now);
+        }
+
+        if (next.isProbing()) {
+            logger.warn("⚠️ Detector: {} -> {} (último frame há {} ms)",
+                    update.previousState(), next, update.lastFrameAgeMillis());
+        } else {
+            logger.info("🔄 Detector: {} -> {}", update.previousState(), next);
+        }
+
+        try {
+            broadcastPublisher.publish(DetectorStateUpdate.DESTINATION, update);
         } catch (Exception e) {
-            logger.debug("⚠️ Erro ao verificar saúde Python: {}", e.getMessage());
+            logger.debug("⚠️ Erro ao publicar estado do detector: {}", e.getMessage());
         }
+        return true;
     }
 
     /**
@@ -255,10 +434,16 @@ public class PythonHandDetectionService {
                 }
             }
 
+            double confidence = ((Number) data.get("confidence")).doubleValue();
             synchronized (this) {
                 lastDetectedLandmarks = landmarks;
-                lastDetectionConfidence = ((Number) data.get("confidence")).doubleValue();
+                lastDetectionConfidence = confidence;
+                frameSequence++;
             }
+            onFrame();
+
+            // Coleta incremental da calibração automática na thread do pipeline
+            calibrationService.onLandmarks(landmarks, confidence);
 
             logger.debug("✅ Recebidos {} landmarks do Python", landmarks.size());
 
@@ -274,6 +459,13 @@ public class PythonHandDetectionService {
         return new ArrayList<>(lastDetectedLandmarks);
     }
 
+    /**
+     * Número do último frame recebido; muda a cada frame, com ou sem mão
+     */
+    public synchronized long getFrameSequence() {
+        return frameSequence;
+    }
+
     /**
      * Obtém a confiança da última detecção
      */
@@ -301,4 +493,32 @@ public class PythonHandDetectionService {
     public synchronized boolean isCameraInitialized() {
         return isInitialized.get();
     }
+
+    /**
+     * Estado atual do detector (derivado do fluxo de frames)
+     */
+    public DetectorState getDetectorState() {
+        return detectorState;
+    }
+
+    /**
+     * Métricas de liveness do detector (estado, idade do último frame, sondagens e reinícios)
+     */
+    public Map<String, Object> getLivenessMetrics() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> metrics = new HashMap<>();
+        synchronized (livenessLock) {
+            metrics.put("state", detectorState.name());
+            metrics.put("stateAgeMillis", now - stateSince);
+            metrics.put("lastFrameAgeMillis", lastFrameAt > 0 ? now - lastFrameAt : -1);
+            metrics.put("frameIntervalMillis", frameIntervalMillis);
+            metrics.put("stallThresholdMillis", stallThresholdMillis());
+            metrics.put("probeDelayMillis", probeDelayMillis);
+        }
+        metrics.put("probes", probes.get());
+        metrics.put("restarts", restarts.get());
+        metrics.put("stalls", stalls.get());
+        metrics.put("transitions", transitions.get());
+        return metrics;
+    }
 }
@@ -0,0 +1,288 @@
+package com.touchvirtual.service;
+
+import com.touchvirtual.config.PythonServiceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cliente HTTP compartilhado dos serviços Python
+ *
+ * Um único {@link HttpClient} do JDK (conexões reaproveitadas com keep-alive)
+ * com timeout de conexão e de leitura. Cada serviço tem um circuito: depois de
+ * N falhas seguidas as chamadas falham na hora, sem rede, até o tempo aberto
+ * vencer; então uma chamada de teste decide se o circuito fecha. Consultas GET
+ * guardam a última resposta: {@link #getCached} serve a resposta recente sem
+ * nova chamada e {@link #getLastKnown} devolve o último resultado conhecido
+ * quando o serviço está fora. Latência e erros são medidos por chamada.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Service
+public class PythonServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(PythonServiceClient.class);
+
+    public static final String HAND_DETECTION = "hand-detection";
+    public static final String MOUSE_CONTROL = "mouse-control";
+
+    @Autowired
+    private PythonServiceConfig config;
+
+    private HttpClient httpClient;
+    private RestTemplate restTemplate;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, CallStats> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Última resposta de uma consulta e quando foi obtida
+     */
+    public record CachedResponse(ResponseEntity<?> response, long fetchedAt) {
+        public long ageMillis() {
+            return System.currentTimeMillis() - fetchedAt;
+        }
+    }
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Circuito de um serviço: fechado, aberto (falha na hora) ou meio aberto (uma chamada de teste)
+     */
+    private class CircuitBreaker {
+        final String service;
+        final String baseUrl;
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private long openings;
+
+        CircuitBreaker(String service, String baseUrl) {
+            this.service = service;
+            this.baseUrl = baseUrl;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN && now - openedAt >= config.getOpenMillis()) {
+                state = State.HALF_OPEN;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void onSuccess() {
+            if (state != State.CLOSED) {
+                logger.info("✅ Serviço Python {} respondeu, circuito fechado", service);
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+        }
+
+        synchronized void onFailure(long now) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= config.getFailureThreshold()) {
+                if (state != State.OPEN) {
+                    openings++;
+                    logger.warn("⚠️ Serviço Python {} falhou {} vez(es) seguidas, circuito aberto por {} ms",
+                            service, consecutiveFailures, config.getOpenMillis());
+                }
+                state = State.OPEN;
+                openedAt = now;
+            }
+        }
+
+        synchronized Map<String, Object> metrics() {
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("baseUrl", baseUrl);
+            metrics.put("state", state.name());
+            metrics.put("consecutiveFailures", consecutiveFailures);
+            metrics.put("openings", openings);
+            return metrics;
+        }
+    }
+
+    /**
+     * Métricas de uma chamada remota (serviço, método e caminho)
+     */
+    private static class CallStats {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong cacheHits = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        volatile long lastNanos;
+        volatile long maxNanos;
+        volatile String lastError;
+        volatile CachedResponse cached;
+
+        void record(long nanos) {
+            calls.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            lastNanos = nanos;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        Map<String, Object> metrics() {
+            long count = calls.get();
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("calls", count);
+            metrics.put("failures", failures.get());
+            metrics.put("rejected", rejected.get());
+            metrics.put("cacheHits", cacheHits.get());
+            metrics.put("avgMillis", count > 0 ? totalNanos.get() / 1_000_000.0 / count : 0.0);
+            metrics.put("lastMillis", lastNanos / 1_000_000.0);
+            metrics.put("maxMillis", maxNanos / 1_000_000.0);
+            metrics.put("lastError", lastError);
+            metrics.put("lastSuccessAt", cached != null ? cached.fetchedAt() : 0);
+            return metrics;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMillis()))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(config.getReadTimeoutMillis()));
+        restTemplate = new RestTemplate(requestFactory);
+
+        breakers.put(HAND_DETECTION, new CircuitBreaker(HAND_DETECTION, config.getHandDetectionUrl()));
+        breakers.put(MOUSE_CONTROL, new CircuitBreaker(MOUSE_CONTROL, config.getMouseControlUrl()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (httpClient != null) {
+            httpClient.shutdownNow();
+        }
+    }
+
+    /**
+     * GET no serviço, passando pelo circuito
+     */
+    public <T> ResponseEntity<T> get(String service, String path, Class<T> type) {
+        CircuitBreaker breaker = breaker(service);
+        return execute(breaker, stats(service, "GET " + path), true,
+                () -> restTemplate.getForEntity(breaker.baseUrl + path, type));
+    }
+
+    /**
+     * POST no serviço, passando pelo circuito
+     */
+    public <T> ResponseEntity<T> post(String service, String path, Object request, Class<T> type) {
+        CircuitBreaker breaker = breaker(service);
+        return execute(breaker, stats(service, "POST " + path), false,
+                () -> restTemplate.postForEntity(breaker.baseUrl + path, request, type));
+    }
+
+    /**
+     * GET que reaproveita a última resposta enquanto ela for mais nova que o cache configurado
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> getCached(String service, String path, Class<T> type) {
+        CallStats stats = stats(service, "GET " + path);
+        CachedResponse cached = stats.cached;
+        if (cached != null && cached.ageMillis() < config.getCacheTtlMillis()) {
+            stats.cacheHits.incrementAndGet();
+            return (ResponseEntity<T>) cached.response();
+        }
+        return get(service, path, type);
+    }
+
+    /**
+     * Última resposta bem-sucedida de um GET, se houver
+     */
+    public Optional<CachedResponse> getLastKnown(String service, String path) {
+        CallStats stats = calls.get(service + " GET " + path);
+        return stats != null ? Optional.ofNullable(stats.cached) : Optional.empty();
+    }
+
+    private <T> ResponseEntity<T> execute(CircuitBreaker breaker, CallStats stats, boolean cacheable,
+            Supplier<ResponseEntity<T>> call) {
+        long now = System.currentTimeMillis();
+        if (!breaker.tryAcquire(now)) {
+            stats.rejected.incrementAndGet();
+            throw new ResourceAccessException("Circuito aberto para o serviço Python " + breaker.service);
+        }
+
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<T> response = call.get();
+            stats.record(System.nanoTime() - start);
+            if (cacheable) {
+                stats.cached = new CachedResponse(response, now);
+            }
+            breaker.onSuccess();
+            return response;
+
+        } catch (HttpClientErrorException e) {
+            // O serviço respondeu (4xx): erro da chamada, não do serviço
+            stats.record(System.nanoTime() - start);
+            stats.lastError = e.getMessage();
+            breaker.onSuccess();
+            throw e;
+
+        } catch (RuntimeException e) {
+            stats.record(System.nanoTime() - start);
+            stats.failures.incrementAndGet();
+            stats.lastError = e.getMessage();
+            breaker.onFailure(System.currentTimeMillis());
+            throw e;
+        }
+    }
+
+    private CircuitBreaker breaker(String service) {
+        CircuitBreaker breaker = breakers.get(service);
+        if (breaker == null) {
+            throw new IllegalArgumentException("Serviço Python desconhecido: " + service);
+        }
+        return breaker;
+    }
+
+    private CallStats stats(String service, String call) {
+        return calls.computeIfAbsent(service + " " + call, key -> new CallStats());
+    }
+
+    /**
+     * Estado dos circuitos e métricas por chamada remota
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> services = new HashMap<>();
+        breakers.forEach((service, breaker) -> services.put(service, breaker.metrics()));
+
+        Map<String, Object> remoteCalls = new HashMap<>();
+        calls.forEach((call, stats) -> remoteCalls.put(call, stats.metrics()));
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("services", services);
+        metrics.put("calls", remoteCalls);
+        metrics.put("connectTimeoutMillis", config.getConnectTimeoutMillis());
+        metrics.put("readTimeoutMillis", config.getReadTimeoutMillis());
+        return metrics;
+    }
+}
@@ -0,0 +1,114 @@
+package com.touchvirtual.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backend que apenas grava os eventos injetados, com instante em nanossegundos
+ *
+ * Funciona sem interface gráfica; serve para benchmarks e testes
+ * determinísticos da atuação. Guarda os eventos mais recentes num buffer
+ * circular de arrays primitivos, sem alocar por evento.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public class RecordingInputSink implements InputSink {
+
+    static final String NAME = "recording";
+
+    /**
+     * Tipos de evento gravados
+     */
+    public enum Kind {
+        MOVE,
+        PRESS,
+        RELEASE,
+        WHEEL,
+        KEY_PRESS,
+        KEY_RELEASE
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final int capacity;
+    private final long[] timestamps;
+    private final byte[] kinds;
+    private final int[] firstArgs;
+    private final int[] secondArgs;
+    private long recorded;
+
+    public RecordingInputSink(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.timestamps = new long[this.capacity];
+        this.kinds = new byte[this.capacity];
+        this.firstArgs = new int[this.capacity];
+        this.secondArgs = new int[this.capacity];
+    }
+
+    @Override
+    public String getName() { return NAME; }
+
+    @Override
+    public void mouseMove(int x, int y) { record(Kind.MOVE, x, y); }
+
+    @Override
+    public void mousePress(int buttons) { record(Kind.PRESS, buttons, 0); }
+
+    @Override
+    public void mouseRelease(int buttons) { record(Kind.RELEASE, buttons, 0); }
+
+    @Override
+    public void mouseWheel(int amount) { record(Kind.WHEEL, amount, 0); }
+
+    @Override
+    public void keyPress(int keyCode) { record(Kind.KEY_PRESS, keyCode, 0); }
+
+    @Override
+    public void keyRelease(int keyCode) { record(Kind.KEY_RELEASE, keyCode, 0); }
+
+    private synchronized void record(Kind kind, int first, int second) {
+        int index = (int) (recorded % capacity);
+        timestamps[index] = System.nanoTime();
+        kinds[index] = (byte) kind.ordinal();
+        firstArgs[index] = first;
+        secondArgs[index] = second;
+        recorded++;
+    }
+
+    /**
+     * Total de eventos gravados desde o início (inclusive os já sobrescritos)
+     */
+    public synchronized long getRecordedCount() {
+        return recorded;
+    }
+
+    /**
+     * Eventos mais recentes, do mais antigo para o mais novo
+     */
+    public synchronized List<Map<String, Object>> getEvents(int limit) {
+        int available = (int) Math.min(recorded, capacity);
+        int count = limit > 0 ? Math.min(limit, available) : available;
+        List<Map<String, Object>> events = new ArrayList<>(count);
+        for (long n = recorded - count; n < recorded; n++) {
+            int index = (int) (n % capacity);
+            Map<String, Object> event = new HashMap<>();
+            event.put("sequence", n);
+            event.put("nanos", timestamps[index]);
+            event.put("kind", KINDS[kinds[index]].name());
+            event.put("a", firstArgs[index]);
+            event.put("b", secondArgs[index]);
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * Descarta os eventos gravados
+     */
+    public synchronized void clear() {
+        recorded = 0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.touchvirtual.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.AWTException;
+import java.awt.GraphicsEnvironment;
+import java.awt.Robot;
+
+/**
+ * Injeção de eventos via java.awt.Robot (no X11 o Robot usa a extensão XTest)
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+class RobotInputSink implements InputSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(RobotInputSink.class);
+
+    static final String NAME = "robot";
+
+    private final Robot robot;
+
+    private RobotInputSink(Robot robot) {
+        this.robot = robot;
+    }
+
+    /**
+     * Cria o backend, ou retorna null se o ambiente não suportar o Robot
+     */
+    static RobotInputSink create() {
+        try {
+            // Verifica se o ambiente suporta GUI
+            if (GraphicsEnvironment.isHeadless()) {
+                logger.warn("⚠️ Ambiente headless detectado - Robot não disponível");
+                logger.info("💡 Para usar o Robot, execute a aplicação com GUI ou use -Djava.awt.headless=false");
+                return null;
+            }
+
+            // Tenta criar o Robot com configurações específicas
+            Robot robot = new Robot();
+            robot.setAutoDelay(0); // Sem delay automático
+            robot.setAutoWaitForIdle(false); // Não espera idle
+
+            logger.info("🤖 Robot inicializado para simulação de eventos");
+            return new RobotInputSink(robot);
+
+        } catch (AWTException e) {
+            logger.error("❌ Erro ao inicializar Robot: {}", e.getMessage());
+            logger.info("💡 Verifique se o ambiente suporta GUI ou use -Djava.awt.headless=false");
+        } catch (SecurityException e) {
+            logger.error("❌ Erro de segurança ao inicializar Robot: {}", e.getMessage());
+            logger.info("💡 Verifique as permissões de segurança da aplicação");
+        }
+        return null;
+    }
+
+    @Override
+    public String getName() { return NAME; }
+
+    @Override
+    public void mouseMove(int x, int y) { robot.mouseMove(x, y); }
+
+    @Override
+    public void mousePress(int buttons) { robot.mousePress(buttons); }
+
+    @Override
+    public void mouseRelease(int buttons) { robot.mouseRelease(buttons); }
+
+    @Override
+    public void mouseWheel(int amount) { robot.mouseWheel(amount); }
+
+    @Override
+    public void keyPress(int keyCode) { robot.keyPress(keyCode); }
+
+    @Override
+    public void keyRelease(int keyCode) { robot.keyRelease(keyCode); }
+}
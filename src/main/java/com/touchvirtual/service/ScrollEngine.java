@@ -0,0 +1,220 @@
+package com.touchvirtual.service;
+
+/**
+ * Motor de scroll inercial
+ *
+ * Recebe a posição da mão durante o gesto de scroll e a transforma em giros
+ * da roda: enquanto há contato o deslocamento da mão é seguido; depois que as
+ * amostras param, a velocidade estimada continua com decaimento exponencial
+ * (momento). As frações de giro são acumuladas e emitidas em eventos pequenos
+ * numa cadência fixa. Confinado à thread de atuação.
+ *
+ * Sinal: mão subindo gera giros positivos (conteúdo sobe, como numa tela de toque).
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+class ScrollEngine {
+
+    /**
+     * Destino dos giros da roda
+     */
+    interface WheelOutput {
+        void wheel(boolean horizontal, int ticks);
+    }
+
+    // Velocidade abaixo da qual o momento termina (px/s)
+    private static final double MIN_VELOCITY = 40.0;
+    // Limite da velocidade estimada (px/s), evita arremessos absurdos
+    private static final double MAX_VELOCITY = 6000.0;
+    // Máximo de giros por evento emitido
+    private static final int MAX_TICKS_PER_EMIT = 5;
+
+    private final WheelOutput output;
+    private final long periodNanos;
+    private final double pixelsPerTick;
+    private final double momentumTauNanos;
+    private final long contactTimeoutNanos;
+
+    private final Axis vertical = new Axis(false);
+    private final Axis horizontal = new Axis(true);
+    private long nextTickNanos;
+    private long lastTickNanos;
+
+    // Métricas (um único escritor)
+    private volatile long samples;
+    private volatile long emittedEvents;
+    private volatile long emittedTicks;
+    private volatile long flings;
+
+    /**
+     * Estado de um eixo
+     */
+    private final class Axis {
+        final boolean horizontal;
+        boolean hasSample;
+        int lastPosition;
+        long lastSampleNanos;
+        double velocity;       // px/s, no sentido do scroll
+        double pendingPixels;  // deslocamento da mão ainda não emitido
+        double accumulator;    // frações de giro acumuladas
+        boolean inMomentum;
+
+        Axis(boolean horizontal) {
+            this.horizontal = horizontal;
+        }
+
+        void onSample(int position, long now) {
+            if (!hasSample || now - lastSampleNanos > contactTimeoutNanos) {
+                // Novo contato: a primeira amostra só define a referência
+                hasSample = true;
+                velocity = 0;
+                pendingPixels = 0;
+                inMomentum = false;
+            } else {
+                double dt = (now - lastSampleNanos) / 1e9;
+                double delta = lastPosition - position;
+                pendingPixels += delta;
+                if (dt > 0) {
+                    double instant = Math.max(-MAX_VELOCITY, Math.min(MAX_VELOCITY, delta / dt));
+                    velocity = 0.6 * instant + 0.4 * velocity;
+                }
+            }
+            lastPosition = position;
+            lastSampleNanos = now;
+        }
+
+        /**
+         * Avança o eixo e emite os giros inteiros acumulados
+         */
+        void advance(long now, double dt) {
+            boolean inContact = hasSample && now - lastSampleNanos <= contactTimeoutNanos;
+            double pixels;
+            if (inContact) {
+                // Espalha o deslocamento pendente por meio tempo de contato em vez de emiti-lo de uma vez
+                double share = Math.min(1.0, dt * 1e9 / (contactTimeoutNanos / 2.0));
+                pixels = pendingPixels * share;
+                pendingPixels -= pixels;
+            } else {
+                if (hasSample) {
+                    // Soltou: o que restava do contato vira parte do momento
+                    hasSample = false;
+                    pixels = pendingPixels;
+                    pendingPixels = 0;
+                    inMomentum = Math.abs(velocity) >= MIN_VELOCITY;
+                    if (inMomentum) {
+                        flings++;
+                    }
+                } else {
+                    pixels = 0;
+                }
+                if (inMomentum) {
+                    pixels += velocity * dt;
+                    velocity *= Math.exp(-dt * 1e9 / momentumTauNanos);
+                    if (Math.abs(velocity) < MIN_VELOCITY) {
+                        inMomentum = false;
+                        velocity = 0;
+                    }
+                }
+            }
+
+            accumulator += pixels / pixelsPerTick;
+            int ticks = (int) accumulator;  // trunca em direção a zero
+            if (ticks != 0) {
+                ticks = Math.max(-MAX_TICKS_PER_EMIT, Math.min(MAX_TICKS_PER_EMIT, ticks));
+                accumulator -= ticks;
+                output.wheel(horizontal, ticks);
+                emittedEvents++;
+                emittedTicks += Math.abs(ticks);
+            }
+
+            if (!hasSample && !inMomentum && Math.abs(accumulator) < 1.0) {
+                // Parado: a fração que sobrou não vira giro
+                accumulator = 0;
+            }
+        }
+
+        boolean isActive() {
+            return hasSample || inMomentum || accumulator != 0 || pendingPixels != 0;
+        }
+
+        void stop() {
+            hasSample = false;
+            inMomentum = false;
+            velocity = 0;
+            pendingPixels = 0;
+            accumulator = 0;
+        }
+    }
+
+    /**
+     * @param cadenceHz        cadência de emissão dos giros
+     * @param pixelsPerTick    deslocamento da mão (px) equivalente a um giro
+     * @param momentumMillis   constante de tempo do decaimento do momento
+     * @param contactTimeoutMillis sem amostras por mais que isso, o gesto terminou
+     */
+    ScrollEngine(WheelOutput output, int cadenceHz, double pixelsPerTick, long momentumMillis,
+            long contactTimeoutMillis) {
+        this.output = output;
+        this.periodNanos = 1_000_000_000L / Math.max(1, cadenceHz);
+        this.pixelsPerTick = pixelsPerTick != 0 ? pixelsPerTick : 40.0;
+        this.momentumTauNanos = Math.max(1, momentumMillis) * 1e6;
+        this.contactTimeoutNanos = Math.max(1, contactTimeoutMillis) * 1_000_000L;
+    }
+
+    /**
+     * Registra a posição da mão num evento de scroll
+     */
+    void onSample(boolean horizontalAxis, int position, long now) {
+        (horizontalAxis ? horizontal : vertical).onSample(position, now);
+        samples++;
+        if (nextTickNanos == 0) {
+            nextTickNanos = now;
+            lastTickNanos = now;
+        }
+    }
+
+    /**
+     * Emite os giros devidos se for hora de um tick
+     *
+     * @return tempo até o próximo tick, ou 0 se o motor estiver parado
+     */
+    long tick(long now) {
+        if (!vertical.isActive() && !horizontal.isActive()) {
+            nextTickNanos = 0;
+            return 0;
+        }
+        if (now < nextTickNanos) {
+            return nextTickNanos - now;
+        }
+
+        double dt = Math.min(0.1, (now - lastTickNanos) / 1e9);
+        lastTickNanos = now;
+        vertical.advance(now, dt);
+        horizontal.advance(now, dt);
+
+        nextTickNanos = Math.max(nextTickNanos + periodNanos, now + 1);
+        if (!vertical.isActive() && !horizontal.isActive()) {
+            nextTickNanos = 0;
+            return 0;
+        }
+        return nextTickNanos - now;
+    }
+
+    /**
+     * Interrompe o scroll e o momento (ex.: um clique durante a inércia)
+     */
+    void stop() {
+        vertical.stop();
+        horizontal.stop();
+        nextTickNanos = 0;
+    }
+
+    long getSamples() { return samples; }
+
+    long getEmittedEvents() { return emittedEvents; }
+
+    long getEmittedTicks() { return emittedTicks; }
+
+    long getFlings() { return flings; }
+}
@@ -0,0 +1,294 @@
+package com.touchvirtual.service;
+
+import com.touchvirtual.config.BroadcastConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrega por sessão das mensagens STOMP: taxa negociada por inscrição e
+ * proteção contra clientes lentos
+ *
+ * O cliente pede a taxa no SUBSCRIBE com o cabeçalho {@code rate} (Hz). No canal
+ * de saída, cada inscrição com taxa só deixa passar uma mensagem por intervalo;
+ * a mais recente retida é entregue quando o intervalo vence. Cada sessão tem
+ * ainda uma fila de saída limitada que descarta as mensagens mais antigas
+ * ({@link DropOldestSessionDecorator}) e métricas de atraso.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Service
+public class SessionStreamService implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStreamService.class);
+
+    // Cabeçalho do SUBSCRIBE com a taxa pedida pelo cliente
+    public static final String RATE_HEADER = "rate";
+
+    @Autowired
+    private BroadcastConfig broadcastConfig;
+
+    @Autowired
+    @Lazy
+    @Qualifier("clientOutboundChannel")
+    private MessageChannel clientOutboundChannel;
+
+    private final Map<String, SessionStream> sessions = new ConcurrentHashMap<>();
+
+    private ExecutorService sendExecutor;
+    private ScheduledExecutorService rateTimer;
+
+    /**
+     * Estado de uma sessão: fila de saída e taxas por inscrição
+     */
+    private static class SessionStream {
+        final long connectedAt = System.currentTimeMillis();
+        final Map<String, SubscriptionRate> rates = new ConcurrentHashMap<>();
+        volatile DropOldestSessionDecorator outbound;
+    }
+
+    /**
+     * Subamostragem de uma inscrição: no máximo uma mensagem por intervalo,
+     * sempre a mais recente
+     */
+    private class SubscriptionRate {
+        final String destination;
+        final double rateHz;
+        final long intervalNanos;
+        final AtomicLong downsampled = new AtomicLong();
+        private long lastSentNanos;
+        private Message<?> pending;
+        private Message<?> flushing;
+
+        SubscriptionRate(String destination, double rateHz) {
+            this.destination = destination;
+            this.rateHz = rateHz;
+            this.intervalNanos = (long) (1_000_000_000L / rateHz);
+        }
+
+        /**
+         * Decide se a mensagem segue agora; se não, ela fica retida no lugar da anterior
+         */
+        synchronized boolean admit(Message<?> message, long now) {
+            if (message == flushing) {
+                flushing = null;
+                if (pending != null || now - lastSentNanos < intervalNanos) {
+                    // Uma mensagem mais nova já saiu ou está retida
+                    downsampled.incrementAndGet();
+                    return false;
+                }
+            } else if (now - lastSentNanos < intervalNanos) {
+                if (pending != null) {
+                    downsampled.incrementAndGet();
+                } else {
+                    rateTimer.schedule(this::flush, lastSentNanos + intervalNanos - now, TimeUnit.NANOSECONDS);
+                }
+                pending = message;
+                return false;
+            }
+
+            if (pending != null) {
+                // A retida é mais antiga que esta
+                downsampled.incrementAndGet();
+                pending = null;
+            }
+            lastSentNanos = now;
+            return true;
+        }
+
+        void flush() {
+            Message<?> message;
+            synchronized (this) {
+                message = pending;
+                pending = null;
+                if (message == null) {
+                    return;
+                }
+                flushing = message;
+            }
+            try {
+                clientOutboundChannel.send(message);
+            } catch (Exception e) {
+                logger.debug("⚠️ Erro ao entregar mensagem retida para {}: {}", destination, e.getMessage());
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        sendExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("touchvirtual-ws-send-", 0).factory());
+        rateTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread timer = new Thread(runnable, "touchvirtual-stream-rate");
+            timer.setDaemon(true);
+            return timer;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rateTimer != null) {
+            rateTimer.shutdownNow();
+        }
+        if (sendExecutor != null) {
+            sendExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Decorador do handler STOMP: troca cada sessão pela versão com fila de saída limitada
+     */
+    public WebSocketHandlerDecoratorFactory handlerDecoratorFactory() {
+        return handler -> new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(decorate(session));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private WebSocketSession decorate(WebSocketSession session) {
+        DropOldestSessionDecorator decorated = new DropOldestSessionDecorator(session,
+                broadcastConfig.getSessionBufferBytes(), broadcastConfig.getSessionSendTimeLimitMillis(), sendExecutor);
+        sessions.computeIfAbsent(session.getId(), id -> new SessionStream()).outbound = decorated;
+        return decorated;
+    }
+
+    /**
+     * Aplica a taxa da inscrição às mensagens do canal de saída
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        SessionStream stream = sessions.get(SimpMessageHeaderAccessor.getSessionId(headers));
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+        if (stream == null || subscriptionId == null) {
+            return message;
+        }
+
+        SubscriptionRate rate = stream.rates.get(subscriptionId);
+        if (rate == null) {
+            return message;
+        }
+        return rate.admit(message, System.nanoTime()) ? message : null;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String requested = accessor.getFirstNativeHeader(RATE_HEADER);
+        if (requested == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        try {
+            double rateHz = Double.parseDouble(requested);
+            if (rateHz <= 0) {
+                return;
+            }
+            sessions.computeIfAbsent(accessor.getSessionId(), id -> new SessionStream()).rates
+                    .put(accessor.getSubscriptionId(), new SubscriptionRate(accessor.getDestination(), rateHz));
+            logger.debug("📡 Sessão {} inscrita em {} a {} Hz", accessor.getSessionId(),
+                    accessor.getDestination(), rateHz);
+        } catch (NumberFormatException e) {
+            logger.warn("⚠️ Taxa inválida no SUBSCRIBE de {}: {}", accessor.getDestination(), requested);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        SessionStream stream = sessions.get(accessor.getSessionId());
+        if (stream != null && accessor.getSubscriptionId() != null) {
+            stream.rates.remove(accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    /**
+     * Métricas por sessão: fila de saída, descartes, atraso e taxas negociadas
+     */
+    public Map<String, Object> getMetrics() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        sessions.forEach((sessionId, stream) -> {
+            Map<String, Object> session = new HashMap<>();
+            session.put("sessionId", sessionId);
+            session.put("connectedMillis", now - stream.connectedAt);
+
+            DropOldestSessionDecorator outbound = stream.outbound;
+            if (outbound != null) {
+                session.put("queuedMessages", outbound.getQueuedMessages());
+                session.put("queuedBytes", outbound.getQueuedBytes());
+                session.put("sent", outbound.getSent());
+                session.put("dropped", outbound.getDropped());
+                session.put("lastLagMillis", outbound.getLastLagMillis());
+                session.put("avgLagMillis", outbound.getAvgLagMillis());
+                session.put("maxLagMillis", outbound.getMaxLagMillis());
+                session.put("sendingMillis", outbound.getSendingMillis());
+            }
+
+            Map<String, Object> rates = new HashMap<>();
+            long downsampled = 0;
+            for (SubscriptionRate rate : stream.rates.values()) {
+                rates.put(rate.destination, rate.rateHz);
+                downsampled += rate.downsampled.get();
+            }
+            session.put("rates", rates);
+            session.put("downsampled", downsampled);
+            list.add(session);
+        });
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("sessions", list);
+        metrics.put("bufferBytes", broadcastConfig.getSessionBufferBytes());
+        metrics.put("sendTimeLimitMillis", broadcastConfig.getSessionSendTimeLimitMillis());
+        return metrics;
+    }
+}
@@ -0,0 +1,205 @@
+package com.touchvirtual.service;
+
+import com.touchvirtual.dto.StatusSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agregador do status do sistema: um retrato imutável atualizado em cadência fixa
+ *
+ * Os endpoints de status, o stream SSE e os tópicos STOMP leem o mesmo retrato
+ * em vez de consultar cada serviço a cada requisição. O status da câmera (que
+ * pergunta ao serviço Python) é consultado numa cadência própria, fora do
+ * caminho das requisições. Ações que mudam o estado pedem uma atualização
+ * imediata com {@link #refreshNow()}.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Service
+public class StatusSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusSnapshotService.class);
+
+    private static final long REFRESH_MILLIS = 250;
+    private static final long CAMERA_STATUS_MILLIS = 5000;
+    private static final String CAMERA_NOT_INITIALIZED = "Câmera não inicializada";
+
+    @Autowired
+    private PythonHandDetectionService handDetectionService;
+
+    @Autowired
+    private GestureRecognitionService gestureRecognitionService;
+
+    @Autowired
+    private CoordinateMappingService coordinateMappingService;
+
+    @Autowired
+    private MouseSimulationService mouseSimulationService;
+
+    @Autowired
+    private CalibrationService calibrationService;
+
+    // Prefixo da ETag: versões de execuções diferentes não se confundem
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile StatusSnapshot snapshot;
+    private volatile String cameraStatus = CAMERA_NOT_INITIALIZED;
+    private StatusSnapshot content;
+    private long version;
+
+    // Versões por visão: posição do mouse e afins não invalidam quem não as devolve
+    private final ViewVersion systemView = new ViewVersion("system");
+    private final ViewVersion detectionView = new ViewVersion("detection");
+    private final ViewVersion gestureView = new ViewVersion("gesture");
+
+    private ScheduledExecutorService refresher;
+
+    // Métricas
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong cameraChecks = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        refresh();
+        refresher = Executors.newScheduledThreadPool(2, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "touchvirtual-status-snapshot-" + count.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        refresher.scheduleAtFixedRate(this::refresh, REFRESH_MILLIS, REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+        refresher.scheduleWithFixedDelay(this::refreshCameraStatus, 0, CAMERA_STATUS_MILLIS, TimeUnit.MILLISECONDS);
+        logger.info("📸 Retrato de status atualizado a cada {} ms", REFRESH_MILLIS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Retrato atual (nunca null)
+     */
+    public StatusSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Atualiza o retrato e o status da câmera sem bloquear quem chama
+     */
+    public void refreshNow() {
+        if (refresher != null) {
+            refresher.execute(() -> {
+                refreshCameraStatus();
+                refresh();
+            });
+        }
+    }
+
+    /**
+     * Lê os serviços e troca o retrato se o conteúdo mudou
+     */
+    public synchronized StatusSnapshot refresh() {
+        try {
+            StatusSnapshot current = new StatusSnapshot(
+                handDetectionService.isCameraInitialized(),
+                handDetectionService.isProcessing(),
+                cameraStatus,
+                handDetectionService.isHandDetected(),
+                handDetectionService.getHandCount(),
+                handDetectionService.getLastDetectionConfidence(),
+                gestureRecognitionService.getLastRecognizedGesture(),
+                gestureRecognitionService.getGestureConfidence(),
+                gestureRecognitionService.getLastGestureTime(),
+                mouseSimulationService.isEnabled(),
+                mouseSimulationService.getLastX(),
+                mouseSimulationService.getLastY(),
+                mouseSimulationService.isDragging(),
+                coordinateMappingService.isCalibrated(),
+                calibrationService.isCalibrating(),
+                0, 0, null, null, null);
+            refreshes.incrementAndGet();
+
+            if (!current.equals(content)) {
+                content = current;
+                version++;
+                changes.incrementAndGet();
+                snapshot = current.withVersion(version, System.currentTimeMillis(),
+                        systemView.etag(current.toSystemStatus()),
+                        detectionView.etag(current.toDetectionStatus()),
+                        gestureView.etag(current.toGestureStatus()));
+            }
+        } catch (Exception e) {
+            logger.error("❌ Erro ao atualizar o retrato de status: {}", e.getMessage());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Versão de uma visão do retrato: só avança quando o corpo da visão muda
+     */
+    private final class ViewVersion {
+        private final String name;
+        private Map<String, Object> body;
+        private long version;
+
+        ViewVersion(String name) {
+            this.name = name;
+        }
+
+        String etag(Map<String, Object> current) {
+            if (!current.equals(body)) {
+                body = current;
+                version++;
+            }
+            return "\"" + bootId + "-" + name + "-" + version + "\"";
+        }
+    }
+
+    private void refreshCameraStatus() {
+        String status = handDetectionService.isCameraInitialized()
+                ? handDetectionService.getCameraStatus()
+                : CAMERA_NOT_INITIALIZED;
+        cameraChecks.incrementAndGet();
+        if (!status.equals(cameraStatus)) {
+            cameraStatus = status;
+            refresh();
+        }
+    }
+
+    /**
+     * Métricas do agregador (atualizações, mudanças e versão atual)
+     */
+    public Map<String, Object> getMetrics() {
+        StatusSnapshot current = snapshot;
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("version", current != null ? current.version() : 0);
+        metrics.put("updatedAt", current != null ? current.updatedAt() : 0);
+        metrics.put("refreshes", refreshes.get());
+        metrics.put("changes", changes.get());
+        metrics.put("cameraChecks", cameraChecks.get());
+        metrics.put("refreshMillis", REFRESH_MILLIS);
+        return metrics;
+    }
+}
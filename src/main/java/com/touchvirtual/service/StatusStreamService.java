@@ -0,0 +1,261 @@
+package com.touchvirtual.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Stream multiplexado de status por Server-Sent Events (/api/status/stream)
+ *
+ * Cada canal (status do sistema, da detecção, do controle do mouse...) é
+ * registrado por quem já monta aquele status, com o intervalo de consulta. O
+ * canal só é consultado enquanto algum cliente está inscrito nele, uma vez para
+ * todos os clientes, e só as chaves que mudaram são enviadas (evento com o nome
+ * do canal). Um cliente novo recebe o status completo dos seus canais.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Service
+public class StatusStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusStreamService.class);
+
+    // Conexões longas são recicladas; o EventSource do navegador reconecta sozinho
+    private static final long EMITTER_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+    private static final long RECONNECT_MILLIS = 2000;
+    private static final long KEEPALIVE_MILLIS = 15000;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final Set<StreamClient> clients = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService poller;
+
+    // Métricas
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong deltasSent = new AtomicLong();
+    private final AtomicLong snapshotsSent = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+
+    private record StreamClient(SseEmitter emitter, Set<String> channels) {}
+
+    /**
+     * Canal de status: último estado enviado e clientes inscritos
+     */
+    private class Channel {
+        final String name;
+        final long intervalMillis;
+        final Supplier<Map<String, Object>> supplier;
+        final Set<StreamClient> subscribers = new CopyOnWriteArraySet<>();
+        private Map<String, Object> last;
+
+        Channel(String name, long intervalMillis, Supplier<Map<String, Object>> supplier) {
+            this.name = name;
+            this.intervalMillis = intervalMillis;
+            this.supplier = supplier;
+        }
+
+        /**
+         * Consulta o status e envia as chaves alteradas aos inscritos
+         */
+        void poll() {
+            if (subscribers.isEmpty()) {
+                // Sem inscritos: o próximo recebe um status novo
+                synchronized (this) {
+                    last = null;
+                }
+                return;
+            }
+
+            try {
+                Map<String, Object> current = supplier.get();
+                polls.incrementAndGet();
+                synchronized (this) {
+                    Map<String, Object> delta = delta(last, current);
+                    last = current;
+                    if (!delta.isEmpty()) {
+                        for (StreamClient client : subscribers) {
+                            if (send(client, name, delta)) {
+                                deltasSent.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("❌ Erro ao consultar o canal de status {}: {}", name, e.getMessage());
+            }
+        }
+
+        synchronized void subscribe(StreamClient client) {
+            subscribers.add(client);
+            if (last != null && send(client, name, last)) {
+                snapshotsSent.incrementAndGet();
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        poller = Executors.newScheduledThreadPool(2, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "touchvirtual-status-stream-" + count.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        poller.scheduleWithFixedDelay(this::keepAlive, KEEPALIVE_MILLIS, KEEPALIVE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        clients.forEach(client -> client.emitter().complete());
+    }
+
+    /**
+     * Registra um canal de status consultado a cada intervalo enquanto houver inscritos
+     */
+    public void registerChannel(String name, long intervalMillis, Supplier<Map<String, Object>> supplier) {
+        Channel channel = new Channel(name, intervalMillis, supplier);
+        if (channels.putIfAbsent(name, channel) != null) {
+            throw new IllegalStateException("Canal de status já registrado: " + name);
+        }
+        poller.scheduleWithFixedDelay(channel::poll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("📡 Canal de status registrado: {} ({} ms)", name, intervalMillis);
+    }
+
+    /**
+     * Abre o stream de um cliente com os canais pedidos (canais desconhecidos são ignorados)
+     */
+    public SseEmitter subscribe(Collection<String> requested) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : requested) {
+            if (channels.containsKey(name.trim())) {
+                names.add(name.trim());
+            }
+        }
+        StreamClient client = new StreamClient(emitter, Set.copyOf(names));
+
+        emitter.onCompletion(() -> remove(client));
+        emitter.onTimeout(() -> remove(client));
+        emitter.onError(error -> remove(client));
+
+        try {
+            emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("canais " + names));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+
+        clients.add(client);
+        for (String name : names) {
+            channels.get(name).subscribe(client);
+        }
+        logger.debug("📡 Cliente inscrito no stream de status: {}", names);
+        return emitter;
+    }
+
+    private void remove(StreamClient client) {
+        if (clients.remove(client)) {
+            for (String name : client.channels()) {
+                Channel channel = channels.get(name);
+                if (channel != null) {
+                    channel.subscribers.remove(client);
+                }
+            }
+        }
+    }
+
+    private boolean send(StreamClient client, String event, Map<String, Object> data) {
+        try {
+            client.emitter().send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (Exception e) {
+            sendFailures.incrementAndGet();
+            remove(client);
+            client.emitter().completeWithError(e);
+            logger.debug("⚠️ Falha ao enviar status {}: {}", event, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Comentário periódico para detectar conexões mortas atrás de proxies
+     */
+    private void keepAlive() {
+        for (StreamClient client : clients) {
+            try {
+                client.emitter().send(SseEmitter.event().comment("ping"));
+            } catch (Exception e) {
+                sendFailures.incrementAndGet();
+                remove(client);
+                client.emitter().completeWithError(e);
+            }
+        }
+    }
+
+    /**
+     * Chaves novas ou alteradas; chaves que sumiram vão como null
+     */
+    private static Map<String, Object> delta(Map<String, Object> previous, Map<String, Object> current) {
+        if (previous == null) {
+            return current;
+        }
+        Map<String, Object> delta = new HashMap<>();
+        current.forEach((key, value) -> {
+            if (!previous.containsKey(key) || !Objects.equals(previous.get(key), value)) {
+                delta.put(key, value);
+            }
+        });
+        previous.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> delta.put(key, null));
+        return delta;
+    }
+
+    /**
+     * Métricas do stream (clientes por canal, consultas e eventos enviados)
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> subscribers = new HashMap<>();
+        channels.forEach((name, channel) -> subscribers.put(name, Map.of(
+                "subscribers", channel.subscribers.size(),
+                "intervalMillis", channel.intervalMillis)));
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("clients", clients.size());
+        metrics.put("channels", subscribers);
+        metrics.put("polls", polls.get());
+        metrics.put("deltasSent", deltasSent.get());
+        metrics.put("snapshotsSent", snapshotsSent.get());
+        metrics.put("sendFailures", sendFailures.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,132 @@
+package com.touchvirtual.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Acompanha as inscrições STOMP por destino a partir dos eventos de sessão
+ *
+ * Os produtores de telemetria consultam a contagem antes de montar um payload e
+ * pulam o trabalho quando o tópico não tem ninguém ouvindo. Sessões anônimas
+ * também contam (o SimpUserRegistry só enxerga sessões com usuário autenticado).
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+@Service
+public class TopicSubscriptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicSubscriptionService.class);
+
+    // sessão -> (id da inscrição -> destino)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    // destino -> inscrições ativas; o destino sai do mapa quando a contagem zera,
+    // já que os nomes vêm do cliente (/topic/frame/<seções>) e não são limitados
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        String destination = accessor.getDestination();
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+
+        String previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        // Incremento dentro do compute: não concorre com a remoção de uma contagem zerada
+        AtomicInteger count = counts.compute(destination, (d, current) -> {
+            AtomicInteger updated = current != null ? current : new AtomicInteger();
+            updated.incrementAndGet();
+            return updated;
+        });
+        logger.debug("📡 Inscrição em {} ({} ativas)", destination, count);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessions.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        String destination = subscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    private void decrement(String destination) {
+        counts.computeIfPresent(destination, (d, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    /**
+     * Verifica se o destino tem ao menos uma inscrição ativa
+     */
+    public boolean hasSubscribers(String destination) {
+        AtomicInteger count = counts.get(destination);
+        return count != null && count.get() > 0;
+    }
+
+    /**
+     * Obtém o número de inscrições ativas no destino
+     */
+    public int getSubscriberCount(String destination) {
+        AtomicInteger count = counts.get(destination);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Destinos com inscrições ativas iguais ao prefixo ou abaixo dele ({@code prefixo/...})
+     */
+    public List<String> getActiveDestinations(String prefix) {
+        List<String> destinations = new ArrayList<>();
+        counts.forEach((destination, count) -> {
+            if (count.get() > 0 && (destination.equals(prefix) || destination.startsWith(prefix + "/"))) {
+                destinations.add(destination);
+            }
+        });
+        return destinations;
+    }
+
+    /**
+     * Contagem de inscrições por destino e número de sessões com inscrições
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Integer> topics = new HashMap<>();
+        counts.forEach((destination, count) -> topics.put(destination, count.get()));
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("topics", topics);
+        metrics.put("sessions", sessions.size());
+        return metrics;
+    }
+}
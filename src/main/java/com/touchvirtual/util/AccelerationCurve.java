@@ -0,0 +1,128 @@
+package com.touchvirtual.util;
+
+import com.touchvirtual.model.UserSettings.AccelerationProfile;
+
+import java.util.Arrays;
+
+/**
+ * Curva de aceleração do cursor pré-calculada em tabela de ganho
+ *
+ * A tabela é indexada pela velocidade da mão (unidades normalizadas da câmera
+ * por segundo) e consultada com interpolação linear, sem alocar memória.
+ * Os perfis seguem a ideia do libinput: flat, adaptive e custom.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public class AccelerationCurve {
+
+    public static final int TABLE_SIZE = 256;
+    public static final double MAX_VELOCITY = 4.0;
+
+    private static final double[] NO_POINTS = new double[0];
+
+    // Parâmetros do perfil adaptativo
+    private static final double ADAPTIVE_THRESHOLD = 0.25;
+    private static final double ADAPTIVE_LOW_GAIN = 0.4;
+    private static final double ADAPTIVE_INCLINE = 1.5;
+    private static final double ADAPTIVE_MAX_GAIN = 3.5;
+
+    private final AccelerationProfile profile;
+    private final double speed;
+    private final double customStep;
+    private final double[] customPoints;
+    private final double[] gains;
+    private final double tableStep;
+
+    private AccelerationCurve(AccelerationProfile profile, double speed,
+                              double customStep, double[] customPoints) {
+        this.profile = profile;
+        this.speed = speed;
+        this.customStep = customStep;
+        this.customPoints = customPoints != null ? customPoints.clone() : NO_POINTS;
+        this.gains = new double[TABLE_SIZE];
+        this.tableStep = MAX_VELOCITY / (TABLE_SIZE - 1);
+
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            gains[i] = computeGain(i * tableStep);
+        }
+    }
+
+    /**
+     * Constrói a tabela para um perfil
+     *
+     * @param speed ajuste do usuário em [-1, 1], como no libinput
+     */
+    public static AccelerationCurve build(AccelerationProfile profile, double speed,
+                                          double customStep, double[] customPoints) {
+        return new AccelerationCurve(profile != null ? profile : AccelerationProfile.ADAPTIVE,
+                MathUtils.clamp(speed, -1.0, 1.0), customStep, customPoints);
+    }
+
+    /**
+     * Calcula o ganho analítico do perfil para uma velocidade
+     */
+    private double computeGain(double velocity) {
+        switch (profile) {
+            case FLAT:
+                return Math.max(0.1, 1.0 + speed);
+
+            case CUSTOM:
+                if (customPoints.length == 0 || customStep <= 0) {
+                    return 1.0;
+                }
+                double position = velocity / customStep;
+                int index = (int) position;
+                if (index >= customPoints.length - 1) {
+                    return customPoints[customPoints.length - 1];
+                }
+                return MathUtils.lerp(customPoints[index], customPoints[index + 1], position - index);
+
+            case ADAPTIVE:
+            default:
+                // Velocidade maior reduz o limiar e aumenta a inclinação da curva
+                double threshold = ADAPTIVE_THRESHOLD * (1.0 - 0.4 * speed);
+                if (velocity < threshold) {
+                    // Desacelera movimentos lentos para precisão
+                    return MathUtils.lerp(ADAPTIVE_LOW_GAIN, 1.0, velocity / threshold);
+                }
+                double incline = ADAPTIVE_INCLINE * (1.0 + speed);
+                double maxGain = ADAPTIVE_MAX_GAIN * (1.0 + 0.5 * speed);
+                return Math.min(maxGain, 1.0 + incline * (velocity - threshold));
+        }
+    }
+
+    /**
+     * Consulta o ganho para uma velocidade (sem alocação)
+     */
+    public double gain(double velocity) {
+        if (velocity <= 0.0) {
+            return gains[0];
+        }
+        double position = velocity / tableStep;
+        int index = (int) position;
+        if (index >= TABLE_SIZE - 1) {
+            return gains[TABLE_SIZE - 1];
+        }
+        return MathUtils.lerp(gains[index], gains[index + 1], position - index);
+    }
+
+    /**
+     * Verifica se a tabela foi gerada com os mesmos parâmetros
+     */
+    public boolean matches(AccelerationProfile profile, double speed,
+                           double customStep, double[] customPoints) {
+        return this.profile == (profile != null ? profile : AccelerationProfile.ADAPTIVE)
+                && this.speed == MathUtils.clamp(speed, -1.0, 1.0)
+                && this.customStep == customStep
+                && Arrays.equals(this.customPoints, customPoints != null ? customPoints : NO_POINTS);
+    }
+
+    public AccelerationProfile getProfile() {
+        return profile;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+}
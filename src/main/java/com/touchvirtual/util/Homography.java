@@ -0,0 +1,211 @@
+package com.touchvirtual.util;
+
+import java.util.Random;
+
+/**
+ * Homografia plana (câmera -> tela) com ajuste robusto por RANSAC
+ *
+ * Modelo: u = (h0·x + h1·y + h2) / (h6·x + h7·y + 1) e
+ * v = (h3·x + h4·y + h5) / (h6·x + h7·y + 1). O ajuste usa mínimos quadrados
+ * sobre a forma linearizada; as coordenadas devem estar normalizadas (≈ [0, 1])
+ * para o sistema ficar bem condicionado.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public class Homography {
+
+    // Pontos mínimos para definir a homografia
+    public static final int MIN_POINTS = 4;
+
+    private final double[] h;
+
+    private Homography(double[] h) {
+        this.h = h;
+    }
+
+    /**
+     * Resultado do RANSAC: modelo refinado sobre os inliers e a máscara de inliers
+     */
+    public static class RansacResult {
+        private final Homography model;
+        private final boolean[] inliers;
+        private final int inlierCount;
+
+        RansacResult(Homography model, boolean[] inliers, int inlierCount) {
+            this.model = model;
+            this.inliers = inliers;
+            this.inlierCount = inlierCount;
+        }
+
+        public Homography getModel() { return model; }
+
+        public boolean[] getInliers() { return inliers; }
+
+        public int getInlierCount() { return inlierCount; }
+    }
+
+    /**
+     * Ajusta por mínimos quadrados sobre os índices informados
+     *
+     * @return a homografia ou null se os pontos forem degenerados
+     */
+    public static Homography fit(double[] srcX, double[] srcY, double[] dstX, double[] dstY,
+            int[] indices, int count) {
+        if (count < MIN_POINTS) {
+            return null;
+        }
+
+        // Equações normais (AᵀA | Aᵀb) do sistema 8x8
+        double[][] normal = new double[8][9];
+        double[] row = new double[8];
+        for (int n = 0; n < count; n++) {
+            int i = indices[n];
+            double x = srcX[i];
+            double y = srcY[i];
+            double u = dstX[i];
+            double v = dstY[i];
+
+            row[0] = x; row[1] = y; row[2] = 1; row[3] = 0; row[4] = 0; row[5] = 0;
+            row[6] = -x * u; row[7] = -y * u;
+            accumulate(normal, row, u);
+
+            row[0] = 0; row[1] = 0; row[2] = 0; row[3] = x; row[4] = y; row[5] = 1;
+            row[6] = -x * v; row[7] = -y * v;
+            accumulate(normal, row, v);
+        }
+
+        if (!MathUtils.solveLinearSystem(normal, 8)) {
+            return null;
+        }
+
+        double[] h = new double[8];
+        for (int k = 0; k < 8; k++) {
+            h[k] = normal[k][8];
+        }
+        return new Homography(h);
+    }
+
+    private static void accumulate(double[][] normal, double[] row, double target) {
+        for (int a = 0; a < 8; a++) {
+            if (row[a] == 0.0) {
+                continue;
+            }
+            for (int b = 0; b < 8; b++) {
+                normal[a][b] += row[a] * row[b];
+            }
+            normal[a][8] += row[a] * target;
+        }
+    }
+
+    /**
+     * Ajuste robusto: sorteia conjuntos mínimos de grupos distintos, mantém o
+     * modelo com mais inliers e o refina sobre todos eles
+     *
+     * @param groups          grupo (alvo) de cada amostra; o conjunto mínimo usa grupos distintos
+     * @param inlierThreshold erro máximo de reprojeção de um inlier, na escala do destino
+     */
+    public static RansacResult fitRansac(double[] srcX, double[] srcY, double[] dstX, double[] dstY,
+            int[] groups, int iterations, double inlierThreshold, Random random) {
+        int count = srcX.length;
+        if (count < MIN_POINTS) {
+            return null;
+        }
+
+        double threshold2 = inlierThreshold * inlierThreshold;
+        int[] sample = new int[MIN_POINTS];
+        boolean[] best = null;
+        int bestCount = 0;
+        boolean[] current = new boolean[count];
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            if (!drawSample(groups, count, sample, random)) {
+                break;
+            }
+
+            Homography candidate = fit(srcX, srcY, dstX, dstY, sample, MIN_POINTS);
+            if (candidate == null) {
+                continue;
+            }
+
+            int inliers = candidate.markInliers(srcX, srcY, dstX, dstY, threshold2, current);
+            if (inliers > bestCount) {
+                bestCount = inliers;
+                best = current.clone();
+                if (bestCount == count) {
+                    break;
+                }
+            }
+        }
+
+        if (best == null || bestCount < MIN_POINTS) {
+            return null;
+        }
+
+        // Refina sobre todos os inliers e recalcula a máscara com o modelo final
+        int[] indices = new int[bestCount];
+        for (int i = 0, n = 0; i < count; i++) {
+            if (best[i]) {
+                indices[n++] = i;
+            }
+        }
+        Homography refined = fit(srcX, srcY, dstX, dstY, indices, bestCount);
+        if (refined == null) {
+            return null;
+        }
+
+        boolean[] inliers = new boolean[count];
+        int inlierCount = refined.markInliers(srcX, srcY, dstX, dstY, threshold2, inliers);
+        return new RansacResult(refined, inliers, inlierCount);
+    }
+
+    /**
+     * Sorteia um conjunto mínimo com amostras de grupos distintos
+     */
+    private static boolean drawSample(int[] groups, int count, int[] sample, Random random) {
+        for (int s = 0; s < MIN_POINTS; s++) {
+            int attempts = 0;
+            boolean distinct;
+            do {
+                sample[s] = random.nextInt(count);
+                distinct = true;
+                for (int p = 0; p < s; p++) {
+                    if (groups[sample[p]] == groups[sample[s]]) {
+                        distinct = false;
+                        break;
+                    }
+                }
+            } while (!distinct && ++attempts < 64);
+
+            if (!distinct) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int markInliers(double[] srcX, double[] srcY, double[] dstX, double[] dstY,
+            double threshold2, boolean[] out) {
+        int inliers = 0;
+        double[] mapped = new double[2];
+        for (int i = 0; i < srcX.length; i++) {
+            map(srcX[i], srcY[i], mapped);
+            double dx = mapped[0] - dstX[i];
+            double dy = mapped[1] - dstY[i];
+            out[i] = dx * dx + dy * dy <= threshold2;
+            if (out[i]) {
+                inliers++;
+            }
+        }
+        return inliers;
+    }
+
+    /**
+     * Aplica a homografia a um ponto
+     */
+    public void map(double x, double y, double[] out) {
+        double w = h[6] * x + h[7] * y + 1.0;
+        out[0] = (h[0] * x + h[1] * y + h[2]) / w;
+        out[1] = (h[3] * x + h[4] * y + h[5]) / w;
+    }
+}
@@ -0,0 +1,112 @@
+package com.touchvirtual.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Árvore KD bidimensional para busca dos k vizinhos mais próximos
+ *
+ * A árvore é implícita: os índices dos pontos são reordenados de forma que a
+ * mediana de cada intervalo seja o nó. A busca não aloca memória.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public class KdTree {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] order;
+
+    public KdTree(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.order = new int[xs.length];
+        Integer[] indices = new Integer[xs.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        build(indices, 0, indices.length, 0);
+        for (int i = 0; i < indices.length; i++) {
+            order[i] = indices[i];
+        }
+    }
+
+    /**
+     * Ordena recursivamente cada intervalo pelo eixo da profundidade atual
+     */
+    private void build(Integer[] indices, int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+
+        Comparator<Integer> comparator = (depth % 2 == 0)
+                ? Comparator.comparingDouble(i -> xs[i])
+                : Comparator.comparingDouble(i -> ys[i]);
+        Arrays.sort(indices, lo, hi, comparator);
+
+        int mid = (lo + hi) >>> 1;
+        build(indices, lo, mid, depth + 1);
+        build(indices, mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Busca os k vizinhos mais próximos de (x, y)
+     *
+     * @param outIndices índices dos vizinhos, do mais próximo ao mais distante
+     * @param outDist2 distâncias ao quadrado correspondentes
+     * @return quantidade de vizinhos encontrados (min(k, tamanho))
+     */
+    public int nearest(double x, double y, int k, int[] outIndices, double[] outDist2) {
+        int count = Math.min(k, order.length);
+        Arrays.fill(outDist2, 0, count, Double.POSITIVE_INFINITY);
+        search(x, y, 0, order.length, 0, count, outIndices, outDist2);
+        return count;
+    }
+
+    private void search(double x, double y, int lo, int hi, int depth, int k,
+            int[] outIndices, double[] outDist2) {
+        if (lo >= hi) {
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        int index = order[mid];
+        double dx = x - xs[index];
+        double dy = y - ys[index];
+        insert(index, dx * dx + dy * dy, k, outIndices, outDist2);
+
+        double delta = (depth % 2 == 0) ? dx : dy;
+        int nearLo = delta < 0 ? lo : mid + 1;
+        int nearHi = delta < 0 ? mid : hi;
+        int farLo = delta < 0 ? mid + 1 : lo;
+        int farHi = delta < 0 ? hi : mid;
+
+        search(x, y, nearLo, nearHi, depth + 1, k, outIndices, outDist2);
+        if (delta * delta < outDist2[k - 1]) {
+            search(x, y, farLo, farHi, depth + 1, k, outIndices, outDist2);
+        }
+    }
+
+    /**
+     * Insere um candidato na lista ordenada de vizinhos
+     */
+    private static void insert(int index, double dist2, int k, int[] outIndices, double[] outDist2) {
+        if (dist2 >= outDist2[k - 1]) {
+            return;
+        }
+
+        int position = k - 1;
+        while (position > 0 && outDist2[position - 1] > dist2) {
+            outDist2[position] = outDist2[position - 1];
+            outIndices[position] = outIndices[position - 1];
+            position--;
+        }
+        outDist2[position] = dist2;
+        outIndices[position] = index;
+    }
+
+    public int size() {
+        return order.length;
+    }
+}
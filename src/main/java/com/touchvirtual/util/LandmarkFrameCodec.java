@@ -0,0 +1,108 @@
+package com.touchvirtual.util;
+
+import com.touchvirtual.model.HandLandmark;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Formato binário dos frames de landmarks enviados pelo WebSocket bruto
+ *
+ * Cabeçalho de 12 bytes little-endian: tipo (u8), quantidade de landmarks (u8),
+ * mãos detectadas (u16), sequência do frame (u32) e confiança (f32). Em seguida
+ * vêm x, y e z de cada landmark quantizados com {@link #SCALE}: como int16 no
+ * keyframe ou como diferença int8 em relação ao frame anterior no delta. O
+ * frame vazio (sem mão) tem só o cabeçalho.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public final class LandmarkFrameCodec {
+
+    public static final byte KIND_EMPTY = 0;
+    public static final byte KIND_KEYFRAME = 1;
+    public static final byte KIND_DELTA = 2;
+
+    public static final int HEADER_BYTES = 12;
+
+    // Passos por unidade normalizada: resolução de 1/4096 e faixa de ±8 no int16
+    public static final float SCALE = 4096f;
+
+    private LandmarkFrameCodec() {}
+
+    /**
+     * Quantiza os landmarks em x, y, z intercalados
+     */
+    public static short[] quantize(List<HandLandmark> landmarks) {
+        int count = Math.min(landmarks.size(), 255);
+        short[] quantized = new short[count * 3];
+        for (int i = 0; i < count; i++) {
+            HandLandmark landmark = landmarks.get(i);
+            quantized[i * 3] = toFixed(landmark.getX());
+            quantized[i * 3 + 1] = toFixed(landmark.getY());
+            quantized[i * 3 + 2] = toFixed(landmark.getZ());
+        }
+        return quantized;
+    }
+
+    private static short toFixed(double value) {
+        long fixed = Math.round(value * SCALE);
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, fixed));
+    }
+
+    /**
+     * Frame completo com as coordenadas em int16
+     */
+    public static byte[] encodeKeyframe(long sequence, int handCount, double confidence, short[] quantized) {
+        ByteBuffer buffer = header(KIND_KEYFRAME, quantized.length / 3, sequence, handCount, confidence,
+                quantized.length * 2);
+        for (short value : quantized) {
+            buffer.putShort(value);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Frame com as diferenças em int8 para o frame anterior
+     *
+     * @return o frame, ou null se a quantidade mudou ou alguma diferença não cabe em int8
+     */
+    public static byte[] encodeDelta(long sequence, int handCount, double confidence,
+            short[] quantized, short[] previous) {
+        if (previous == null || previous.length != quantized.length) {
+            return null;
+        }
+        for (int i = 0; i < quantized.length; i++) {
+            int delta = quantized[i] - previous[i];
+            if (delta < Byte.MIN_VALUE || delta > Byte.MAX_VALUE) {
+                return null;
+            }
+        }
+
+        ByteBuffer buffer = header(KIND_DELTA, quantized.length / 3, sequence, handCount, confidence,
+                quantized.length);
+        for (int i = 0; i < quantized.length; i++) {
+            buffer.put((byte) (quantized[i] - previous[i]));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Frame sem mão detectada
+     */
+    public static byte[] encodeEmpty(long sequence) {
+        return header(KIND_EMPTY, 0, sequence, 0, 0.0, 0).array();
+    }
+
+    private static ByteBuffer header(byte kind, int count, long sequence, int handCount, double confidence,
+            int bodyBytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyBytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(kind);
+        buffer.put((byte) count);
+        buffer.putShort((short) Math.min(handCount, 0xFFFF));
+        buffer.putInt((int) sequence);
+        buffer.putFloat((float) confidence);
+        return buffer;
+    }
+}
@@ -244,6 +244,53 @@ public class MathUtils {
         );
     }
     
+    /**
+     * Resolve um sistema linear por eliminação de Gauss com pivotamento parcial
+     *
+     * A matriz é aumentada (colunas após {@code size} são os lados direitos) e
+     * recebe as soluções no lugar; retorna false se o sistema for singular.
+     */
+    public static boolean solveLinearSystem(double[][] matrix, int size) {
+        int columns = matrix[0].length;
+
+        for (int col = 0; col < size; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < size; row++) {
+                if (Math.abs(matrix[row][col]) > Math.abs(matrix[pivot][col])) {
+                    pivot = row;
+                }
+            }
+            if (Math.abs(matrix[pivot][col]) < 1e-12) {
+                return false;
+            }
+
+            double[] swap = matrix[col];
+            matrix[col] = matrix[pivot];
+            matrix[pivot] = swap;
+
+            for (int row = 0; row < size; row++) {
+                if (row == col) {
+                    continue;
+                }
+                double factor = matrix[row][col] / matrix[col][col];
+                if (factor == 0.0) {
+                    continue;
+                }
+                for (int c = col; c < columns; c++) {
+                    matrix[row][c] -= factor * matrix[col][c];
+                }
+            }
+        }
+
+        for (int row = 0; row < size; row++) {
+            double diagonal = matrix[row][row];
+            for (int c = size; c < columns; c++) {
+                matrix[row][c] /= diagonal;
+            }
+        }
+        return true;
+    }
+
     /**
      * Calcula a velocidade entre dois pontos
      */
@@ -0,0 +1,401 @@
+package com.touchvirtual.util;
+
+import com.touchvirtual.model.CalibrationData;
+import com.touchvirtual.model.DistortionGrid;
+import com.touchvirtual.model.GestureType;
+import com.touchvirtual.model.UserSettings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * Formato binário compacto dos perfis de usuário
+ *
+ * Layout: cabeçalho (magic, versão do schema), seções no formato
+ * tag/tamanho/conteúdo e um CRC32 final. Seções desconhecidas são ignoradas e
+ * seções ausentes mantêm os valores padrão, então campos novos entram como
+ * seções novas. Mudanças incompatíveis sobem {@link #SCHEMA_VERSION} e
+ * registram um passo em {@link #MIGRATIONS}.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public final class ProfileCodec {
+
+    public static final int MAGIC = 0x54565046; // "TVPF"
+    public static final int SCHEMA_VERSION = 1;
+
+    // Tags das seções
+    private static final byte SECTION_END = 0;
+    private static final byte SECTION_CALIBRATION = 1;
+    private static final byte SECTION_DISTORTION = 2;
+    private static final byte SECTION_SPLINE = 3;
+    private static final byte SECTION_FILTERS = 4;
+    private static final byte SECTION_GESTURES = 5;
+    private static final byte SECTION_REFINEMENT = 6;
+
+    /**
+     * Passos de migração indexados pela versão de origem: o passo i converte as
+     * seções da versão i + 1 para a versão i + 2
+     */
+    private static final List<UnaryOperator<Map<Byte, ByteBuffer>>> MIGRATIONS = List.of();
+
+    private ProfileCodec() {}
+
+    /**
+     * Resultado da leitura de um perfil
+     */
+    public static class DecodeResult {
+        private final int schemaVersion;
+        private final boolean migrated;
+
+        DecodeResult(int schemaVersion, boolean migrated) {
+            this.schemaVersion = schemaVersion;
+            this.migrated = migrated;
+        }
+
+        public int getSchemaVersion() { return schemaVersion; }
+
+        public boolean isMigrated() { return migrated; }
+    }
+
+    /**
+     * Codifica ajustes e calibração de um perfil
+     */
+    public static byte[] encode(UserSettings settings, CalibrationData calibration) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeShort(SCHEMA_VERSION);
+
+        if (calibration != null) {
+            writeSection(out, SECTION_CALIBRATION, section -> writeCalibration(section, calibration));
+            DistortionGrid grid = calibration.getDistortionGrid();
+            if (grid != null) {
+                writeSection(out, SECTION_DISTORTION, section -> writeDistortion(section, grid));
+            }
+            ThinPlateSpline spline = calibration.getSpline();
+            if (spline != null) {
+                writeSection(out, SECTION_SPLINE, spline::writeTo);
+            }
+            double[] refinement = calibration.getRefinement();
+            if (refinement != null) {
+                writeSection(out, SECTION_REFINEMENT, section -> writeDoubles(section, refinement));
+            }
+        }
+        if (settings != null) {
+            writeSection(out, SECTION_FILTERS, section -> writeFilters(section, settings));
+            writeSection(out, SECTION_GESTURES, section -> writeGestures(section, settings));
+        }
+        out.writeByte(SECTION_END);
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodifica um perfil sobre os objetos informados, migrando versões antigas
+     *
+     * @throws IOException se o arquivo estiver corrompido ou for de uma versão mais nova
+     */
+    public static DecodeResult decode(ByteBuffer buffer, UserSettings settings, CalibrationData calibration)
+            throws IOException {
+        if (buffer.remaining() < 11) {
+            throw new IOException("perfil truncado");
+        }
+
+        // Valida o CRC sobre tudo exceto os 4 bytes finais
+        int end = buffer.limit() - 4;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(end));
+        if ((int) crc.getValue() != buffer.getInt(end)) {
+            throw new IOException("CRC inválido");
+        }
+
+        ByteBuffer in = buffer.duplicate().limit(end);
+        if (in.getInt() != MAGIC) {
+            throw new IOException("arquivo não é um perfil");
+        }
+        int version = in.getShort() & 0xFFFF;
+        if (version < 1 || version > SCHEMA_VERSION) {
+            throw new IOException("versão de schema não suportada: " + version);
+        }
+
+        Map<Byte, ByteBuffer> sections = new TreeMap<>();
+        byte tag;
+        while ((tag = in.get()) != SECTION_END) {
+            int length = in.getInt();
+            ByteBuffer section = in.slice(in.position(), length);
+            in.position(in.position() + length);
+            sections.put(tag, section);
+        }
+
+        // Aplica os passos de migração até a versão atual
+        for (int step = version - 1; step < SCHEMA_VERSION - 1; step++) {
+            sections = MIGRATIONS.get(step).apply(sections);
+        }
+
+        if (calibration != null) {
+            ByteBuffer section = sections.get(SECTION_CALIBRATION);
+            if (section != null) {
+                readCalibration(section, calibration);
+            }
+            section = sections.get(SECTION_DISTORTION);
+            calibration.setDistortionGrid(section != null ? readDistortion(section) : null);
+            section = sections.get(SECTION_SPLINE);
+            calibration.setSpline(section != null ? ThinPlateSpline.readFrom(section) : null);
+            section = sections.get(SECTION_REFINEMENT);
+            calibration.setRefinement(section != null ? readDoubles(section) : null);
+        }
+        if (settings != null) {
+            ByteBuffer section = sections.get(SECTION_FILTERS);
+            if (section != null) {
+                readFilters(section, settings);
+            }
+            section = sections.get(SECTION_GESTURES);
+            if (section != null) {
+                readGestures(section, settings);
+            }
+        }
+
+        return new DecodeResult(version, version != SCHEMA_VERSION);
+    }
+
+    @FunctionalInterface
+    private interface SectionWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Grava uma seção precedida da tag e do tamanho
+     */
+    private static void writeSection(DataOutputStream out, byte tag, SectionWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream section = new DataOutputStream(bytes);
+        writer.write(section);
+        section.flush();
+
+        out.writeByte(tag);
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+
+    private static void writeCalibration(DataOutputStream out, CalibrationData data) throws IOException {
+        writeString(out, data.getTargetDisplay());
+        out.writeInt(data.getScreenWidth());
+        out.writeInt(data.getScreenHeight());
+        out.writeInt(data.getCameraWidth());
+        out.writeInt(data.getCameraHeight());
+        out.writeDouble(data.getSensitivity());
+        out.writeDouble(data.getDeadband());
+        out.writeBoolean(data.isCalibrated());
+        out.writeLong(data.getLastCalibrationTime());
+
+        List<CalibrationData.CalibrationPoint> points = new ArrayList<>(data.getCalibrationPoints());
+        out.writeInt(points.size());
+        for (CalibrationData.CalibrationPoint point : points) {
+            out.writeDouble(point.getCameraX());
+            out.writeDouble(point.getCameraY());
+            out.writeInt(point.getScreenX());
+            out.writeInt(point.getScreenY());
+            out.writeFloat((float) point.getConfidence());
+        }
+    }
+
+    private static void readCalibration(ByteBuffer in, CalibrationData data) {
+        data.setTargetDisplay(readString(in));
+        data.setScreenWidth(in.getInt());
+        data.setScreenHeight(in.getInt());
+        data.setCameraWidth(in.getInt());
+        data.setCameraHeight(in.getInt());
+        data.setSensitivity(in.getDouble());
+        data.setDeadband(in.getDouble());
+        boolean calibrated = in.get() != 0;
+        long lastCalibrationTime = in.getLong();
+
+        int count = in.getInt();
+        List<CalibrationData.CalibrationPoint> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CalibrationData.CalibrationPoint point = new CalibrationData.CalibrationPoint(
+                    in.getDouble(), in.getDouble(), in.getInt(), in.getInt());
+            point.setConfidence(in.getFloat());
+            points.add(point);
+        }
+        data.setCalibrationPoints(points);
+        data.setCalibrated(calibrated);
+        data.setLastCalibrationTime(lastCalibrationTime);
+    }
+
+    private static void writeDistortion(DataOutputStream out, DistortionGrid grid) throws IOException {
+        out.writeInt(grid.getColumns());
+        out.writeInt(grid.getRows());
+        out.writeDouble(grid.getK1());
+        out.writeDouble(grid.getK2());
+        out.writeLong(grid.getBuildTime());
+        float[] offsetX = grid.getOffsetX();
+        float[] offsetY = grid.getOffsetY();
+        out.writeInt(offsetX.length);
+        for (int i = 0; i < offsetX.length; i++) {
+            out.writeFloat(offsetX[i]);
+            out.writeFloat(offsetY[i]);
+        }
+    }
+
+    private static DistortionGrid readDistortion(ByteBuffer in) {
+        DistortionGrid grid = new DistortionGrid();
+        grid.setColumns(in.getInt());
+        grid.setRows(in.getInt());
+        grid.setK1(in.getDouble());
+        grid.setK2(in.getDouble());
+        grid.setBuildTime(in.getLong());
+        int count = in.getInt();
+        float[] offsetX = new float[count];
+        float[] offsetY = new float[count];
+        for (int i = 0; i < count; i++) {
+            offsetX[i] = in.getFloat();
+            offsetY[i] = in.getFloat();
+        }
+        grid.setOffsetX(offsetX);
+        grid.setOffsetY(offsetY);
+        return grid;
+    }
+
+    private static void writeFilters(DataOutputStream out, UserSettings settings) throws IOException {
+        writeString(out, settings.getUserId());
+        writeString(out, settings.getProfileName());
+        out.writeDouble(settings.getSensitivity());
+        out.writeDouble(settings.getDeadband());
+        out.writeBoolean(settings.isLeftHanded());
+        out.writeBoolean(settings.isEnableSound());
+        out.writeBoolean(settings.isEnableVibration());
+        writeString(out, settings.getPointerMode() != null ? settings.getPointerMode().name() : null);
+        writeString(out, settings.getAccelerationProfile() != null
+                ? settings.getAccelerationProfile().name() : null);
+        out.writeDouble(settings.getAccelerationSpeed());
+        out.writeDouble(settings.getCustomAccelerationStep());
+        double[] points = settings.getCustomAccelerationPoints();
+        out.writeInt(points != null ? points.length : 0);
+        if (points != null) {
+            for (double point : points) {
+                out.writeDouble(point);
+            }
+        }
+    }
+
+    private static void readFilters(ByteBuffer in, UserSettings settings) {
+        settings.setUserId(readString(in));
+        settings.setProfileName(readString(in));
+        settings.setSensitivity(in.getDouble());
+        settings.setDeadband(in.getDouble());
+        settings.setLeftHanded(in.get() != 0);
+        settings.setEnableSound(in.get() != 0);
+        settings.setEnableVibration(in.get() != 0);
+        String pointerMode = readString(in);
+        if (pointerMode != null) {
+            settings.setPointerMode(UserSettings.PointerMode.valueOf(pointerMode));
+        }
+        String profile = readString(in);
+        if (profile != null) {
+            settings.setAccelerationProfile(UserSettings.AccelerationProfile.valueOf(profile));
+        }
+        settings.setAccelerationSpeed(in.getDouble());
+        settings.setCustomAccelerationStep(in.getDouble());
+        double[] points = new double[in.getInt()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = in.getDouble();
+        }
+        settings.setCustomAccelerationPoints(points);
+    }
+
+    /**
+     * Gestos habilitados e limiares numéricos das configurações customizadas
+     */
+    private static void writeGestures(DataOutputStream out, UserSettings settings) throws IOException {
+        Map<GestureType, Boolean> gestures = settings.getEnabledGestures();
+        out.writeInt(gestures.size());
+        for (Map.Entry<GestureType, Boolean> entry : gestures.entrySet()) {
+            writeString(out, entry.getKey().name());
+            out.writeBoolean(Boolean.TRUE.equals(entry.getValue()));
+        }
+
+        Map<String, Double> thresholds = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : settings.getCustomSettings().entrySet()) {
+            if (entry.getValue() instanceof Number number) {
+                thresholds.put(entry.getKey(), number.doubleValue());
+            }
+        }
+        out.writeInt(thresholds.size());
+        for (Map.Entry<String, Double> entry : thresholds.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeDouble(entry.getValue());
+        }
+    }
+
+    private static void readGestures(ByteBuffer in, UserSettings settings) {
+        int gestureCount = in.getInt();
+        for (int i = 0; i < gestureCount; i++) {
+            String name = readString(in);
+            boolean enabled = in.get() != 0;
+            try {
+                settings.setGestureEnabled(GestureType.valueOf(name), enabled);
+            } catch (IllegalArgumentException e) {
+                // Gesto removido desde que o perfil foi salvo
+            }
+        }
+
+        int thresholdCount = in.getInt();
+        for (int i = 0; i < thresholdCount; i++) {
+            String key = readString(in);
+            settings.setCustomSetting(key, in.getDouble());
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static double[] readDoubles(ByteBuffer in) {
+        double[] values = new double[in.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.getDouble();
+        }
+        return values;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
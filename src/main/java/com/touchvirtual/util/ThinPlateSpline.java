@@ -0,0 +1,271 @@
+package com.touchvirtual.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Interpolação por thin-plate spline local para calibração com muitos pontos
+ *
+ * Cada ponto de controle recebe um spline ajustado apenas sobre os seus k
+ * vizinhos mais próximos. Na avaliação a árvore KD encontra os pontos de
+ * controle mais próximos e os splines locais deles são combinados com pesos
+ * que vão a zero na borda da vizinhança, mantendo o mapeamento contínuo.
+ * O custo de avaliação depende de k, não da quantidade total de pontos.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public class ThinPlateSpline {
+
+    // Quantidade de splines locais combinados em cada avaliação
+    private static final int BLEND_COUNT = 3;
+
+    private final double[] srcX;
+    private final double[] srcY;
+    private final KdTree tree;
+    private final double[][] centersX;
+    private final double[][] centersY;
+    private final double[][] weightsX;
+    private final double[][] weightsY;
+    private final double[][] affineX;
+    private final double[][] affineY;
+
+    private ThinPlateSpline(double[] srcX, double[] srcY, int count) {
+        this.srcX = srcX;
+        this.srcY = srcY;
+        this.tree = new KdTree(srcX, srcY);
+        this.centersX = new double[count][];
+        this.centersY = new double[count][];
+        this.weightsX = new double[count][];
+        this.weightsY = new double[count][];
+        this.affineX = new double[count][];
+        this.affineY = new double[count][];
+    }
+
+    /**
+     * Ajusta os splines locais
+     *
+     * @param neighbourCount tamanho da vizinhança de cada spline local
+     * @param regularization suavização (0 = interpolação exata)
+     * @return o spline ajustado ou null se houver menos de 3 pontos
+     */
+    public static ThinPlateSpline fit(double[] srcX, double[] srcY, double[] dstX, double[] dstY,
+            int neighbourCount, double regularization) {
+        int count = srcX.length;
+        if (count < 3) {
+            return null;
+        }
+
+        ThinPlateSpline spline = new ThinPlateSpline(srcX, srcY, count);
+        int k = Math.min(Math.max(neighbourCount, 3), count);
+        int[] indices = new int[k];
+        double[] dist2 = new double[k];
+
+        for (int i = 0; i < count; i++) {
+            spline.tree.nearest(srcX[i], srcY[i], k, indices, dist2);
+            spline.fitLocal(i, indices.clone(), dstX, dstY, regularization);
+        }
+
+        return spline;
+    }
+
+    /**
+     * Resolve o sistema do thin-plate spline para uma vizinhança
+     */
+    private void fitLocal(int center, int[] local, double[] dstX, double[] dstY, double regularization) {
+        int k = local.length;
+        int size = k + 3;
+        double[][] matrix = new double[size][size + 2];
+
+        for (int a = 0; a < k; a++) {
+            double ax = srcX[local[a]];
+            double ay = srcY[local[a]];
+            for (int b = 0; b < k; b++) {
+                double dx = ax - srcX[local[b]];
+                double dy = ay - srcY[local[b]];
+                matrix[a][b] = kernel(dx * dx + dy * dy);
+            }
+            matrix[a][a] += regularization;
+            matrix[a][k] = 1.0;
+            matrix[a][k + 1] = ax;
+            matrix[a][k + 2] = ay;
+            matrix[k][a] = 1.0;
+            matrix[k + 1][a] = ax;
+            matrix[k + 2][a] = ay;
+            matrix[a][size] = dstX[local[a]];
+            matrix[a][size + 1] = dstY[local[a]];
+        }
+
+        // Coordenadas da vizinhança guardadas de forma contígua para a avaliação
+        centersX[center] = new double[k];
+        centersY[center] = new double[k];
+        for (int a = 0; a < k; a++) {
+            centersX[center][a] = srcX[local[a]];
+            centersY[center][a] = srcY[local[a]];
+        }
+
+        if (MathUtils.solveLinearSystem(matrix, size)) {
+            weightsX[center] = new double[k];
+            weightsY[center] = new double[k];
+            for (int a = 0; a < k; a++) {
+                weightsX[center][a] = matrix[a][size];
+                weightsY[center][a] = matrix[a][size + 1];
+            }
+            affineX[center] = new double[]{matrix[k][size], matrix[k + 1][size], matrix[k + 2][size]};
+            affineY[center] = new double[]{matrix[k][size + 1], matrix[k + 1][size + 1], matrix[k + 2][size + 1]};
+        } else {
+            // Vizinhança degenerada (pontos colineares): usa o valor do próprio ponto
+            weightsX[center] = new double[k];
+            weightsY[center] = new double[k];
+            affineX[center] = new double[]{dstX[center], 0.0, 0.0};
+            affineY[center] = new double[]{dstY[center], 0.0, 0.0};
+        }
+    }
+
+    /**
+     * Núcleo radial do thin-plate spline, U(r) = r² log r
+     */
+    private static double kernel(double r2) {
+        return r2 < 1e-20 ? 0.0 : 0.5 * r2 * Math.log(r2);
+    }
+
+    /**
+     * Avalia o spline local de um ponto de controle
+     */
+    private void evaluateLocal(int center, double x, double y, double[] out) {
+        double[] cx = centersX[center];
+        double[] cy = centersY[center];
+        double[] wx = weightsX[center];
+        double[] wy = weightsY[center];
+        double[] ax = affineX[center];
+        double[] ay = affineY[center];
+
+        double resultX = ax[0] + ax[1] * x + ax[2] * y;
+        double resultY = ay[0] + ay[1] * x + ay[2] * y;
+        for (int a = 0; a < cx.length; a++) {
+            double dx = x - cx[a];
+            double dy = y - cy[a];
+            double u = kernel(dx * dx + dy * dy);
+            resultX += wx[a] * u;
+            resultY += wy[a] * u;
+        }
+        out[0] = resultX;
+        out[1] = resultY;
+    }
+
+    /**
+     * Mapeia um ponto combinando os splines locais dos pontos de controle mais próximos
+     */
+    public double[] map(double x, double y) {
+        int[] indices = new int[BLEND_COUNT + 1];
+        double[] dist2 = new double[BLEND_COUNT + 1];
+        double[] local = new double[2];
+
+        int found = tree.nearest(x, y, BLEND_COUNT + 1, indices, dist2);
+
+        // Sobre um ponto de controle, usa diretamente o spline dele
+        if (dist2[0] < 1e-18) {
+            evaluateLocal(indices[0], x, y, local);
+            return local;
+        }
+
+        int blended = Math.min(BLEND_COUNT, found);
+        double outer = found > BLEND_COUNT ? Math.sqrt(dist2[BLEND_COUNT]) : 0.0;
+
+        double totalWeight = 0.0;
+        double resultX = 0.0;
+        double resultY = 0.0;
+        for (int i = 0; i < blended; i++) {
+            double distance = Math.sqrt(dist2[i]);
+            double weight;
+            if (outer > 0.0) {
+                // Peso de Shepard modificado: zero ao sair da vizinhança
+                double w = (outer - distance) / (outer * distance);
+                weight = w * w;
+            } else {
+                weight = 1.0 / dist2[i];
+            }
+
+            evaluateLocal(indices[i], x, y, local);
+            resultX += weight * local[0];
+            resultY += weight * local[1];
+            totalWeight += weight;
+        }
+
+        if (totalWeight <= 0.0) {
+            evaluateLocal(indices[0], x, y, local);
+            return local;
+        }
+
+        return new double[]{resultX / totalWeight, resultY / totalWeight};
+    }
+
+    /**
+     * Grava o spline ajustado em formato binário (usado pelo armazenamento de perfis)
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int count = srcX.length;
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeDouble(srcX[i]);
+            out.writeDouble(srcY[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            int k = centersX[i].length;
+            out.writeInt(k);
+            for (int a = 0; a < k; a++) {
+                out.writeDouble(centersX[i][a]);
+                out.writeDouble(centersY[i][a]);
+                out.writeDouble(weightsX[i][a]);
+                out.writeDouble(weightsY[i][a]);
+            }
+            for (int c = 0; c < 3; c++) {
+                out.writeDouble(affineX[i][c]);
+                out.writeDouble(affineY[i][c]);
+            }
+        }
+    }
+
+    /**
+     * Lê um spline gravado por {@link #writeTo}, sem refazer o ajuste
+     */
+    public static ThinPlateSpline readFrom(ByteBuffer in) {
+        int count = in.getInt();
+        double[] srcX = new double[count];
+        double[] srcY = new double[count];
+        for (int i = 0; i < count; i++) {
+            srcX[i] = in.getDouble();
+            srcY[i] = in.getDouble();
+        }
+
+        ThinPlateSpline spline = new ThinPlateSpline(srcX, srcY, count);
+        for (int i = 0; i < count; i++) {
+            int k = in.getInt();
+            spline.centersX[i] = new double[k];
+            spline.centersY[i] = new double[k];
+            spline.weightsX[i] = new double[k];
+            spline.weightsY[i] = new double[k];
+            for (int a = 0; a < k; a++) {
+                spline.centersX[i][a] = in.getDouble();
+                spline.centersY[i][a] = in.getDouble();
+                spline.weightsX[i][a] = in.getDouble();
+                spline.weightsY[i][a] = in.getDouble();
+            }
+            spline.affineX[i] = new double[3];
+            spline.affineY[i] = new double[3];
+            for (int c = 0; c < 3; c++) {
+                spline.affineX[i][c] = in.getDouble();
+                spline.affineY[i][c] = in.getDouble();
+            }
+        }
+        return spline;
+    }
+
+    /**
+     * Quantidade de pontos de controle
+     */
+    public int size() {
+        return srcX.length;
+    }
+}
@@ -0,0 +1,63 @@
+package com.touchvirtual.util;
+
+/**
+ * Balde de fichas para limitar a taxa de um tipo de evento
+ *
+ * As fichas são repostas continuamente na taxa configurada até a capacidade
+ * (rajada). Não é thread-safe: cada balde deve ser usado por uma única thread.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param ratePerSecond fichas repostas por segundo; 0 ou menos desativa o limite
+     * @param burst         capacidade máxima do balde
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000.0;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Consome uma ficha se houver
+     */
+    public boolean tryAcquire(long nowNanos) {
+        if (tokensPerNano <= 0) {
+            return true;
+        }
+        refill(nowNanos);
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tempo até a próxima ficha ficar disponível (0 se já houver)
+     */
+    public long nanosUntilAvailable(long nowNanos) {
+        if (tokensPerNano <= 0) {
+            return 0;
+        }
+        refill(nowNanos);
+        return tokens >= 1.0 ? 0 : (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
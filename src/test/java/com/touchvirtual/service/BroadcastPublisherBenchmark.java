@@ -0,0 +1,153 @@
+package com.touchvirtual.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.touchvirtual.dto.LandmarksUpdate;
+import com.touchvirtual.model.HandLandmark;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MimeTypeUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark da publicação nos tópicos STOMP: mapa + conversores do
+ * SimpMessagingTemplate contra a serialização única do {@link BroadcastPublisher}
+ *
+ * Usa um SimpleBrokerMessageHandler real com N sessões inscritas em
+ * /topic/landmarks e o enquadramento STOMP de cada sessão, um frame de 21
+ * landmarks e o tempo de CPU da thread. Imprime a mediana das rodadas medidas
+ * em microssegundos por transmissão. Não é um teste: rodar o main com o
+ * classpath de teste.
+ *
+ * @author TouchVirtual Team
+ * @version 1.0.0
+ */
+public class BroadcastPublisherBenchmark {
+
+    private static final int[] SUBSCRIBERS = {1, 10, 100};
+    private static final int BROADCASTS = 20000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+    private static final String DESTINATION = "/topic/landmarks";
+
+    private static long deliveries;
+    private static long framedBytes;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Random random = new Random(42);
+        List<HandLandmark> landmarks = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            landmarks.add(new HandLandmark(i, random.nextDouble(), random.nextDouble(), random.nextDouble(), 0.9));
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        for (int subscribers : SUBSCRIBERS) {
+            ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+            SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(
+                    new ExecutorSubscribableChannel(), stompOutbound(), brokerChannel, List.of("/topic"));
+            broker.start();
+            subscribe(broker, subscribers);
+
+            SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+            MappingJackson2MessageConverter jsonConverter = new MappingJackson2MessageConverter();
+            jsonConverter.setObjectMapper(objectMapper);
+            template.setMessageConverter(new CompositeMessageConverter(List.of(
+                    new StringMessageConverter(), new ByteArrayMessageConverter(), jsonConverter)));
+
+            BroadcastPublisher publisher = new BroadcastPublisher();
+            ReflectionTestUtils.setField(publisher, "messagingTemplate", template);
+            ReflectionTestUtils.setField(publisher, "objectMapper", objectMapper);
+
+            double[] mapMicros = new double[ROUNDS];
+            double[] onceMicros = new double[ROUNDS];
+            for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+                long start = threads.getCurrentThreadCpuTime();
+                for (int i = 0; i < BROADCASTS; i++) {
+                    Map<String, Object> update = new HashMap<>();
+                    update.put("landmarks", landmarks);
+                    update.put("handDetected", true);
+                    update.put("handCount", 1);
+                    update.put("confidence", 0.9);
+                    update.put("sequence", (long) i);
+                    update.put("heartbeat", false);
+                    update.put("timestamp", System.currentTimeMillis());
+                    template.convertAndSend(DESTINATION, update);
+                }
+                long middle = threads.getCurrentThreadCpuTime();
+                for (int i = 0; i < BROADCASTS; i++) {
+                    publisher.publish(DESTINATION,
+                            new LandmarksUpdate(landmarks, true, 1, 0.9, i, false, System.currentTimeMillis()));
+                }
+                long end = threads.getCurrentThreadCpuTime();
+                if (round >= WARMUP_ROUNDS) {
+                    mapMicros[round - WARMUP_ROUNDS] = (middle - start) / 1000.0 / BROADCASTS;
+                    onceMicros[round - WARMUP_ROUNDS] = (end - middle) / 1000.0 / BROADCASTS;
+                }
+            }
+            broker.stop();
+
+            System.out.printf("inscritos=%d  mapa+convertAndSend=%.1f us  serialização única=%.1f us%n",
+                    subscribers, median(mapMicros), median(onceMicros));
+        }
+        System.out.printf("entregas: %d  bytes enquadrados: %d%n", deliveries, framedBytes);
+    }
+
+    /**
+     * Canal de saída que faz o enquadramento STOMP de cada mensagem entregue
+     */
+    private static MessageChannel stompOutbound() {
+        StompEncoder encoder = new StompEncoder();
+        return (message, timeout) -> {
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            accessor.setDestination(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            accessor.setSubscriptionId(SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders()));
+            accessor.setSessionId(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            deliveries++;
+            framedBytes += encoder.encode(accessor.getMessageHeaders(), (byte[]) message.getPayload()).length;
+            return true;
+        };
+    }
+
+    private static void subscribe(SimpleBrokerMessageHandler broker, int sessions) {
+        for (int session = 0; session < sessions; session++) {
+            // O broker só entrega para sessões que passaram pelo CONNECT
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId("s" + session);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            accessor.setSessionId("s" + session);
+            accessor.setSubscriptionId("sub");
+            accessor.setDestination(DESTINATION);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}